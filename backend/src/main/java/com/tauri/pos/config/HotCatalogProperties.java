@@ -0,0 +1,28 @@
+package com.tauri.pos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sqlite.hot-catalog")
+public class HotCatalogProperties {
+
+    /**
+     * Serve product and barcode lookups from an in-memory copy of those tables.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Connections reading the in-memory copy.
+     */
+    private int readPoolSize = 4;
+
+    /**
+     * How often the copy's row counts are compared with the database, reloading it on a mismatch.
+     */
+    private Duration verifyInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,40 @@
+package com.tauri.pos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sqlite.backup")
+public class SqliteBackupProperties {
+
+    /**
+     * Take a backup every {@link #interval} in the background; manual backups work either way.
+     */
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofHours(24);
+
+    /**
+     * Directory backups are written to, relative to the working directory like the database URL.
+     */
+    private String directory = "../data/backups";
+
+    /**
+     * Newest backups kept; older ones are deleted after each successful backup.
+     */
+    private int keep = 7;
+
+    /**
+     * Database pages copied per backup step.
+     */
+    private int pagesPerStep = 256;
+
+    /**
+     * Pause between backup steps, leaving the disk to checkout writes.
+     */
+    private Duration stepPause = Duration.ofMillis(10);
+}
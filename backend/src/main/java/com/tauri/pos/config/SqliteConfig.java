@@ -1,19 +1,26 @@
 package com.tauri.pos.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,12 +32,52 @@ import java.util.Map;
     basePackages = {"com.tauri.pos.sqlite.persistance.dao"}
 )
 public class SqliteConfig {
+    private static final Logger log = LoggerFactory.getLogger(SqliteConfig.class);
 
+    /**
+     * The one connection SQLite writes go through, used only by {@link SqliteWriteExecutor}.
+     * It puts the database in WAL mode, so readers keep reading while it commits.
+     */
+    @Bean(name = "sqliteWriteDataSource")
+    public HikariDataSource sqliteWriteDataSource(SqliteProperties sqliteProperties) {
+        HikariDataSource dataSource = pool("sqlite-write", sqliteProperties);
+        dataSource.addDataSourceProperty("journal_mode", "WAL");
+        dataSource.addDataSourceProperty("journal_size_limit", String.valueOf(sqliteProperties.getJournalSizeLimit().toBytes()));
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setMinimumIdle(1);
+        // Never retired, so its page cache and the hot catalog's change listeners stay attached
+        dataSource.setMaxLifetime(0);
+        return dataSource;
+    }
+
+    /**
+     * Connections for every query outside the writer. They are opened query-only, so a write
+     * that bypasses the writer fails instead of waiting on its lock.
+     */
+    @Bean(name = "sqliteReadDataSource")
+    @ConfigurationProperties(prefix = "spring.datasource.sqlite.read")
+    public HikariDataSource sqliteReadDataSource(SqliteProperties sqliteProperties) {
+        HikariDataSource dataSource = pool("sqlite-read", sqliteProperties);
+        dataSource.setConnectionInitSql("PRAGMA query_only = 1");
+        return dataSource;
+    }
+
+    /**
+     * Routes between the two pools. Both open their first connection lazily, so a configured
+     * template is installed here before anything reads the database file.
+     */
     @Primary
     @Bean(name = "sqliteDataSource")
-    @ConfigurationProperties(prefix = "spring.datasource.sqlite")
-    public DataSource sqliteDataSource() {
-        return DataSourceBuilder.create().build();
+    public DataSource sqliteDataSource(@Qualifier("sqliteReadDataSource") DataSource readDataSource,
+                                       @Qualifier("sqliteWriteDataSource") DataSource writeDataSource,
+                                       SqliteProperties sqliteProperties) throws IOException {
+        installTemplate(sqliteProperties);
+        SqliteRoutingDataSource dataSource = new SqliteRoutingDataSource();
+        dataSource.setTargetDataSources(Map.of(
+                SqliteRoutingDataSource.READ, readDataSource,
+                SqliteRoutingDataSource.WRITE, writeDataSource));
+        dataSource.setDefaultTargetDataSource(readDataSource);
+        return dataSource;
     }
 
     @Primary
@@ -57,6 +104,55 @@ public class SqliteConfig {
     @Bean(name = "sqliteTransactionManager")
     public PlatformTransactionManager sqliteTransactionManager(
             @Qualifier("sqliteEntityManagerFactory") LocalContainerEntityManagerFactoryBean sqliteEntityManagerFactory) {
-        return new JpaTransactionManager(sqliteEntityManagerFactory.getObject());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(sqliteEntityManagerFactory.getObject());
+        // A failing DAO call inside a queued write must not doom the whole group commit: the
+        // writer rolls back to that write's savepoint and decides itself
+        transactionManager.setGlobalRollbackOnParticipationFailure(false);
+        return transactionManager;
+    }
+
+    @Bean(name = "sqliteJdbcTemplate")
+    public JdbcTemplate sqliteJdbcTemplate(@Qualifier("sqliteDataSource") DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Copy the configured template into place when the terminal has no database yet. The copy is
+     * written next to the database and renamed, so an interrupted copy is never mistaken for one.
+     */
+    private static void installTemplate(SqliteProperties sqliteProperties) throws IOException {
+        if (sqliteProperties.getTemplate() == null || sqliteProperties.getTemplate().isBlank()) {
+            return;
+        }
+        Path database = sqliteProperties.databaseFile().toAbsolutePath();
+        if (Files.exists(database)) {
+            return;
+        }
+        Path template = Path.of(sqliteProperties.getTemplate());
+        if (!Files.isRegularFile(template)) {
+            log.warn("SQLite template {} not found, starting with an empty database", template);
+            return;
+        }
+        Files.createDirectories(database.getParent());
+        Path partial = database.resolveSibling(database.getFileName() + ".template");
+        Files.copy(template, partial, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(partial, database, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Installed SQLite template {} as {}", template, database);
+    }
+
+    /**
+     * A pool on the terminal database whose connections open with the configured pragmas.
+     */
+    private static HikariDataSource pool(String name, SqliteProperties sqliteProperties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(sqliteProperties.getJdbcUrl());
+        dataSource.setDriverClassName(sqliteProperties.getDriverClassName());
+        dataSource.setConnectionTimeout(sqliteProperties.getConnectionTimeout().toMillis());
+        // A negative cache_size is in KiB rather than pages
+        dataSource.addDataSourceProperty("cache_size", String.valueOf(-sqliteProperties.getCacheSize().toKilobytes()));
+        dataSource.addDataSourceProperty("mmap_size", String.valueOf(sqliteProperties.getMmapSize().toBytes()));
+        dataSource.addDataSourceProperty("busy_timeout", String.valueOf(sqliteProperties.getBusyTimeout().toMillis()));
+        return dataSource;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.tauri.pos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sqlite.maintenance")
+public class SqliteMaintenanceProperties {
+
+    /**
+     * Run due maintenance in the background once the terminal database has been idle.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the scheduler looks for an idle moment.
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * How long the writer must have been quiet before maintenance starts.
+     */
+    private Duration idleAfter = Duration.ofSeconds(30);
+
+    /**
+     * How often committed WAL frames are copied back into the database file.
+     */
+    private Duration checkpointInterval = Duration.ofMinutes(5);
+
+    /**
+     * How often {@code PRAGMA optimize} refreshes statistics for tables that changed a lot.
+     */
+    private Duration optimizeInterval = Duration.ofHours(1);
+
+    /**
+     * How often every table and index is analyzed from scratch.
+     */
+    private Duration analyzeInterval = Duration.ofDays(1);
+
+    /**
+     * How often free pages are returned to the file system.
+     */
+    private Duration vacuumInterval = Duration.ofHours(6);
+
+    /**
+     * Free pages tolerated before an incremental vacuum runs.
+     */
+    private int vacuumMinFreePages = 256;
+
+    /**
+     * Free pages released per incremental vacuum step; queued writes run between steps.
+     */
+    private int vacuumStepPages = 1024;
+}
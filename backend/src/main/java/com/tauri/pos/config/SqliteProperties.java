@@ -0,0 +1,65 @@
+package com.tauri.pos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "spring.datasource.sqlite")
+public class SqliteProperties {
+
+    private static final String JDBC_URL_PREFIX = "jdbc:sqlite:";
+
+    private String jdbcUrl;
+
+    private String driverClassName = "org.sqlite.JDBC";
+
+    /**
+     * Prebuilt database copied into place when the database file does not exist yet, so a new
+     * terminal starts with the catalog and only syncs what changed since the template was built.
+     */
+    private String template;
+
+    /**
+     * Page cache kept by each connection.
+     */
+    private DataSize cacheSize = DataSize.ofMegabytes(16);
+
+    /**
+     * How much of the database file each connection reads through memory mapping; zero turns it off.
+     */
+    private DataSize mmapSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Size the WAL file is cut back to after a checkpoint empties it.
+     */
+    private DataSize journalSizeLimit = DataSize.ofMegabytes(64);
+
+    /**
+     * How long a connection waits on a lock held by another process, such as a database init,
+     * before failing with SQLITE_BUSY.
+     */
+    private Duration busyTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a caller waits for a pooled connection.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * The database file named by {@link #jdbcUrl}.
+     */
+    public Path databaseFile() {
+        String file = jdbcUrl.substring(JDBC_URL_PREFIX.length());
+        int query = file.indexOf('?');
+        if (query >= 0) {
+            file = file.substring(0, query);
+        }
+        return Path.of(file.startsWith("file:") ? file.substring("file:".length()) : file);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tauri.pos.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands the SQLite writer thread connections from the one-connection write pool and every other
+ * thread connections from the read-only pool, so JPA and JdbcTemplate share one DataSource.
+ */
+public class SqliteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String READ = "read";
+
+    static final String WRITE = "write";
+
+    private static final ThreadLocal<Boolean> WRITER_THREAD = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Route the calling thread to the write pool from now on; only {@link SqliteWriteExecutor} does this.
+     */
+    static void markWriterThread() {
+        WRITER_THREAD.set(true);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WRITER_THREAD.get() ? WRITE : READ;
+    }
+}
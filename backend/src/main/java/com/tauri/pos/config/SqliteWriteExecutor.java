@@ -0,0 +1,329 @@
+package com.tauri.pos.config;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The one thread that writes to SQLite.
+ * <p>
+ * SQLite takes a single writer at a time, so instead of letting pooled connections race for the
+ * write lock and fail with SQLITE_BUSY, every mutation is queued here and run on this thread,
+ * which alone is routed to the one-connection write pool.
+ * Writes queued within {@code sqlite.writer.commit-interval} of each other are committed in one
+ * transaction, each inside a savepoint of its own: a write that throws is rolled back to its
+ * savepoint and gets the exception, while the others in the group commit as if it had never run.
+ * Callers block until their write committed and get its result or exception; writes made from
+ * inside a queued write run inline.
+ * Statements SQLite refuses inside a transaction, such as VACUUM, are queued with
+ * {@link #executeWithoutTransaction} and run on their own between groups.
+ * <p>
+ * On shutdown the queue is drained and the WAL is checkpointed into the database file, while
+ * readers on the read-only pool keep their snapshots.
+ */
+@Component
+public class SqliteWriteExecutor {
+    private static final Logger log = LoggerFactory.getLogger(SqliteWriteExecutor.class);
+
+    private static final WriteTask<Void> SHUTDOWN = new WriteTask<>(() -> null, false);
+
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final SqliteWriterProperties properties;
+    private final BlockingQueue<WriteTask<?>> queue = new LinkedBlockingQueue<>();
+    private final Object lock = new Object();
+    private final Thread writer;
+    private boolean accepting = true;
+    private volatile long lastWriteNanos = System.nanoTime();
+
+    public SqliteWriteExecutor(@Qualifier("sqliteTransactionManager") PlatformTransactionManager sqliteTransactionManager,
+                               @Qualifier("sqliteJdbcTemplate") JdbcTemplate sqliteJdbcTemplate,
+                               SqliteWriterProperties properties) {
+        this.transactionManager = sqliteTransactionManager;
+        this.transactionTemplate = new TransactionTemplate(sqliteTransactionManager);
+        this.jdbcTemplate = sqliteJdbcTemplate;
+        this.properties = properties;
+        this.writer = new Thread(this::writeLoop, "sqlite-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Run the work in a SQLite write transaction on the writer thread and wait for it to commit.
+     * <p>
+     * The work normally runs exactly once. The exception is a neighbouring write failing inside a
+     * JPA flush: Hibernate then marks the shared transaction rollback-only, so the group is rolled
+     * back and the writes that had succeeded in it run again in a new one. Work should therefore
+     * only change the database, and leave caches and counters to the caller once this returns.
+     *
+     * @return the work's result once committed
+     */
+    public <T> T execute(Supplier<T> work) {
+        return submit(work, true);
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the work on the writer thread in autocommit mode, after the writes queued before it
+     * committed and before any queued after it.
+     */
+    public <T> T executeWithoutTransaction(Supplier<T> work) {
+        return submit(work, false);
+    }
+
+    /**
+     * How long since the writer last finished a write, or zero while writes are queued.
+     */
+    public Duration idleFor() {
+        if (!queue.isEmpty()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, System.nanoTime() - lastWriteNanos));
+    }
+
+    private <T> T submit(Supplier<T> work, boolean transactional) {
+        if (Thread.currentThread() == writer) {
+            return work.get();
+        }
+        WriteTask<T> task = new WriteTask<>(work, transactional);
+        synchronized (lock) {
+            if (!accepting) {
+                throw new IllegalStateException("The terminal database is shutting down");
+            }
+            queue.add(task);
+        }
+        try {
+            return task.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (lock) {
+            accepting = false;
+            queue.add(SHUTDOWN);
+        }
+        try {
+            writer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("SQLite writer still busy after {}, shutting down without a checkpoint", properties.getShutdownTimeout());
+        }
+    }
+
+    private void writeLoop() {
+        SqliteRoutingDataSource.markWriterThread();
+        List<WriteTask<?>> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                WriteTask<?> first = queue.take();
+                if (first == SHUTDOWN) {
+                    break;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + properties.getCommitInterval().toNanos();
+                while (batch.size() < properties.getMaxBatch()) {
+                    long remaining = deadline - System.nanoTime();
+                    WriteTask<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == SHUTDOWN) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts this thread but the JVM going down; commit what was collected
+                stopping = true;
+            }
+            commit(batch);
+            batch.clear();
+        }
+        try {
+            jdbcTemplate.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint the terminal database on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Commit the collected writes in order, grouping the transactional ones between the
+     * writes that must run outside a transaction.
+     */
+    private void commit(List<WriteTask<?>> batch) {
+        int groupStart = 0;
+        for (int i = 0; i <= batch.size(); i++) {
+            if (i == batch.size() || !batch.get(i).transactional) {
+                commitGroup(batch.subList(groupStart, i));
+                if (i < batch.size()) {
+                    runAlone(batch.get(i));
+                }
+                groupStart = i + 1;
+            }
+        }
+        lastWriteNanos = System.nanoTime();
+    }
+
+    private void runAlone(WriteTask<?> task) {
+        try {
+            task.run();
+            task.complete();
+        } catch (RuntimeException | Error e) {
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Commit the writes in one transaction, each in a savepoint so a failing one is undone alone.
+     * A write that leaves the transaction rollback-only fails, and the writes that succeeded
+     * beside it are run again in a new transaction. Failed writes learn of it only once the rest
+     * have committed, so a caller reacting to a failure reads what the competing writes left.
+     * Errors, and a failing commit, fail every write of the group without a retry.
+     */
+    private void commitGroup(List<WriteTask<?>> batch) {
+        List<WriteTask<?>> failed = new ArrayList<>();
+        commitGroup(batch, failed);
+        for (WriteTask<?> task : failed) {
+            task.future.completeExceptionally(task.failure);
+        }
+    }
+
+    /**
+     * Commit the writes and complete the ones that succeeded, collecting the failed ones.
+     */
+    private void commitGroup(List<WriteTask<?>> batch, List<WriteTask<?>> failed) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<WriteTask<?>> rerun = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    WriteTask<?> task = batch.get(i);
+                    if (!runInSavepoint(task, status)) {
+                        // Hibernate doomed the transaction; retry the others without the failed write
+                        batch.subList(0, i).stream().filter(done -> done.failure == null).forEach(rerun::add);
+                        rerun.addAll(batch.subList(i + 1, batch.size()));
+                        status.setRollbackOnly();
+                        return;
+                    }
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            for (WriteTask<?> task : batch) {
+                task.future.completeExceptionally(task.failure != null ? task.failure : e);
+            }
+            return;
+        }
+        if (!rerun.isEmpty()) {
+            log.debug("Group commit of {} writes was rolled back by a failing write, retrying {} of them", batch.size(), rerun.size());
+        }
+        for (WriteTask<?> task : batch) {
+            if (task.failure != null) {
+                failed.add(task);
+            } else if (!rerun.contains(task)) {
+                task.complete();
+            }
+        }
+        commitGroup(rerun, failed);
+    }
+
+    /**
+     * Run one write of a group between a savepoint and its release, rolling back to the savepoint
+     * if it throws.
+     *
+     * @return false if the write left the transaction rollback-only, so the group cannot commit
+     */
+    private boolean runInSavepoint(WriteTask<?> task, TransactionStatus status) {
+        jdbcTemplate.execute("SAVEPOINT write_task");
+        try {
+            task.run();
+            // Pending entity changes must reach SQLite while the savepoint still covers them
+            status.flush();
+            jdbcTemplate.execute("RELEASE write_task");
+            return true;
+        } catch (RuntimeException e) {
+            task.failure = e;
+            if (status.isRollbackOnly()) {
+                return false;
+            }
+            jdbcTemplate.execute("ROLLBACK TO write_task");
+            jdbcTemplate.execute("RELEASE write_task");
+            discardEntityChanges();
+            return true;
+        }
+    }
+
+    /**
+     * Forget entities the failed write persisted or changed but never flushed, so the next flush
+     * does not write them after all.
+     */
+    private void discardEntityChanges() {
+        if (transactionManager instanceof JpaTransactionManager jpa) {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(jpa.getEntityManagerFactory());
+            if (entityManager != null) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private static final class WriteTask<T> {
+        private final Supplier<T> work;
+        private final boolean transactional;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        private WriteTask(Supplier<T> work, boolean transactional) {
+            this.work = work;
+            this.transactional = transactional;
+        }
+
+        private void run() {
+            result = work.get();
+        }
+
+        private void complete() {
+            future.complete(result);
+        }
+    }
+}
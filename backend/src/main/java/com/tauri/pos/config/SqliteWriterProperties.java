@@ -0,0 +1,29 @@
+package com.tauri.pos.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sqlite.writer")
+public class SqliteWriterProperties {
+
+    /**
+     * How long the writer keeps collecting queued writes after the first one before committing
+     * them together; zero commits whatever is queued right away.
+     */
+    private Duration commitInterval = Duration.ofMillis(2);
+
+    /**
+     * Writes committed per transaction at most; the rest wait for the next commit.
+     */
+    private int maxBatch = 256;
+
+    /**
+     * How long shutdown waits for queued writes to commit before checkpointing the database.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
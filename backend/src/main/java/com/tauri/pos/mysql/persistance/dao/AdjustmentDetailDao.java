@@ -1,10 +1,18 @@
 package com.tauri.pos.mysql.persistance.dao;
 
 import com.tauri.pos.mysql.persistance.eo.AdjustmentDetailEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface AdjustmentDetailDao extends JpaRepository<AdjustmentDetailEntity, Long> {
@@ -13,4 +21,17 @@ public interface AdjustmentDetailDao extends JpaRepository<AdjustmentDetailEntit
     List<AdjustmentDetailEntity> findByWarehouseId(Long warehouseId);
     List<AdjustmentDetailEntity> findByBinId(Long binId);
     void deleteByAdjustmentId(Long adjustmentId);
+
+    // A primary key range scan, used to tail new adjustments into the local stock cache
+    List<AdjustmentDetailEntity> findByAdjustmentDetailIdGreaterThanOrderByAdjustmentDetailIdAsc(Long adjustmentDetailId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(ad.adjustmentDetailId), 0) FROM AdjustmentDetailEntity ad")
+    Long findMaxAdjustmentDetailId();
+
+    // The latest adjustment of every product/warehouse/bin position up to the given id
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT ad FROM AdjustmentDetailEntity ad WHERE ad.adjustmentDetailId IN ("
+            + "SELECT MAX(a.adjustmentDetailId) FROM AdjustmentDetailEntity a WHERE a.adjustmentDetailId <= :upToId "
+            + "GROUP BY a.productId, a.warehouseId, a.binId)")
+    Stream<AdjustmentDetailEntity> streamLatestPerPosition(@Param("upToId") Long upToId);
 }
@@ -0,0 +1,23 @@
+package com.tauri.pos.mysql.persistance.dao;
+
+import com.tauri.pos.mysql.persistance.eo.CatalogChangeLogEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeLogDao extends JpaRepository<CatalogChangeLogEntity, Long> {
+    // A primary key range scan, so tailing costs nothing however long the log grows
+    List<CatalogChangeLogEntity> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM CatalogChangeLogEntity c")
+    Long findMaxSeq();
+
+    // MySQL's clock, which changed_at is stamped from
+    @Query(value = "SELECT NOW(6)", nativeQuery = true)
+    LocalDateTime findDatabaseNow();
+}
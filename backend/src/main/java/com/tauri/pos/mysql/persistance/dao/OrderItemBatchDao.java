@@ -0,0 +1,17 @@
+package com.tauri.pos.mysql.persistance.dao;
+
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OrderItemBatchDao {
+
+    /**
+     * Insert the given items with one multi-row statement, updating the ones this terminal
+     * uploaded before. All items must carry the same terminal id.
+     *
+     * @return order_item_id of every item, keyed by local_id
+     */
+    Map<Long, Long> upsertAll(List<OrderItemEntity> items);
+}
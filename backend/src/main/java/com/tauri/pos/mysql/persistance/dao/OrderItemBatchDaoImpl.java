@@ -0,0 +1,74 @@
+package com.tauri.pos.mysql.persistance.dao;
+
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tauri.pos.shared.utils.JdbcValues.inList;
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+
+public class OrderItemBatchDaoImpl implements OrderItemBatchDao {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_item (terminal_id, local_id, order_id, product_id, quantity, price, created_at, updated_at, uploaded_at) VALUES ";
+
+    private static final String ROW_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // VALUES() rather than a row alias so MySQL before 8.0.19 accepts it too
+    private static final String ON_DUPLICATE_SQL = """
+             ON DUPLICATE KEY UPDATE
+                order_id = VALUES(order_id),
+                product_id = VALUES(product_id),
+                quantity = VALUES(quantity),
+                price = VALUES(price),
+                updated_at = VALUES(updated_at),
+                uploaded_at = VALUES(uploaded_at)""";
+
+    private static final String SELECT_IDS_SQL = "SELECT local_id, order_item_id FROM order_item WHERE terminal_id = ? AND local_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderItemBatchDaoImpl(@Qualifier("mysqlJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public Map<Long, Long> upsertAll(List<OrderItemEntity> items) {
+        if (items.isEmpty()) {
+            return Map.of();
+        }
+        List<Object> args = new ArrayList<>(items.size() * 9);
+        List<Long> localIds = new ArrayList<>(items.size());
+        for (OrderItemEntity item : items) {
+            args.add(item.getTerminalId());
+            args.add(item.getLocalId());
+            args.add(item.getOrderId());
+            args.add(item.getProductId());
+            args.add(item.getQuantity());
+            args.add(item.getPrice());
+            args.add(timestamp(item.getCreatedAt()));
+            args.add(timestamp(item.getUpdatedAt()));
+            args.add(timestamp(item.getUploadedAt()));
+            localIds.add(item.getLocalId());
+        }
+        jdbcTemplate.update(INSERT_SQL + String.join(", ", Collections.nCopies(items.size(), ROW_SQL)) + ON_DUPLICATE_SQL,
+                args.toArray());
+
+        // Generated keys are not reported for updated duplicates, so read every id back
+        Map<Long, Long> ids = new HashMap<>(items.size() * 2);
+        jdbcTemplate.query(SELECT_IDS_SQL.formatted(inList(localIds)),
+                rs -> {
+                    ids.put(rs.getLong(1), rs.getLong(2));
+                },
+                items.get(0).getTerminalId());
+        return ids;
+    }
+}
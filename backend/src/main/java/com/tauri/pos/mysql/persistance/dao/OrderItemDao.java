@@ -0,0 +1,9 @@
+package com.tauri.pos.mysql.persistance.dao;
+
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderItemDao extends JpaRepository<OrderItemEntity, Long>, OrderItemBatchDao {
+}
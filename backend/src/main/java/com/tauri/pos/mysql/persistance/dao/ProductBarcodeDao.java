@@ -2,10 +2,23 @@ package com.tauri.pos.mysql.persistance.dao;
 
 import com.tauri.pos.mysql.persistance.eo.ProductBarcodeEntity;
 import com.tauri.pos.mysql.persistance.eo.ProductBarcodeId;
+import com.tauri.pos.sync.model.CatalogScope;
+import com.tauri.pos.sync.model.ProductIdRange;
+import com.tauri.pos.sync.model.RangeDigest;
+import com.tauri.pos.sync.model.RowDigest;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductBarcodeDao extends JpaRepository<ProductBarcodeEntity, ProductBarcodeId> {
@@ -14,4 +27,49 @@ public interface ProductBarcodeDao extends JpaRepository<ProductBarcodeEntity, P
     List<ProductBarcodeEntity> findByStatus(Integer status);
     void deleteByProductId(Integer productId);
     void deleteByBarcode(String barcode);
+
+    // Rows of products outside the scope are left out, see ProductDao.IN_SCOPE
+    String IN_SCOPE = "(:#{#scope.allProducts} = true OR EXISTS (SELECT 1 FROM ProductEntity p WHERE p.productId = pb.productId AND "
+            + ProductDao.IN_SCOPE + "))";
+    String IN_SCOPE_SQL = "(:#{#scope.allProducts} = TRUE OR EXISTS (SELECT 1 FROM product p WHERE p.product_id = product_barcode.product_id AND "
+            + ProductDao.IN_SCOPE_SQL + "))";
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT pb FROM ProductBarcodeEntity pb WHERE pb.productId >= :fromProductId AND " + IN_SCOPE + " ORDER BY pb.productId, pb.barcode")
+    Stream<ProductBarcodeEntity> streamFromProductId(@Param("fromProductId") Integer fromProductId, @Param("scope") CatalogScope scope);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT pb FROM ProductBarcodeEntity pb WHERE pb.updatedAt >= :since AND pb.productId >= :fromProductId AND " + IN_SCOPE
+            + " ORDER BY pb.productId, pb.barcode")
+    Stream<ProductBarcodeEntity> streamUpdatedSince(@Param("since") LocalDateTime since, @Param("fromProductId") Integer fromProductId,
+                                                    @Param("scope") CatalogScope scope);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.tauri.pos.mysql.persistance.eo.ProductBarcodeId(pb.productId, pb.barcode) FROM ProductBarcodeEntity pb "
+            + "WHERE " + IN_SCOPE)
+    Stream<ProductBarcodeId> streamAllIds(@Param("scope") CatalogScope scope);
+
+    @Query("SELECT pb FROM ProductBarcodeEntity pb WHERE pb.productId IN :productIds AND " + IN_SCOPE)
+    List<ProductBarcodeEntity> findByProductIdIn(@Param("productIds") Collection<Integer> productIds, @Param("scope") CatalogScope scope);
+
+    // Must hash the same columns, in the same order and format, as CatalogRowHashes.barcode()
+    String ROW_HASH = "CAST(CONV(LEFT(MD5(CONCAT_WS(CHAR(31), product_id, barcode, status, created_by, updated_by, "
+            + "IFNULL(DATE_FORMAT(created_at, '%Y%m%d%H%i%s'), CHAR(0)), IFNULL(DATE_FORMAT(updated_at, '%Y%m%d%H%i%s'), CHAR(0)))), 16), 16, 10) AS UNSIGNED)";
+
+    @Query(value = "SELECT MIN(product_id) AS minProductId, MAX(product_id) AS maxProductId FROM product_barcode", nativeQuery = true)
+    ProductIdRange findProductIdRange();
+
+    @Query(value = "SELECT (product_id - :fromProductId) DIV :step AS bucket, COUNT(*) AS rowCount, "
+            + "CAST(BIT_XOR(" + ROW_HASH + ") AS SIGNED) AS digest FROM product_barcode "
+            + "WHERE product_id BETWEEN :fromProductId AND :toProductId AND " + IN_SCOPE_SQL + " GROUP BY bucket", nativeQuery = true)
+    List<RangeDigest> digestRanges(@Param("fromProductId") long fromProductId,
+                                   @Param("toProductId") long toProductId,
+                                   @Param("step") long step,
+                                   @Param("scope") CatalogScope scope);
+
+    @Query(value = "SELECT product_id AS productId, CONCAT_WS('|', product_id, barcode) AS rowKey, "
+            + "CAST(" + ROW_HASH + " AS SIGNED) AS rowHash FROM product_barcode "
+            + "WHERE product_id BETWEEN :fromProductId AND :toProductId AND " + IN_SCOPE_SQL, nativeQuery = true)
+    List<RowDigest> digestRows(@Param("fromProductId") long fromProductId, @Param("toProductId") long toProductId,
+                               @Param("scope") CatalogScope scope);
 }
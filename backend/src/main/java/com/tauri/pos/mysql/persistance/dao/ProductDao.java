@@ -1,10 +1,23 @@
 package com.tauri.pos.mysql.persistance.dao;
 
 import com.tauri.pos.mysql.persistance.eo.ProductEntity;
+import com.tauri.pos.sync.model.CatalogScope;
+import com.tauri.pos.sync.model.ProductIdRange;
+import com.tauri.pos.sync.model.RangeDigest;
+import com.tauri.pos.sync.model.RowDigest;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductDao extends JpaRepository<ProductEntity, Long> {
@@ -12,4 +25,52 @@ public interface ProductDao extends JpaRepository<ProductEntity, Long> {
     List<ProductEntity> findByBrandId(Integer brandId);
     List<ProductEntity> findBySku(String sku);
     List<ProductEntity> findByBarcode(String barcode);
+
+    // Sync queries take a CatalogScope so terminals only read the brands and statuses they keep.
+    // IN_SCOPE is JPQL over alias p, IN_SCOPE_SQL native SQL over alias p.
+    String IN_SCOPE = "(:#{#scope.anyBrand} = true OR p.brandId IN :#{#scope.brandIdFilter}) "
+            + "AND (:#{#scope.anyStatus} = true OR p.status IN :#{#scope.statusFilter})";
+    String IN_SCOPE_SQL = "(:#{#scope.anyBrand} = TRUE OR p.brand_id IN (:#{#scope.brandIdFilter})) "
+            + "AND (:#{#scope.anyStatus} = TRUE OR p.status IN (:#{#scope.statusFilter}))";
+
+    // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT p FROM ProductEntity p WHERE p.productId >= :fromProductId AND " + IN_SCOPE + " ORDER BY p.productId")
+    Stream<ProductEntity> streamFromProductId(@Param("fromProductId") Long fromProductId, @Param("scope") CatalogScope scope);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT p FROM ProductEntity p WHERE p.updatedAt >= :since AND p.productId >= :fromProductId AND " + IN_SCOPE
+            + " ORDER BY p.productId")
+    Stream<ProductEntity> streamUpdatedSince(@Param("since") LocalDateTime since, @Param("fromProductId") Long fromProductId,
+                                             @Param("scope") CatalogScope scope);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT p.productId FROM ProductEntity p WHERE " + IN_SCOPE)
+    Stream<Long> streamAllIds(@Param("scope") CatalogScope scope);
+
+    @Query("SELECT p FROM ProductEntity p WHERE p.productId IN :productIds AND " + IN_SCOPE)
+    List<ProductEntity> findByProductIdIn(@Param("productIds") Collection<Long> productIds, @Param("scope") CatalogScope scope);
+
+    // Must hash the same columns, in the same order and format, as CatalogRowHashes.product()
+    String ROW_HASH = "CAST(CONV(LEFT(MD5(CONCAT_WS(CHAR(31), product_id, status, brand_id, ebay_id, model_number, sku, "
+            + "IFNULL(date_available, CHAR(0)), IFNULL(date_backorder, CHAR(0)), IFNULL(date_preorder, CHAR(0)), "
+            + "qty_preorder, IFNULL(barcode, CHAR(0)), weight, weight_class_id, created_by, updated_by, "
+            + "IFNULL(DATE_FORMAT(created_at, '%Y%m%d%H%i%s'), CHAR(0)), IFNULL(DATE_FORMAT(updated_at, '%Y%m%d%H%i%s'), CHAR(0)))), 16), 16, 10) AS UNSIGNED)";
+
+    @Query(value = "SELECT MIN(product_id) AS minProductId, MAX(product_id) AS maxProductId FROM product", nativeQuery = true)
+    ProductIdRange findProductIdRange();
+
+    @Query(value = "SELECT (product_id - :fromProductId) DIV :step AS bucket, COUNT(*) AS rowCount, "
+            + "CAST(BIT_XOR(" + ROW_HASH + ") AS SIGNED) AS digest FROM product p "
+            + "WHERE product_id BETWEEN :fromProductId AND :toProductId AND " + IN_SCOPE_SQL + " GROUP BY bucket", nativeQuery = true)
+    List<RangeDigest> digestRanges(@Param("fromProductId") long fromProductId,
+                                   @Param("toProductId") long toProductId,
+                                   @Param("step") long step,
+                                   @Param("scope") CatalogScope scope);
+
+    @Query(value = "SELECT product_id AS productId, CONCAT_WS('|', product_id) AS rowKey, "
+            + "CAST(" + ROW_HASH + " AS SIGNED) AS rowHash FROM product p "
+            + "WHERE product_id BETWEEN :fromProductId AND :toProductId AND " + IN_SCOPE_SQL, nativeQuery = true)
+    List<RowDigest> digestRows(@Param("fromProductId") long fromProductId, @Param("toProductId") long toProductId,
+                               @Param("scope") CatalogScope scope);
 }
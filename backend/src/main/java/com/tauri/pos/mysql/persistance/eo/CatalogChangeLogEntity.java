@@ -0,0 +1,32 @@
+package com.tauri.pos.mysql.persistance.eo;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_change_log")
+public class CatalogChangeLogEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq; // increases with every change, consumers tail the log by it
+
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName; // MySQL table whose rows changed
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId; // every row of this product in tableName should be re-read
+
+    // MySQL's clock, like the triggers' NOW(6): the change feed compares it with MySQL's NOW(), never a terminal's clock
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "changed_at", columnDefinition = "DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6)")
+    private LocalDateTime changedAt;
+}
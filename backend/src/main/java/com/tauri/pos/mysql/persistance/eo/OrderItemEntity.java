@@ -0,0 +1,52 @@
+package com.tauri.pos.mysql.persistance.eo;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order item uploaded by a terminal. A terminal's local_order_items id is kept as local_id,
+ * so re-uploading a row updates it instead of inserting a duplicate.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_item",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_item_terminal_local", columnNames = {"terminal_id", "local_id"}))
+public class OrderItemEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    @Column(name = "terminal_id", nullable = false, length = 64)
+    private String terminalId;
+
+    @Column(name = "local_id", nullable = false)
+    private Long localId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "uploaded_at")
+    private LocalDateTime uploadedAt;
+}
@@ -7,6 +7,8 @@ import java.util.List;
 public interface AdjustmentDetailService {
     AdjustmentDetail createAdjustmentDetail(AdjustmentDetail adjustmentDetail);
 
+    List<AdjustmentDetail> createAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails);
+
     List<AdjustmentDetail> getAllAdjustmentDetails();
 
     AdjustmentDetail getAdjustmentDetailById(Long adjustmentDetailId);
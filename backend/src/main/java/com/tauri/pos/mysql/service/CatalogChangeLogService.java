@@ -0,0 +1,5 @@
+package com.tauri.pos.mysql.service;
+
+public interface CatalogChangeLogService {
+    void recordChange(String tableName, Long productId);
+}
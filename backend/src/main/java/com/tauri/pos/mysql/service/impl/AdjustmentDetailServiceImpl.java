@@ -33,6 +33,22 @@ public class AdjustmentDetailServiceImpl implements AdjustmentDetailService {
         );
     }
 
+    @Override
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public List<AdjustmentDetail> createAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AdjustmentDetailEntity> entities = adjustmentDetails.stream()
+                .map(AdjustmentDetailMapper.INSTANCE::adjustmentDetailToAdjustmentDetailEntity)
+                .peek(entity -> {
+                    entity.setCreatedAt(now);
+                    entity.setUpdatedAt(now);
+                })
+                .toList();
+        return adjustmentDetailDao.saveAll(entities).stream()
+                .map(AdjustmentDetailMapper.INSTANCE::adjustmentDetailEntityToAdjustmentDetail)
+                .toList();
+    }
+
     @Override
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<AdjustmentDetail> getAllAdjustmentDetails() {
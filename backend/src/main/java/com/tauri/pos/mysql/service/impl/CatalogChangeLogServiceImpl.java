@@ -0,0 +1,29 @@
+package com.tauri.pos.mysql.service.impl;
+
+import com.tauri.pos.mysql.persistance.dao.CatalogChangeLogDao;
+import com.tauri.pos.mysql.persistance.eo.CatalogChangeLogEntity;
+import com.tauri.pos.mysql.service.CatalogChangeLogService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class CatalogChangeLogServiceImpl implements CatalogChangeLogService {
+    private final CatalogChangeLogDao catalogChangeLogDao;
+
+    public CatalogChangeLogServiceImpl(CatalogChangeLogDao catalogChangeLogDao) {
+        this.catalogChangeLogDao = catalogChangeLogDao;
+    }
+
+    /**
+     * Record that a product's rows in a catalog table changed. Joins the caller's transaction,
+     * so the entry commits or rolls back together with the change itself. MySQL stamps changed_at.
+     */
+    @Override
+    @Transactional(transactionManager = "mysqlTransactionManager", propagation = Propagation.MANDATORY)
+    public void recordChange(String tableName, Long productId) {
+        catalogChangeLogDao.save(new CatalogChangeLogEntity(null, tableName, productId, null));
+    }
+}
@@ -0,0 +1,94 @@
+package com.tauri.pos.mysql.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.mysql.service.AdjustmentDetailService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queues stock adjustments in the outbox instead of waiting on MySQL; reads go straight to MySQL.
+ * MySQL stamps created_at when the outbox applies an adjustment, as the stock tail expects.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class OutboxAdjustmentDetailServiceImpl implements AdjustmentDetailService {
+    private final AdjustmentDetailService adjustmentDetailService;
+    private final MysqlOutboxService mysqlOutboxService;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+
+    public OutboxAdjustmentDetailServiceImpl(@Qualifier("adjustmentDetailServiceImpl") AdjustmentDetailService adjustmentDetailService,
+                                             MysqlOutboxService mysqlOutboxService,
+                                             SqliteWriteExecutor sqliteWriteExecutor) {
+        this.adjustmentDetailService = adjustmentDetailService;
+        this.mysqlOutboxService = mysqlOutboxService;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+    }
+
+    @Override
+    public AdjustmentDetail createAdjustmentDetail(AdjustmentDetail adjustmentDetail) {
+        mysqlOutboxService.enqueue("adjustment_detail", OutboxOperation.CREATE, null, adjustmentDetail);
+        return adjustmentDetail;
+    }
+
+    @Override
+    public List<AdjustmentDetail> createAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails) {
+        // Queued in one SQLite transaction so a partial list is never applied
+        sqliteWriteExecutor.run(() -> {
+            for (AdjustmentDetail adjustmentDetail : adjustmentDetails) {
+                mysqlOutboxService.enqueue("adjustment_detail", OutboxOperation.CREATE, null, adjustmentDetail);
+            }
+        });
+        return adjustmentDetails;
+    }
+
+    @Override
+    public List<AdjustmentDetail> getAllAdjustmentDetails() {
+        return adjustmentDetailService.getAllAdjustmentDetails();
+    }
+
+    @Override
+    public AdjustmentDetail getAdjustmentDetailById(Long adjustmentDetailId) {
+        return adjustmentDetailService.getAdjustmentDetailById(adjustmentDetailId);
+    }
+
+    @Override
+    public AdjustmentDetail updateAdjustmentDetailById(Long adjustmentDetailId, AdjustmentDetail adjustmentDetail) {
+        adjustmentDetail.setAdjustmentDetailId(adjustmentDetailId);
+        mysqlOutboxService.enqueue("adjustment_detail", OutboxOperation.UPDATE, String.valueOf(adjustmentDetailId), adjustmentDetail);
+        return adjustmentDetail;
+    }
+
+    @Override
+    public void deleteAdjustmentDetailById(Long adjustmentDetailId) {
+        mysqlOutboxService.enqueue("adjustment_detail", OutboxOperation.DELETE, String.valueOf(adjustmentDetailId),
+                AdjustmentDetail.builder().adjustmentDetailId(adjustmentDetailId).build());
+    }
+
+    @Override
+    public List<AdjustmentDetail> getAdjustmentDetailsByAdjustmentId(Long adjustmentId) {
+        return adjustmentDetailService.getAdjustmentDetailsByAdjustmentId(adjustmentId);
+    }
+
+    @Override
+    public List<AdjustmentDetail> getAdjustmentDetailsByProductId(Long productId) {
+        return adjustmentDetailService.getAdjustmentDetailsByProductId(productId);
+    }
+
+    @Override
+    public List<AdjustmentDetail> getAdjustmentDetailsByWarehouseId(Long warehouseId) {
+        return adjustmentDetailService.getAdjustmentDetailsByWarehouseId(warehouseId);
+    }
+
+    @Override
+    public List<AdjustmentDetail> getAdjustmentDetailsByBinId(Long binId) {
+        return adjustmentDetailService.getAdjustmentDetailsByBinId(binId);
+    }
+}
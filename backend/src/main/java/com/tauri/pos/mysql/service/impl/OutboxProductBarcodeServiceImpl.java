@@ -0,0 +1,79 @@
+package com.tauri.pos.mysql.service.impl;
+
+import com.tauri.pos.mysql.model.ProductBarcode;
+import com.tauri.pos.mysql.service.ProductBarcodeService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queues barcode writes in the outbox instead of waiting on MySQL; reads go straight to MySQL.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class OutboxProductBarcodeServiceImpl implements ProductBarcodeService {
+    private final ProductBarcodeService productBarcodeService;
+    private final MysqlOutboxService mysqlOutboxService;
+
+    public OutboxProductBarcodeServiceImpl(@Qualifier("productBarcodeServiceImpl") ProductBarcodeService productBarcodeService,
+                                           MysqlOutboxService mysqlOutboxService) {
+        this.productBarcodeService = productBarcodeService;
+        this.mysqlOutboxService = mysqlOutboxService;
+    }
+
+    @Override
+    public ProductBarcode createProductBarcode(ProductBarcode productBarcode) {
+        mysqlOutboxService.enqueue("product_barcode", OutboxOperation.CREATE,
+                key(productBarcode.getProductId(), productBarcode.getBarcode()), productBarcode);
+        return productBarcode;
+    }
+
+    @Override
+    public List<ProductBarcode> getAllProductBarcodes() {
+        return productBarcodeService.getAllProductBarcodes();
+    }
+
+    @Override
+    public ProductBarcode getProductBarcodeById(Integer productId, String barcode) {
+        return productBarcodeService.getProductBarcodeById(productId, barcode);
+    }
+
+    @Override
+    public ProductBarcode updateProductBarcodeById(Integer productId, String barcode, ProductBarcode productBarcode) {
+        productBarcode.setProductId(productId);
+        productBarcode.setBarcode(barcode);
+        mysqlOutboxService.enqueue("product_barcode", OutboxOperation.UPDATE, key(productId, barcode), productBarcode);
+        return productBarcode;
+    }
+
+    @Override
+    public void deleteProductBarcodeById(Integer productId, String barcode) {
+        mysqlOutboxService.enqueue("product_barcode", OutboxOperation.DELETE, key(productId, barcode),
+                ProductBarcode.builder().productId(productId).barcode(barcode).build());
+    }
+
+    @Override
+    public List<ProductBarcode> getProductBarcodesByProductId(Integer productId) {
+        return productBarcodeService.getProductBarcodesByProductId(productId);
+    }
+
+    @Override
+    public List<ProductBarcode> getProductBarcodesByBarcode(String barcode) {
+        return productBarcodeService.getProductBarcodesByBarcode(barcode);
+    }
+
+    @Override
+    public List<ProductBarcode> getProductBarcodesByStatus(Integer status) {
+        return productBarcodeService.getProductBarcodesByStatus(status);
+    }
+
+    private static String key(Integer productId, String barcode) {
+        return productId + "/" + barcode;
+    }
+}
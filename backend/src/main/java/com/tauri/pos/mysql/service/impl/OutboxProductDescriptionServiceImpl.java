@@ -0,0 +1,83 @@
+package com.tauri.pos.mysql.service.impl;
+
+import com.tauri.pos.mysql.model.ProductDescription;
+import com.tauri.pos.mysql.service.ProductDescriptionService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queues description writes in the outbox instead of waiting on MySQL; reads go straight to MySQL.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class OutboxProductDescriptionServiceImpl implements ProductDescriptionService {
+    private final ProductDescriptionService productDescriptionService;
+    private final MysqlOutboxService mysqlOutboxService;
+
+    public OutboxProductDescriptionServiceImpl(@Qualifier("productDescriptionServiceImpl") ProductDescriptionService productDescriptionService,
+                                               MysqlOutboxService mysqlOutboxService) {
+        this.productDescriptionService = productDescriptionService;
+        this.mysqlOutboxService = mysqlOutboxService;
+    }
+
+    @Override
+    public ProductDescription createProductDescription(ProductDescription productDescription) {
+        mysqlOutboxService.enqueue("product_description", OutboxOperation.CREATE,
+                key(productDescription.getProductId(), productDescription.getSiteId(), productDescription.getLanguageId()),
+                productDescription);
+        return productDescription;
+    }
+
+    @Override
+    public List<ProductDescription> getAllProductDescriptions() {
+        return productDescriptionService.getAllProductDescriptions();
+    }
+
+    @Override
+    public ProductDescription getProductDescriptionById(Integer productId, Integer siteId, Integer languageId) {
+        return productDescriptionService.getProductDescriptionById(productId, siteId, languageId);
+    }
+
+    @Override
+    public ProductDescription updateProductDescriptionById(Integer productId, Integer siteId, Integer languageId,
+                                                           ProductDescription productDescription) {
+        productDescription.setProductId(productId);
+        productDescription.setSiteId(siteId);
+        productDescription.setLanguageId(languageId);
+        mysqlOutboxService.enqueue("product_description", OutboxOperation.UPDATE,
+                key(productId, siteId, languageId), productDescription);
+        return productDescription;
+    }
+
+    @Override
+    public void deleteProductDescriptionById(Integer productId, Integer siteId, Integer languageId) {
+        mysqlOutboxService.enqueue("product_description", OutboxOperation.DELETE, key(productId, siteId, languageId),
+                ProductDescription.builder().productId(productId).siteId(siteId).languageId(languageId).build());
+    }
+
+    @Override
+    public List<ProductDescription> getProductDescriptionsByProductId(Integer productId) {
+        return productDescriptionService.getProductDescriptionsByProductId(productId);
+    }
+
+    @Override
+    public List<ProductDescription> getProductDescriptionsBySiteId(Integer siteId) {
+        return productDescriptionService.getProductDescriptionsBySiteId(siteId);
+    }
+
+    @Override
+    public List<ProductDescription> getProductDescriptionsByLanguageId(Integer languageId) {
+        return productDescriptionService.getProductDescriptionsByLanguageId(languageId);
+    }
+
+    private static String key(Integer productId, Integer siteId, Integer languageId) {
+        return productId + "/" + siteId + "/" + languageId;
+    }
+}
@@ -0,0 +1,79 @@
+package com.tauri.pos.mysql.service.impl;
+
+import com.tauri.pos.mysql.model.Product;
+import com.tauri.pos.mysql.service.ProductService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queues product writes in the outbox instead of waiting on MySQL; reads go straight to MySQL,
+ * so a queued write shows up there once the outbox has applied it.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class OutboxProductServiceImpl implements ProductService {
+    private final ProductService productService;
+    private final MysqlOutboxService mysqlOutboxService;
+
+    public OutboxProductServiceImpl(@Qualifier("productServiceImpl") ProductService productService,
+                                    MysqlOutboxService mysqlOutboxService) {
+        this.productService = productService;
+        this.mysqlOutboxService = mysqlOutboxService;
+    }
+
+    @Override
+    public Product createProduct(Product product) {
+        mysqlOutboxService.enqueue("product", OutboxOperation.CREATE, null, product);
+        return product;
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Override
+    public Product getProductById(Long productId) {
+        return productService.getProductById(productId);
+    }
+
+    @Override
+    public Product updateProductById(Long productId, Product product) {
+        product.setProductId(productId);
+        mysqlOutboxService.enqueue("product", OutboxOperation.UPDATE, String.valueOf(productId), product);
+        return product;
+    }
+
+    @Override
+    public void deleteProductById(Long productId) {
+        mysqlOutboxService.enqueue("product", OutboxOperation.DELETE, String.valueOf(productId),
+                Product.builder().productId(productId).build());
+    }
+
+    @Override
+    public List<Product> getProductsByStatus(Integer status) {
+        return productService.getProductsByStatus(status);
+    }
+
+    @Override
+    public List<Product> getProductsByBrandId(Integer brandId) {
+        return productService.getProductsByBrandId(brandId);
+    }
+
+    @Override
+    public List<Product> getProductsBySku(String sku) {
+        return productService.getProductsBySku(sku);
+    }
+
+    @Override
+    public List<Product> getProductsByBarcode(String barcode) {
+        return productService.getProductsByBarcode(barcode);
+    }
+}
@@ -4,6 +4,7 @@ import com.tauri.pos.mysql.mapper.ProductBarcodeMapper;
 import com.tauri.pos.mysql.model.ProductBarcode;
 import com.tauri.pos.mysql.persistance.dao.ProductBarcodeDao;
 import com.tauri.pos.mysql.persistance.eo.ProductBarcodeEntity;
+import com.tauri.pos.mysql.service.CatalogChangeLogService;
 import com.tauri.pos.mysql.service.ProductBarcodeService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -17,9 +18,11 @@ import java.util.List;
 @ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
 public class ProductBarcodeServiceImpl implements ProductBarcodeService {
     private final ProductBarcodeDao productBarcodeDao;
+    private final CatalogChangeLogService catalogChangeLogService;
 
-    public ProductBarcodeServiceImpl(ProductBarcodeDao productBarcodeDao) {
+    public ProductBarcodeServiceImpl(ProductBarcodeDao productBarcodeDao, CatalogChangeLogService catalogChangeLogService) {
         this.productBarcodeDao = productBarcodeDao;
+        this.catalogChangeLogService = catalogChangeLogService;
     }
 
     @Override
@@ -28,9 +31,9 @@ public class ProductBarcodeServiceImpl implements ProductBarcodeService {
         ProductBarcodeEntity entity = ProductBarcodeMapper.INSTANCE.productBarcodeToProductBarcodeEntity(productBarcode);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
-        return ProductBarcodeMapper.INSTANCE.productBarcodeEntityToProductBarcode(
-                productBarcodeDao.save(entity)
-        );
+        ProductBarcodeEntity saved = productBarcodeDao.save(entity);
+        catalogChangeLogService.recordChange("product_barcode", saved.getProductId().longValue());
+        return ProductBarcodeMapper.INSTANCE.productBarcodeEntityToProductBarcode(saved);
     }
 
     @Override
@@ -58,6 +61,7 @@ public class ProductBarcodeServiceImpl implements ProductBarcodeService {
                     updatedEntity.setProductId(productId);
                     updatedEntity.setBarcode(barcode);
                     updatedEntity.setUpdatedAt(LocalDateTime.now());
+                    catalogChangeLogService.recordChange("product_barcode", productId.longValue());
                     return ProductBarcodeMapper.INSTANCE.productBarcodeEntityToProductBarcode(productBarcodeDao.save(updatedEntity));
                 })
                 .orElse(null);
@@ -69,6 +73,7 @@ public class ProductBarcodeServiceImpl implements ProductBarcodeService {
         productBarcodeDao.findById(new com.tauri.pos.mysql.persistance.eo.ProductBarcodeId(productId, barcode))
                 .map(entity -> {
                     productBarcodeDao.deleteById(new com.tauri.pos.mysql.persistance.eo.ProductBarcodeId(productId, barcode));
+                    catalogChangeLogService.recordChange("product_barcode", productId.longValue());
                     return true;
                 });
     }
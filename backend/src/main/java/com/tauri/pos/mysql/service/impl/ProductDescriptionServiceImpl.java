@@ -4,6 +4,7 @@ import com.tauri.pos.mysql.mapper.ProductDescriptionMapper;
 import com.tauri.pos.mysql.model.ProductDescription;
 import com.tauri.pos.mysql.persistance.dao.ProductDescriptionDao;
 import com.tauri.pos.mysql.persistance.eo.ProductDescriptionEntity;
+import com.tauri.pos.mysql.service.CatalogChangeLogService;
 import com.tauri.pos.mysql.service.ProductDescriptionService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -17,9 +18,11 @@ import java.util.List;
 @ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
 public class ProductDescriptionServiceImpl implements ProductDescriptionService {
     private final ProductDescriptionDao productDescriptionDao;
+    private final CatalogChangeLogService catalogChangeLogService;
 
-    public ProductDescriptionServiceImpl(ProductDescriptionDao productDescriptionDao) {
+    public ProductDescriptionServiceImpl(ProductDescriptionDao productDescriptionDao, CatalogChangeLogService catalogChangeLogService) {
         this.productDescriptionDao = productDescriptionDao;
+        this.catalogChangeLogService = catalogChangeLogService;
     }
 
     @Override
@@ -28,9 +31,9 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
         ProductDescriptionEntity entity = ProductDescriptionMapper.INSTANCE.productDescriptionToProductDescriptionEntity(productDescription);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
-        return ProductDescriptionMapper.INSTANCE.productDescriptionEntityToProductDescription(
-                productDescriptionDao.save(entity)
-        );
+        ProductDescriptionEntity saved = productDescriptionDao.save(entity);
+        catalogChangeLogService.recordChange("product_description", saved.getProductId().longValue());
+        return ProductDescriptionMapper.INSTANCE.productDescriptionEntityToProductDescription(saved);
     }
 
     @Override
@@ -59,6 +62,7 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
                     updatedEntity.setSiteId(siteId);
                     updatedEntity.setLanguageId(languageId);
                     updatedEntity.setUpdatedAt(LocalDateTime.now());
+                    catalogChangeLogService.recordChange("product_description", productId.longValue());
                     return ProductDescriptionMapper.INSTANCE.productDescriptionEntityToProductDescription(productDescriptionDao.save(updatedEntity));
                 })
                 .orElse(null);
@@ -70,6 +74,7 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
         productDescriptionDao.findById(new com.tauri.pos.mysql.persistance.eo.ProductDescriptionId(productId, siteId, languageId))
                 .map(entity -> {
                     productDescriptionDao.deleteById(new com.tauri.pos.mysql.persistance.eo.ProductDescriptionId(productId, siteId, languageId));
+                    catalogChangeLogService.recordChange("product_description", productId.longValue());
                     return true;
                 });
     }
@@ -4,6 +4,7 @@ import com.tauri.pos.mysql.mapper.ProductMapper;
 import com.tauri.pos.mysql.model.Product;
 import com.tauri.pos.mysql.persistance.dao.ProductDao;
 import com.tauri.pos.mysql.persistance.eo.ProductEntity;
+import com.tauri.pos.mysql.service.CatalogChangeLogService;
 import com.tauri.pos.mysql.service.ProductService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -17,9 +18,11 @@ import java.util.List;
 @ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
 public class ProductServiceImpl implements ProductService {
     private final ProductDao productDao;
+    private final CatalogChangeLogService catalogChangeLogService;
 
-    public ProductServiceImpl(ProductDao productDao) {
+    public ProductServiceImpl(ProductDao productDao, CatalogChangeLogService catalogChangeLogService) {
         this.productDao = productDao;
+        this.catalogChangeLogService = catalogChangeLogService;
     }
 
     @Override
@@ -28,9 +31,9 @@ public class ProductServiceImpl implements ProductService {
         ProductEntity entity = ProductMapper.INSTANCE.productToProductEntity(product);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
-        return ProductMapper.INSTANCE.productEntityToProduct(
-                productDao.save(entity)
-        );
+        ProductEntity saved = productDao.save(entity);
+        catalogChangeLogService.recordChange("product", saved.getProductId());
+        return ProductMapper.INSTANCE.productEntityToProduct(saved);
     }
 
     @Override
@@ -57,6 +60,7 @@ public class ProductServiceImpl implements ProductService {
                     ProductEntity updatedEntity = ProductMapper.INSTANCE.productToProductEntity(product);
                     updatedEntity.setProductId(productId);
                     updatedEntity.setUpdatedAt(LocalDateTime.now());
+                    catalogChangeLogService.recordChange("product", productId);
                     return ProductMapper.INSTANCE.productEntityToProduct(productDao.save(updatedEntity));
                 })
                 .orElse(null);
@@ -68,6 +72,7 @@ public class ProductServiceImpl implements ProductService {
         productDao.findById(productId)
                 .map(entity -> {
                     productDao.deleteById(productId);
+                    catalogChangeLogService.recordChange("product", productId);
                     return true;
                 });
     }
@@ -0,0 +1,7 @@
+package com.tauri.pos.shared.enums;
+
+public enum CatalogSyncMode {
+    FULL,       // Upsert every MySQL row into the live tables
+    DELTA,      // Upsert rows changed since the table's watermark
+    RESYNC      // Load every MySQL row into staging tables, then swap them in
+}
@@ -0,0 +1,7 @@
+package com.tauri.pos.shared.enums;
+
+public enum OutboxOperation {
+    CREATE,
+    UPDATE,
+    DELETE
+}
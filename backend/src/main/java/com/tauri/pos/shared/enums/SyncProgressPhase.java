@@ -0,0 +1,8 @@
+package com.tauri.pos.shared.enums;
+
+public enum SyncProgressPhase {
+    STARTED,    // Table pull began, or resumed from a checkpoint
+    RUNNING,    // A batch was committed
+    FINISHED,   // Every row of the table was read and written
+    FAILED      // The pull stopped before finishing the table
+}
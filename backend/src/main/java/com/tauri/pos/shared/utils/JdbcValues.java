@@ -0,0 +1,33 @@
+package com.tauri.pos.shared.utils;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Converts java.time values to the JDBC types Hibernate binds, so rows written
+ * with plain JDBC read back identically through the JPA entities.
+ */
+public final class JdbcValues {
+
+    private JdbcValues() {
+    }
+
+    public static Timestamp timestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    public static Date date(LocalDate value) {
+        return value == null ? null : Date.valueOf(value);
+    }
+
+    /**
+     * Render ids as the body of a SQL IN list. Only for numbers, which need no escaping.
+     */
+    public static String inList(Collection<? extends Number> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,61 @@
+package com.tauri.pos.sqlite.controller;
+
+import com.tauri.pos.sqlite.model.BackupFile;
+import com.tauri.pos.sqlite.model.BackupResult;
+import com.tauri.pos.sqlite.service.DatabaseBackupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/database/backups")
+@CrossOrigin(origins = "*")
+public class DatabaseBackupController {
+    private final DatabaseBackupService databaseBackupService;
+
+    public DatabaseBackupController(DatabaseBackupService databaseBackupService) {
+        this.databaseBackupService = databaseBackupService;
+    }
+
+    /**
+     * Backups kept on this terminal, newest first
+     */
+    @GetMapping
+    public ResponseEntity<List<BackupFile>> listBackups() {
+        try {
+            return ResponseEntity.ok(databaseBackupService.listBackups());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Back up the live database now, verify the copy and rotate old backups out
+     */
+    @PostMapping
+    public ResponseEntity<BackupResult> backup() {
+        try {
+            return ResponseEntity.ok(databaseBackupService.backup());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Check that a backup would restore to a sound database
+     */
+    @PostMapping("/{fileName}/verify")
+    public ResponseEntity<BackupResult> verify(@PathVariable String fileName) {
+        try {
+            return ResponseEntity.ok(databaseBackupService.verify(fileName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tauri.pos.sqlite.controller;
+
+import com.tauri.pos.sqlite.model.MaintenanceState;
+import com.tauri.pos.sqlite.model.StorageStats;
+import com.tauri.pos.sqlite.service.DatabaseMaintenanceService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/database")
+@CrossOrigin(origins = "*")
+public class DatabaseMaintenanceController {
+    private final DatabaseMaintenanceService databaseMaintenanceService;
+
+    public DatabaseMaintenanceController(DatabaseMaintenanceService databaseMaintenanceService) {
+        this.databaseMaintenanceService = databaseMaintenanceService;
+    }
+
+    /**
+     * Row counts, page counts, free pages and index sizes of the terminal database
+     */
+    @GetMapping("/storage")
+    public ResponseEntity<StorageStats> getStorageStats() {
+        try {
+            return ResponseEntity.ok(databaseMaintenanceService.getStorageStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * When checkpoint, optimize, analyze and vacuum last ran
+     */
+    @GetMapping("/maintenance")
+    public ResponseEntity<MaintenanceState> getMaintenanceState() {
+        return ResponseEntity.ok(databaseMaintenanceService.getState());
+    }
+
+    /**
+     * Run every maintenance step now without waiting for an idle period
+     */
+    @PostMapping("/maintenance")
+    public ResponseEntity<MaintenanceState> runMaintenance() {
+        try {
+            return ResponseEntity.ok(databaseMaintenanceService.runMaintenance());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
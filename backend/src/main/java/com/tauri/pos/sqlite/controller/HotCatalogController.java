@@ -0,0 +1,43 @@
+package com.tauri.pos.sqlite.controller;
+
+import com.tauri.pos.sqlite.model.HotCatalogState;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/hot-catalog")
+@CrossOrigin(origins = "*")
+public class HotCatalogController {
+    private final HotCatalogService hotCatalogService;
+
+    public HotCatalogController(HotCatalogService hotCatalogService) {
+        this.hotCatalogService = hotCatalogService;
+    }
+
+    /**
+     * Whether the in-memory catalog is loaded, its row counts and how many changes it followed
+     */
+    @GetMapping
+    public ResponseEntity<HotCatalogState> getState() {
+        try {
+            return ResponseEntity.ok(hotCatalogService.getState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Rebuild the in-memory catalog from the database
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<HotCatalogState> reload() {
+        try {
+            hotCatalogService.reload();
+            return ResponseEntity.ok(hotCatalogService.getState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
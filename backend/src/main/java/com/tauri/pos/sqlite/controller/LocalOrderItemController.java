@@ -19,13 +19,16 @@ public class LocalOrderItemController {
     }
 
     /**
-     * Create a new local order item
+     * Create a new local order item. A retry for the same order carrying the same idempotencyKey
+     * returns the item the first request created instead of adding another.
      */
     @PostMapping
     public ResponseEntity<LocalOrderItem> createLocalOrderItem(@RequestBody LocalOrderItem localOrderItem) {
         try {
             LocalOrderItem createdItem = localOrderItemService.createLocalOrderItem(localOrderItem);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdItem);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -1,8 +1,10 @@
 package com.tauri.pos.sqlite.controller;
 
+import com.tauri.pos.config.SqliteWriteExecutor;
 import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId;
+import com.tauri.pos.sqlite.service.HotCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +21,12 @@ public class LocalProductBarcodeController {
     @Autowired
     private LocalProductBarcodeDao localProductBarcodeDao;
 
+    @Autowired
+    private SqliteWriteExecutor sqliteWriteExecutor;
+
+    @Autowired
+    private HotCatalogService hotCatalogService;
+
     // Get all local product barcodes
     @GetMapping
     public ResponseEntity<List<LocalProductBarcodeEntity>> getAllLocalProductBarcodes() {
@@ -40,10 +48,19 @@ public class LocalProductBarcodeController {
     // Create new local product barcode
     @PostMapping
     public ResponseEntity<LocalProductBarcodeEntity> createLocalProductBarcode(@RequestBody LocalProductBarcodeEntity barcode) {
-        LocalProductBarcodeEntity savedBarcode = localProductBarcodeDao.save(barcode);
+        LocalProductBarcodeEntity savedBarcode = sqliteWriteExecutor.execute(() -> localProductBarcodeDao.save(barcode));
         return ResponseEntity.ok(savedBarcode);
     }
 
+    // Create or update many local barcodes in one transaction
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Integer>> bulkUpsertLocalProductBarcodes(@RequestBody List<LocalProductBarcodeEntity> barcodes) {
+        int written = sqliteWriteExecutor.execute(() -> localProductBarcodeDao.upsertLocalEdits(barcodes));
+        Map<String, Integer> response = new HashMap<>();
+        response.put("written", written);
+        return ResponseEntity.ok(response);
+    }
+
     // Update local product barcode
     @PutMapping("/{productId}/{barcode}")
     public ResponseEntity<LocalProductBarcodeEntity> updateLocalProductBarcode(
@@ -56,7 +73,7 @@ public class LocalProductBarcodeController {
         }
         barcodeEntity.setProductId(productId);
         barcodeEntity.setBarcode(barcode);
-        LocalProductBarcodeEntity updatedBarcode = localProductBarcodeDao.save(barcodeEntity);
+        LocalProductBarcodeEntity updatedBarcode = sqliteWriteExecutor.execute(() -> localProductBarcodeDao.save(barcodeEntity));
         return ResponseEntity.ok(updatedBarcode);
     }
 
@@ -69,21 +86,21 @@ public class LocalProductBarcodeController {
         if (!localProductBarcodeDao.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        localProductBarcodeDao.deleteById(id);
+        sqliteWriteExecutor.run(() -> localProductBarcodeDao.deleteById(id));
         return ResponseEntity.noContent().build();
     }
 
     // Get local product barcodes by product ID
     @GetMapping("/product/{productId}")
     public ResponseEntity<List<LocalProductBarcodeEntity>> getLocalProductBarcodesByProductId(@PathVariable Integer productId) {
-        List<LocalProductBarcodeEntity> barcodes = localProductBarcodeDao.findByProductId(productId);
+        List<LocalProductBarcodeEntity> barcodes = hotCatalogService.findBarcodesByProductId(productId);
         return ResponseEntity.ok(barcodes);
     }
 
     // Get local product barcodes by barcode
     @GetMapping("/barcode/{barcode}")
     public ResponseEntity<List<LocalProductBarcodeEntity>> getLocalProductBarcodesByBarcode(@PathVariable String barcode) {
-        List<LocalProductBarcodeEntity> barcodes = localProductBarcodeDao.findByBarcode(barcode);
+        List<LocalProductBarcodeEntity> barcodes = hotCatalogService.findBarcodesByBarcode(barcode);
         return ResponseEntity.ok(barcodes);
     }
 
@@ -1,7 +1,9 @@
 package com.tauri.pos.sqlite.controller;
 
+import com.tauri.pos.config.SqliteWriteExecutor;
 import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sqlite.service.HotCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +20,12 @@ public class LocalProductController {
     @Autowired
     private LocalProductDao localProductDao;
 
+    @Autowired
+    private SqliteWriteExecutor sqliteWriteExecutor;
+
+    @Autowired
+    private HotCatalogService hotCatalogService;
+
     // Get all local products
     @GetMapping
     public ResponseEntity<List<LocalProductEntity>> getAllLocalProducts() {
@@ -28,7 +36,7 @@ public class LocalProductController {
     // Get local product by ID
     @GetMapping("/{productId}")
     public ResponseEntity<LocalProductEntity> getLocalProductById(@PathVariable Long productId) {
-        return localProductDao.findById(productId)
+        return hotCatalogService.findProductById(productId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -36,10 +44,19 @@ public class LocalProductController {
     // Create new local product
     @PostMapping
     public ResponseEntity<LocalProductEntity> createLocalProduct(@RequestBody LocalProductEntity product) {
-        LocalProductEntity savedProduct = localProductDao.save(product);
+        LocalProductEntity savedProduct = sqliteWriteExecutor.execute(() -> localProductDao.save(product));
         return ResponseEntity.ok(savedProduct);
     }
 
+    // Create or update many local products in one transaction
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Integer>> bulkUpsertLocalProducts(@RequestBody List<LocalProductEntity> products) {
+        int written = sqliteWriteExecutor.execute(() -> localProductDao.upsertLocalEdits(products));
+        Map<String, Integer> response = new HashMap<>();
+        response.put("written", written);
+        return ResponseEntity.ok(response);
+    }
+
     // Update local product
     @PutMapping("/{productId}")
     public ResponseEntity<LocalProductEntity> updateLocalProduct(@PathVariable Long productId, @RequestBody LocalProductEntity product) {
@@ -47,7 +64,7 @@ public class LocalProductController {
             return ResponseEntity.notFound().build();
         }
         product.setProductId(productId);
-        LocalProductEntity updatedProduct = localProductDao.save(product);
+        LocalProductEntity updatedProduct = sqliteWriteExecutor.execute(() -> localProductDao.save(product));
         return ResponseEntity.ok(updatedProduct);
     }
 
@@ -57,7 +74,7 @@ public class LocalProductController {
         if (!localProductDao.existsById(productId)) {
             return ResponseEntity.notFound().build();
         }
-        localProductDao.deleteById(productId);
+        sqliteWriteExecutor.run(() -> localProductDao.deleteById(productId));
         return ResponseEntity.noContent().build();
     }
 
@@ -71,14 +88,14 @@ public class LocalProductController {
     // Get local products by SKU
     @GetMapping("/sku/{sku}")
     public ResponseEntity<List<LocalProductEntity>> getLocalProductsBySku(@PathVariable String sku) {
-        List<LocalProductEntity> products = localProductDao.findBySku(sku);
+        List<LocalProductEntity> products = hotCatalogService.findProductsBySku(sku);
         return ResponseEntity.ok(products);
     }
 
     // Get local products by barcode
     @GetMapping("/barcode/{barcode}")
     public ResponseEntity<List<LocalProductEntity>> getLocalProductsByBarcode(@PathVariable String barcode) {
-        List<LocalProductEntity> products = localProductDao.findByBarcode(barcode);
+        List<LocalProductEntity> products = hotCatalogService.findProductsByBarcode(barcode);
         return ResponseEntity.ok(products);
     }
 
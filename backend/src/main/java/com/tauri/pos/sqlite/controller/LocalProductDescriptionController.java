@@ -1,5 +1,6 @@
 package com.tauri.pos.sqlite.controller;
 
+import com.tauri.pos.config.SqliteWriteExecutor;
 import com.tauri.pos.sqlite.persistance.dao.LocalProductDescriptionDao;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId;
@@ -19,6 +20,9 @@ public class LocalProductDescriptionController {
     @Autowired
     private LocalProductDescriptionDao localProductDescriptionDao;
 
+    @Autowired
+    private SqliteWriteExecutor sqliteWriteExecutor;
+
     // Get all local product descriptions
     @GetMapping
     public ResponseEntity<List<LocalProductDescriptionEntity>> getAllLocalProductDescriptions() {
@@ -41,10 +45,19 @@ public class LocalProductDescriptionController {
     // Create new local product description
     @PostMapping
     public ResponseEntity<LocalProductDescriptionEntity> createLocalProductDescription(@RequestBody LocalProductDescriptionEntity description) {
-        LocalProductDescriptionEntity savedDescription = localProductDescriptionDao.save(description);
+        LocalProductDescriptionEntity savedDescription = sqliteWriteExecutor.execute(() -> localProductDescriptionDao.save(description));
         return ResponseEntity.ok(savedDescription);
     }
 
+    // Create or update many local descriptions in one transaction
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Integer>> bulkUpsertLocalProductDescriptions(@RequestBody List<LocalProductDescriptionEntity> descriptions) {
+        int written = sqliteWriteExecutor.execute(() -> localProductDescriptionDao.upsertLocalEdits(descriptions));
+        Map<String, Integer> response = new HashMap<>();
+        response.put("written", written);
+        return ResponseEntity.ok(response);
+    }
+
     // Update local product description
     @PutMapping("/{productId}/{siteId}/{languageId}")
     public ResponseEntity<LocalProductDescriptionEntity> updateLocalProductDescription(
@@ -59,7 +72,7 @@ public class LocalProductDescriptionController {
         descriptionEntity.setProductId(productId);
         descriptionEntity.setSiteId(siteId);
         descriptionEntity.setLanguageId(languageId);
-        LocalProductDescriptionEntity updatedDescription = localProductDescriptionDao.save(descriptionEntity);
+        LocalProductDescriptionEntity updatedDescription = sqliteWriteExecutor.execute(() -> localProductDescriptionDao.save(descriptionEntity));
         return ResponseEntity.ok(updatedDescription);
     }
 
@@ -73,7 +86,7 @@ public class LocalProductDescriptionController {
         if (!localProductDescriptionDao.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        localProductDescriptionDao.deleteById(id);
+        sqliteWriteExecutor.run(() -> localProductDescriptionDao.deleteById(id));
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,42 @@
+package com.tauri.pos.sqlite.controller;
+
+import com.tauri.pos.sqlite.persistance.dao.LocalStockDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/local-stock")
+@CrossOrigin(origins = "*")
+public class LocalStockController {
+
+    @Autowired
+    private LocalStockDao localStockDao;
+
+    // Get a product's stock per warehouse and bin
+    @GetMapping("/{productId}")
+    public ResponseEntity<List<LocalStockEntity>> getLocalStockByProductId(@PathVariable Long productId) {
+        return ResponseEntity.ok(localStockDao.findByProductId(productId));
+    }
+
+    // Get a product's stock per bin in one warehouse
+    @GetMapping("/{productId}/warehouse/{warehouseId}")
+    public ResponseEntity<List<LocalStockEntity>> getLocalStockByProductIdAndWarehouseId(@PathVariable Long productId,
+                                                                                         @PathVariable Long warehouseId) {
+        return ResponseEntity.ok(localStockDao.findByProductIdAndWarehouseId(productId, warehouseId));
+    }
+
+    // Get a product's on-hand quantity across all warehouses and bins
+    @GetMapping("/{productId}/total")
+    public ResponseEntity<Map<String, Object>> getLocalStockTotal(@PathVariable Long productId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", productId);
+        response.put("qty", localStockDao.sumQtyByProductId(productId));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupFile {
+    private String fileName;
+    private long bytes;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupResult {
+    private String fileName;
+    private long bytes;
+    private long pages;
+    private Map<String, Long> rows; // row count per table in the backup
+    private boolean verified; // passed integrity_check and, for a new backup, matched the source's row counts
+    private String verificationError;
+    private LocalDateTime startedAt;
+    private long durationMillis;
+}
@@ -0,0 +1,21 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotCatalogState {
+    private boolean enabled;
+    private boolean loaded;
+    private Map<String, Long> rows; // rows per table in the in-memory copy
+    private LocalDateTime loadedAt;
+    private long loadMillis;
+    private long reloads;
+    private long mirroredRows; // rows copied or removed since the last load to follow database writes
+    private String lastError;
+}
@@ -0,0 +1,14 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexStorage {
+    private String name;
+    private long pages;
+    private long bytes;
+    private long unusedBytes;
+}
@@ -1,5 +1,6 @@
 package com.tauri.pos.sqlite.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.*;
 import com.tauri.pos.shared.enums.SyncStatus;
 import jakarta.persistence.*;
@@ -11,7 +12,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LocalOrderItem {
-    private Long Id;
+    @JsonAlias("Id") // accepted under its former field name
+    private Long id;
+    private String idempotencyKey; // client-generated, makes retried creates within the order return the first result
     private Long orderId;
     private Long productId;
     private Integer quantity;
@@ -19,6 +22,9 @@ public class LocalOrderItem {
     private Long remoteId;
     private SyncStatus syncStatus ;
     private LocalDateTime lastSync;
+    private Integer syncAttempts;
+    private LocalDateTime nextAttemptAt;
+    private String syncError;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
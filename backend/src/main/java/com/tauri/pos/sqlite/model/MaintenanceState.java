@@ -0,0 +1,22 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceState {
+    private boolean enabled;
+    private boolean running;
+    private LocalDateTime lastCheckpointAt;
+    private LocalDateTime lastOptimizeAt;
+    private LocalDateTime lastAnalyzeAt;
+    private LocalDateTime lastVacuumAt;
+    private long lastCheckpointedPages; // WAL pages copied into the database file by the last checkpoint
+    private long lastVacuumedPages; // free pages released by the last vacuum
+    private LocalDateTime lastRunAt; // last time any maintenance ran
+    private String lastError;
+}
@@ -0,0 +1,17 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaMigration {
+    private int version;
+    private String description;
+    private long checksum; // CRC32 of the script, to catch scripts edited after they were applied
+    private LocalDateTime appliedAt;
+    private long executionMillis;
+}
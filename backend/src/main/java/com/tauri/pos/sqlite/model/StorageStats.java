@@ -0,0 +1,22 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStats {
+    private long pageSize; // bytes
+    private long pageCount; // pages in the database file, free ones included
+    private long freePages; // pages on the freelist, reclaimed by an incremental vacuum
+    private long fileBytes; // page count times page size
+    private long walBytes; // size of the WAL file next to the database
+    private String journalMode;
+    private String autoVacuum; // NONE, FULL or INCREMENTAL
+    private List<TableStorage> tables; // largest first
+    private LocalDateTime measuredAt;
+}
@@ -0,0 +1,19 @@
+package com.tauri.pos.sqlite.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableStorage {
+    private String name;
+    private long rows;
+    private long pages; // of the table itself, indexes excluded
+    private long bytes;
+    private long unusedBytes; // allocated in the table's pages but holding no data
+    private long indexBytes; // of all its indexes together
+    private List<IndexStorage> indexes;
+}
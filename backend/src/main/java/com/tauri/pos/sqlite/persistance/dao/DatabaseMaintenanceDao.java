@@ -0,0 +1,128 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.model.IndexStorage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage statistics and upkeep statements for the terminal database.
+ * <p>
+ * The statements that change the file (checkpoint, optimize, analyze, vacuum) must run on the
+ * writer outside a transaction; the statistics are plain reads.
+ */
+@Repository
+public class DatabaseMaintenanceDao {
+
+    private static final String SCHEMA_SQL = """
+            SELECT type, name, tbl_name FROM sqlite_master
+            WHERE type IN ('table', 'index') AND tbl_name NOT LIKE 'sqlite\\_%' ESCAPE '\\'
+            ORDER BY tbl_name, type DESC, name
+            """;
+
+    private static final String BTREE_SIZES_SQL = "SELECT name, pageno, pgsize, unused FROM dbstat WHERE aggregate = TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseMaintenanceDao(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long pragma(String name) {
+        Long value = jdbcTemplate.queryForObject("PRAGMA " + name, Long.class);
+        return value != null ? value : 0;
+    }
+
+    public String journalMode() {
+        return jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class);
+    }
+
+    /**
+     * 0 for NONE, 1 for FULL and 2 for INCREMENTAL.
+     */
+    public int autoVacuum() {
+        return (int) pragma("auto_vacuum");
+    }
+
+    /**
+     * Path of the main database file, empty for an in-memory database.
+     */
+    public String databaseFile() {
+        return jdbcTemplate.queryForObject("SELECT file FROM pragma_database_list WHERE name = 'main'", String.class);
+    }
+
+    /**
+     * Index names by the table they belong to, for every user table, including SQLite's
+     * automatic indexes for primary keys and unique constraints.
+     */
+    public Map<String, List<String>> indexesByTable() {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query(SCHEMA_SQL, rs -> {
+            List<String> tableIndexes = indexes.computeIfAbsent(rs.getString("tbl_name"), table -> new ArrayList<>());
+            if ("index".equals(rs.getString("type"))) {
+                tableIndexes.add(rs.getString("name"));
+            }
+        });
+        return indexes;
+    }
+
+    /**
+     * Pages, bytes and unused bytes of every table and index b-tree, keyed by name.
+     */
+    public Map<String, IndexStorage> btreeSizes() {
+        Map<String, IndexStorage> sizes = new LinkedHashMap<>();
+        jdbcTemplate.query(BTREE_SIZES_SQL, rs -> {
+            String name = rs.getString("name");
+            sizes.put(name, new IndexStorage(name, rs.getLong("pageno"), rs.getLong("pgsize"), rs.getLong("unused")));
+        });
+        return sizes;
+    }
+
+    public long countRows(String table) {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"" + table.replace("\"", "\"\"") + "\"", Long.class);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Copy committed WAL frames into the database file without waiting on readers.
+     *
+     * @return frames copied
+     */
+    public long checkpoint() {
+        return jdbcTemplate.query("PRAGMA wal_checkpoint(PASSIVE)", rs -> rs.next() ? rs.getLong(3) : 0L);
+    }
+
+    /**
+     * Refresh planner statistics for tables whose contents changed enough to matter.
+     */
+    public void optimize() {
+        jdbcTemplate.execute("PRAGMA optimize");
+    }
+
+    public void analyze() {
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Switch to incremental auto-vacuum. The setting only takes effect through a full VACUUM,
+     * which rewrites the file once.
+     */
+    public void enableIncrementalVacuum() {
+        jdbcTemplate.execute("PRAGMA auto_vacuum = INCREMENTAL");
+        jdbcTemplate.execute("VACUUM");
+    }
+
+    /**
+     * Release up to {@code pages} free pages to the file system.
+     */
+    public void incrementalVacuum(int pages) {
+        // Each step of the statement frees one page, so the result has to be read to the end
+        jdbcTemplate.query("PRAGMA incremental_vacuum(" + pages + ")", rs -> {
+        });
+    }
+}
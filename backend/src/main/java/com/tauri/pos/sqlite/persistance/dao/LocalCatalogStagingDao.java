@@ -0,0 +1,123 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shadow copies of the local catalog tables used by full resyncs.
+ * <p>
+ * Staging tables are created from the live tables' own DDL, bulk-loaded without
+ * secondary indexes, indexed once loaded, and finally renamed over the live tables
+ * in a single transaction so readers only ever see a complete catalog.
+ */
+@Repository
+public class LocalCatalogStagingDao {
+
+    /**
+     * Catalog tables in foreign key order: local_product must exist before its children.
+     */
+    public static final List<String> CATALOG_TABLES =
+            List.of("local_product", "local_product_barcode", "local_product_description");
+
+    private static final List<String> CATALOG_TABLES_CHILDREN_FIRST =
+            List.of("local_product_description", "local_product_barcode", "local_product");
+
+    private static final String STAGING_SUFFIX = "_staging";
+
+    // SQLite cannot rename an index, so staging indexes alternate between the plain name and this suffix
+    private static final String SWAP_INDEX_SUFFIX = "_swap";
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?is)^CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?\"?\\w+\"?");
+    private static final Pattern REFERENCES = Pattern.compile("(?i)\\bREFERENCES\\s+\"?(\\w+)\"?");
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("(?is)^(CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+)(?:IF\\s+NOT\\s+EXISTS\\s+)?\"?\\w+\"?\\s+ON\\s+\"?\\w+\"?");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalCatalogStagingDao(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String stagingTableOf(String table) {
+        return table + STAGING_SUFFIX;
+    }
+
+    /**
+     * Whether every staging table is still present, e.g. after an interrupted resync.
+     */
+    public boolean stagingTablesExist() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name IN (?, ?, ?)", Integer.class,
+                CATALOG_TABLES.stream().map(LocalCatalogStagingDao::stagingTableOf).toArray());
+        return count != null && count == CATALOG_TABLES.size();
+    }
+
+    /**
+     * (Re)create empty staging tables with the same columns and keys as the live tables. Foreign
+     * keys to catalog tables point at their staging copies; renaming those over the live tables
+     * in {@link #swapStagingTables} points them back.
+     */
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public void createStagingTables() {
+        for (String table : CATALOG_TABLES) {
+            String stagingTable = stagingTableOf(table);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTable);
+            String ddl = jdbcTemplate.queryForObject(
+                    "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?", String.class, table);
+            String stagingDdl = CREATE_TABLE.matcher(ddl).replaceFirst("CREATE TABLE " + stagingTable);
+            jdbcTemplate.execute(REFERENCES.matcher(stagingDdl).replaceAll(reference -> CATALOG_TABLES.contains(reference.group(1))
+                    ? "REFERENCES " + stagingTableOf(reference.group(1))
+                    : Matcher.quoteReplacement(reference.group())));
+        }
+    }
+
+    /**
+     * Build the live tables' secondary indexes on the loaded staging tables.
+     * Indexes already built by an interrupted resync are kept.
+     */
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public void createStagingIndexes() {
+        for (String table : CATALOG_TABLES) {
+            List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                    "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL", table);
+            for (Map<String, Object> index : indexes) {
+                String name = (String) index.get("name");
+                String stagingName = name.endsWith(SWAP_INDEX_SUFFIX)
+                        ? name.substring(0, name.length() - SWAP_INDEX_SUFFIX.length())
+                        : name + SWAP_INDEX_SUFFIX;
+                jdbcTemplate.execute(CREATE_INDEX.matcher((String) index.get("sql"))
+                        .replaceFirst("$1IF NOT EXISTS " + Matcher.quoteReplacement(stagingName + " ON " + stagingTableOf(table))));
+            }
+        }
+    }
+
+    /**
+     * Drop the live catalog tables and rename the staging tables into their place, children first
+     * so it also works with foreign keys enforced.
+     * Runs in the caller's transaction so the swap commits together with its bookkeeping.
+     */
+    @Transactional(transactionManager = "sqliteTransactionManager", propagation = Propagation.MANDATORY)
+    public void swapStagingTables() {
+        for (String table : CATALOG_TABLES_CHILDREN_FIRST) {
+            jdbcTemplate.execute("DROP TABLE " + table);
+        }
+        for (String table : CATALOG_TABLES) {
+            jdbcTemplate.execute("ALTER TABLE " + stagingTableOf(table) + " RENAME TO " + table);
+        }
+    }
+
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public void dropStagingTables() {
+        for (String table : CATALOG_TABLES_CHILDREN_FIRST) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTableOf(table));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface LocalOrderItemBatchDao {
+
+    /**
+     * Mark the given rows SYNCING so no other upload claims them.
+     *
+     * @return number of rows claimed
+     */
+    int markSyncing(List<Long> ids);
+
+    /**
+     * Mark SYNCING rows SYNCED with their MySQL ids. Rows changed since they were claimed are
+     * PENDING again and left for the next upload.
+     *
+     * @return number of rows marked
+     */
+    int markSynced(Map<Long, Long> remoteIds, LocalDateTime syncedAt);
+
+    /**
+     * Mark a SYNCING row FAILED, to be retried from nextAttemptAt.
+     *
+     * @return number of rows marked
+     */
+    int markFailed(Long id, int attempts, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Return SYNCING rows to PENDING without counting an attempt, e.g. when MySQL could not be reached.
+     *
+     * @return number of rows returned
+     */
+    int requeue(List<Long> ids);
+
+    /**
+     * Return every SYNCING row to PENDING; run at startup for uploads a shutdown interrupted.
+     *
+     * @return number of rows returned
+     */
+    int requeueInterrupted();
+
+    /**
+     * Return every FAILED row to PENDING with its attempts reset, including those out of retries.
+     *
+     * @return number of rows returned
+     */
+    int requeueFailed();
+}
@@ -0,0 +1,110 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.tauri.pos.shared.utils.JdbcValues.inList;
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+
+public class LocalOrderItemBatchDaoImpl implements LocalOrderItemBatchDao {
+
+    private static final String MARK_SYNCING_SQL = "UPDATE local_order_items SET sync_status = 'SYNCING' WHERE id IN (%s)";
+
+    private static final String MARK_SYNCED_SQL = """
+            UPDATE local_order_items
+            SET sync_status = 'SYNCED', remote_id = ?, last_sync = ?, sync_attempts = 0, next_attempt_at = NULL, sync_error = NULL
+            WHERE id = ? AND sync_status = 'SYNCING'
+            """;
+
+    private static final String MARK_FAILED_SQL = """
+            UPDATE local_order_items
+            SET sync_status = 'FAILED', sync_attempts = ?, next_attempt_at = ?, sync_error = ?
+            WHERE id = ? AND sync_status = 'SYNCING'
+            """;
+
+    private static final String REQUEUE_SQL = "UPDATE local_order_items SET sync_status = 'PENDING' WHERE sync_status = 'SYNCING' AND id IN (%s)";
+
+    private static final String REQUEUE_INTERRUPTED_SQL = "UPDATE local_order_items SET sync_status = 'PENDING' WHERE sync_status = 'SYNCING'";
+
+    private static final String REQUEUE_FAILED_SQL = """
+            UPDATE local_order_items
+            SET sync_status = 'PENDING', sync_attempts = 0, next_attempt_at = NULL
+            WHERE sync_status = 'FAILED'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalOrderItemBatchDaoImpl(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int markSyncing(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(MARK_SYNCING_SQL.formatted(inList(ids)));
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int markSynced(Map<Long, Long> remoteIds, LocalDateTime syncedAt) {
+        if (remoteIds.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(remoteIds.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(MARK_SYNCED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Long> entry = entries.get(i);
+                ps.setLong(1, entry.getValue());
+                ps.setTimestamp(2, timestamp(syncedAt));
+                ps.setLong(3, entry.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int markFailed(Long id, int attempts, LocalDateTime nextAttemptAt, String error) {
+        return jdbcTemplate.update(MARK_FAILED_SQL, attempts, timestamp(nextAttemptAt), error, id);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int requeue(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(REQUEUE_SQL.formatted(inList(ids)));
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int requeueInterrupted() {
+        return jdbcTemplate.update(REQUEUE_INTERRUPTED_SQL);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int requeueFailed() {
+        return jdbcTemplate.update(REQUEUE_FAILED_SQL);
+    }
+}
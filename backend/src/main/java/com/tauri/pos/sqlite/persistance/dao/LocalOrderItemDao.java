@@ -1,11 +1,33 @@
 package com.tauri.pos.sqlite.persistance.dao;
 
 import com.tauri.pos.sqlite.persistance.eo.LocalOrderItemEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface LocalOrderItemDao extends JpaRepository<LocalOrderItemEntity, Long> {
+public interface LocalOrderItemDao extends JpaRepository<LocalOrderItemEntity, Long>, LocalOrderItemBatchDao {
     LocalOrderItemEntity findAllByProductId(Long productId);
     void deleteAllByProductId(Long productId);
+    Optional<LocalOrderItemEntity> findByOrderIdAndIdempotencyKey(Long orderId, String idempotencyKey);
+
+    // PENDING rows, then FAILED rows whose backoff has passed and that have retries left, oldest first
+    @Query("""
+            SELECT i FROM LocalOrderItemEntity i
+            WHERE i.syncStatus = com.tauri.pos.shared.enums.SyncStatus.PENDING
+               OR (i.syncStatus = com.tauri.pos.shared.enums.SyncStatus.FAILED
+                   AND i.syncAttempts <= :retryAttempts AND i.nextAttemptAt <= :now)
+            ORDER BY i.id""")
+    List<LocalOrderItemEntity> findUploadable(@Param("retryAttempts") int retryAttempts,
+                                              @Param("now") LocalDateTime now,
+                                              Limit limit);
+
+    @Query("SELECT i.syncStatus, COUNT(i) FROM LocalOrderItemEntity i GROUP BY i.syncStatus")
+    List<Object[]> countBySyncStatus();
 }
@@ -0,0 +1,48 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId;
+import com.tauri.pos.sync.model.CatalogScope;
+
+import java.util.List;
+
+public interface LocalProductBarcodeBatchDao {
+
+    /**
+     * Insert or update the given barcodes with one prepared-statement batch.
+     * Rows whose row_hash equals the stored one are left untouched.
+     *
+     * @return number of rows written, excluding the untouched ones
+     */
+    int upsertAll(List<LocalProductBarcodeEntity> barcodes);
+
+    /**
+     * Insert or update the given barcodes as local edits with one prepared-statement batch,
+     * like {@code save} does row by row: row_hash is cleared and updated_at set to now.
+     *
+     * @return number of rows written
+     */
+    int upsertLocalEdits(List<LocalProductBarcodeEntity> barcodes);
+
+    /**
+     * Insert or update the given barcodes in the staging table used by full resyncs.
+     *
+     * @return number of rows written
+     */
+    int stageAll(List<LocalProductBarcodeEntity> barcodes);
+
+    /**
+     * Delete the barcode rows with the given keys in one batch.
+     *
+     * @return number of rows deleted
+     */
+    int deleteAllByKeys(List<LocalProductBarcodeId> ids);
+
+    /**
+     * Delete the barcodes of products no longer kept locally, once products are scoped.
+     * Run after {@link LocalProductBatchDao#deleteOutOfScope}.
+     *
+     * @return number of rows deleted
+     */
+    int deleteOutOfScope(CatalogScope scope);
+}
@@ -0,0 +1,138 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId;
+import com.tauri.pos.sync.model.CatalogScope;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.tauri.pos.shared.utils.JdbcValues.inList;
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+import static com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao.stagingTableOf;
+
+public class LocalProductBarcodeBatchDaoImpl implements LocalProductBarcodeBatchDao {
+
+    private static final String UPSERT_TEMPLATE = """
+            INSERT INTO %s (product_id, barcode, status, created_at, updated_at,
+                created_by, updated_by,
+                row_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (product_id, barcode) DO UPDATE SET
+                status = excluded.status,
+                created_at = excluded.created_at,
+                updated_at = excluded.updated_at,
+                created_by = excluded.created_by,
+                updated_by = excluded.updated_by,
+                row_hash = excluded.row_hash
+            %s
+            """;
+
+    private static final String CHANGED_ONLY = "WHERE row_hash IS NOT excluded.row_hash";
+
+    private static final String UPSERT_SQL = UPSERT_TEMPLATE.formatted("local_product_barcode", CHANGED_ONLY);
+
+    private static final String STAGE_SQL = UPSERT_TEMPLATE.formatted(stagingTableOf("local_product_barcode"), CHANGED_ONLY);
+
+    // Local edits carry no row_hash, so every row is written
+    private static final String LOCAL_EDIT_SQL = UPSERT_TEMPLATE.formatted("local_product_barcode", "");
+
+    private static final String DELETE_SQL = "DELETE FROM local_product_barcode WHERE product_id = ? AND barcode = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalProductBarcodeBatchDaoImpl(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertAll(List<LocalProductBarcodeEntity> barcodes) {
+        return upsert(UPSERT_SQL, barcodes);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int stageAll(List<LocalProductBarcodeEntity> barcodes) {
+        return upsert(STAGE_SQL, barcodes);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertLocalEdits(List<LocalProductBarcodeEntity> barcodes) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalProductBarcodeEntity barcode : barcodes) {
+            barcode.setRowHash(null);
+            if (barcode.getCreatedAt() == null) {
+                barcode.setCreatedAt(now);
+            }
+            barcode.setUpdatedAt(now);
+        }
+        return upsert(LOCAL_EDIT_SQL, barcodes);
+    }
+
+    private int upsert(String sql, List<LocalProductBarcodeEntity> barcodes) {
+        if (barcodes.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalProductBarcodeEntity barcode = barcodes.get(i);
+                ps.setObject(1, barcode.getProductId());
+                ps.setString(2, barcode.getBarcode());
+                ps.setObject(3, barcode.getStatus());
+                ps.setTimestamp(4, timestamp(barcode.getCreatedAt()));
+                ps.setTimestamp(5, timestamp(barcode.getUpdatedAt()));
+                ps.setObject(6, barcode.getCreatedBy());
+                ps.setObject(7, barcode.getUpdatedBy());
+                ps.setObject(8, barcode.getRowHash());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return barcodes.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteAllByKeys(List<LocalProductBarcodeId> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalProductBarcodeId id = ids.get(i);
+                ps.setObject(1, id.getProductId());
+                ps.setString(2, id.getBarcode());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteOutOfScope(CatalogScope scope) {
+        if (scope.isAllProducts()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM local_product_barcode WHERE product_id NOT IN (SELECT product_id FROM local_product)");
+    }
+}
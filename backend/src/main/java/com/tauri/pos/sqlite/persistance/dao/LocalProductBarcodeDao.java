@@ -4,12 +4,15 @@ import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LocalProductBarcodeDao extends JpaRepository<LocalProductBarcodeEntity, LocalProductBarcodeId> {
+public interface LocalProductBarcodeDao extends JpaRepository<LocalProductBarcodeEntity, LocalProductBarcodeId>, LocalProductBarcodeBatchDao {
 
     List<LocalProductBarcodeEntity> findByProductId(Integer productId);
     
@@ -19,4 +22,13 @@ public interface LocalProductBarcodeDao extends JpaRepository<LocalProductBarcod
     
     @Query("SELECT COUNT(lpb) FROM LocalProductBarcodeEntity lpb")
     Long countAllBarcodes();
+
+    @Query("SELECT new com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId(lpb.productId, lpb.barcode) FROM LocalProductBarcodeEntity lpb")
+    List<LocalProductBarcodeId> findAllIds();
+
+    @Query("SELECT new com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId(lpb.productId, lpb.barcode) FROM LocalProductBarcodeEntity lpb WHERE lpb.productId IN :productIds")
+    List<LocalProductBarcodeId> findIdsByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT lpb FROM LocalProductBarcodeEntity lpb ORDER BY lpb.productId, lpb.barcode")
+    Stream<LocalProductBarcodeEntity> streamAllOrderByProductId();
 }
@@ -0,0 +1,46 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sync.model.CatalogScope;
+
+import java.util.List;
+
+public interface LocalProductBatchDao {
+
+    /**
+     * Insert or update the given products with one prepared-statement batch.
+     * Rows whose row_hash equals the stored one are left untouched.
+     *
+     * @return number of rows written, excluding the untouched ones
+     */
+    int upsertAll(List<LocalProductEntity> products);
+
+    /**
+     * Insert or update the given products as local edits with one prepared-statement batch,
+     * like {@code save} does row by row: row_hash is cleared and updated_at set to now.
+     *
+     * @return number of rows written
+     */
+    int upsertLocalEdits(List<LocalProductEntity> products);
+
+    /**
+     * Insert or update the given products in the staging table used by full resyncs.
+     *
+     * @return number of rows written
+     */
+    int stageAll(List<LocalProductEntity> products);
+
+    /**
+     * Delete the product rows with the given keys in one batch.
+     *
+     * @return number of rows deleted
+     */
+    int deleteAllByKeys(List<Long> productIds);
+
+    /**
+     * Delete the products whose brand or status falls outside the scope.
+     *
+     * @return number of rows deleted
+     */
+    int deleteOutOfScope(CatalogScope scope);
+}
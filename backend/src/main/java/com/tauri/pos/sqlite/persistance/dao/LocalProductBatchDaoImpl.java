@@ -0,0 +1,165 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sync.model.CatalogScope;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.tauri.pos.shared.utils.JdbcValues.inList;
+import static com.tauri.pos.shared.utils.JdbcValues.date;
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+import static com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao.stagingTableOf;
+
+public class LocalProductBatchDaoImpl implements LocalProductBatchDao {
+
+    private static final String UPSERT_TEMPLATE = """
+            INSERT INTO %s (product_id, status, brand_id, ebay_id, model_number, sku,
+                date_available, date_backorder, date_preorder, qty_preorder, barcode, weight,
+                weight_class_id, created_at, updated_at, created_by, updated_by,
+                row_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (product_id) DO UPDATE SET
+                status = excluded.status,
+                brand_id = excluded.brand_id,
+                ebay_id = excluded.ebay_id,
+                model_number = excluded.model_number,
+                sku = excluded.sku,
+                date_available = excluded.date_available,
+                date_backorder = excluded.date_backorder,
+                date_preorder = excluded.date_preorder,
+                qty_preorder = excluded.qty_preorder,
+                barcode = excluded.barcode,
+                weight = excluded.weight,
+                weight_class_id = excluded.weight_class_id,
+                created_at = excluded.created_at,
+                updated_at = excluded.updated_at,
+                created_by = excluded.created_by,
+                updated_by = excluded.updated_by,
+                row_hash = excluded.row_hash
+            %s
+            """;
+
+    private static final String CHANGED_ONLY = "WHERE row_hash IS NOT excluded.row_hash";
+
+    private static final String UPSERT_SQL = UPSERT_TEMPLATE.formatted("local_product", CHANGED_ONLY);
+
+    private static final String STAGE_SQL = UPSERT_TEMPLATE.formatted(stagingTableOf("local_product"), CHANGED_ONLY);
+
+    // Local edits carry no row_hash, so every row is written
+    private static final String LOCAL_EDIT_SQL = UPSERT_TEMPLATE.formatted("local_product", "");
+
+    private static final String DELETE_SQL = "DELETE FROM local_product WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalProductBatchDaoImpl(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertAll(List<LocalProductEntity> products) {
+        return upsert(UPSERT_SQL, products);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int stageAll(List<LocalProductEntity> products) {
+        return upsert(STAGE_SQL, products);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertLocalEdits(List<LocalProductEntity> products) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalProductEntity product : products) {
+            product.setRowHash(null);
+            if (product.getCreatedAt() == null) {
+                product.setCreatedAt(now);
+            }
+            product.setUpdatedAt(now);
+        }
+        return upsert(LOCAL_EDIT_SQL, products);
+    }
+
+    private int upsert(String sql, List<LocalProductEntity> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalProductEntity product = products.get(i);
+                ps.setObject(1, product.getProductId());
+                ps.setObject(2, product.getStatus());
+                ps.setObject(3, product.getBrandId());
+                ps.setObject(4, product.getEbayId());
+                ps.setString(5, product.getModelNumber());
+                ps.setString(6, product.getSku());
+                ps.setDate(7, date(product.getDateAvailable()));
+                ps.setDate(8, date(product.getDateBackorder()));
+                ps.setDate(9, date(product.getDatePreorder()));
+                ps.setObject(10, product.getQtyPreorder());
+                ps.setString(11, product.getBarcode());
+                ps.setBigDecimal(12, product.getWeight());
+                ps.setObject(13, product.getWeightClassId());
+                ps.setTimestamp(14, timestamp(product.getCreatedAt()));
+                ps.setTimestamp(15, timestamp(product.getUpdatedAt()));
+                ps.setObject(16, product.getCreatedBy());
+                ps.setObject(17, product.getUpdatedBy());
+                ps.setObject(18, product.getRowHash());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteAllByKeys(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, productIds.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return productIds.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteOutOfScope(CatalogScope scope) {
+        List<String> outside = new ArrayList<>();
+        if (!scope.isAnyBrand()) {
+            outside.add("brand_id IS NULL OR brand_id NOT IN (" + inList(scope.getBrandIds()) + ")");
+        }
+        if (!scope.isAnyStatus()) {
+            outside.add("status IS NULL OR status NOT IN (" + inList(scope.getStatuses()) + ")");
+        }
+        if (outside.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM local_product WHERE " + String.join(" OR ", outside));
+    }
+}
@@ -3,12 +3,15 @@ package com.tauri.pos.sqlite.persistance.dao;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LocalProductDao extends JpaRepository<LocalProductEntity, Long> {
+public interface LocalProductDao extends JpaRepository<LocalProductEntity, Long>, LocalProductBatchDao {
 
     List<LocalProductEntity> findByStatus(Integer status);
     
@@ -20,4 +23,13 @@ public interface LocalProductDao extends JpaRepository<LocalProductEntity, Long>
     
     @Query("SELECT COUNT(lp) FROM LocalProductEntity lp")
     Long countAllProducts();
+
+    @Query("SELECT lp.productId FROM LocalProductEntity lp")
+    List<Long> findAllIds();
+
+    @Query("SELECT lp.productId FROM LocalProductEntity lp WHERE lp.productId IN :productIds")
+    List<Long> findIdsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT lp FROM LocalProductEntity lp ORDER BY lp.productId")
+    Stream<LocalProductEntity> streamAllOrderByProductId();
 }
@@ -0,0 +1,48 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId;
+import com.tauri.pos.sync.model.CatalogScope;
+
+import java.util.List;
+
+public interface LocalProductDescriptionBatchDao {
+
+    /**
+     * Insert or update the given descriptions with one prepared-statement batch.
+     * Rows whose row_hash equals the stored one are left untouched.
+     *
+     * @return number of rows written, excluding the untouched ones
+     */
+    int upsertAll(List<LocalProductDescriptionEntity> descriptions);
+
+    /**
+     * Insert or update the given descriptions as local edits with one prepared-statement batch,
+     * like {@code save} does row by row: row_hash is cleared and updated_at set to now.
+     *
+     * @return number of rows written
+     */
+    int upsertLocalEdits(List<LocalProductDescriptionEntity> descriptions);
+
+    /**
+     * Insert or update the given descriptions in the staging table used by full resyncs.
+     *
+     * @return number of rows written
+     */
+    int stageAll(List<LocalProductDescriptionEntity> descriptions);
+
+    /**
+     * Delete the description rows with the given keys in one batch.
+     *
+     * @return number of rows deleted
+     */
+    int deleteAllByKeys(List<LocalProductDescriptionId> ids);
+
+    /**
+     * Delete the descriptions outside the scope's sites and languages, and, once products are
+     * scoped, those of products no longer kept locally. Run after {@link LocalProductBatchDao#deleteOutOfScope}.
+     *
+     * @return number of rows deleted
+     */
+    int deleteOutOfScope(CatalogScope scope);
+}
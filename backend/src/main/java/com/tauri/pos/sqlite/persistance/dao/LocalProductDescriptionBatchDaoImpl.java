@@ -0,0 +1,160 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId;
+import com.tauri.pos.sync.model.CatalogScope;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.tauri.pos.shared.utils.JdbcValues.inList;
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+import static com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao.stagingTableOf;
+
+public class LocalProductDescriptionBatchDaoImpl implements LocalProductDescriptionBatchDao {
+
+    private static final String UPSERT_TEMPLATE = """
+            INSERT INTO %s (product_id, site_id, language_id, name, description,
+                feature, specification, include, required, created_at, updated_at, created_by, updated_by,
+                row_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (product_id, site_id, language_id) DO UPDATE SET
+                name = excluded.name,
+                description = excluded.description,
+                feature = excluded.feature,
+                specification = excluded.specification,
+                include = excluded.include,
+                required = excluded.required,
+                created_at = excluded.created_at,
+                updated_at = excluded.updated_at,
+                created_by = excluded.created_by,
+                updated_by = excluded.updated_by,
+                row_hash = excluded.row_hash
+            %s
+            """;
+
+    private static final String CHANGED_ONLY = "WHERE row_hash IS NOT excluded.row_hash";
+
+    private static final String UPSERT_SQL = UPSERT_TEMPLATE.formatted("local_product_description", CHANGED_ONLY);
+
+    private static final String STAGE_SQL = UPSERT_TEMPLATE.formatted(stagingTableOf("local_product_description"), CHANGED_ONLY);
+
+    // Local edits carry no row_hash, so every row is written
+    private static final String LOCAL_EDIT_SQL = UPSERT_TEMPLATE.formatted("local_product_description", "");
+
+    private static final String DELETE_SQL = "DELETE FROM local_product_description WHERE product_id = ? AND site_id = ? AND language_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalProductDescriptionBatchDaoImpl(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertAll(List<LocalProductDescriptionEntity> descriptions) {
+        return upsert(UPSERT_SQL, descriptions);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int stageAll(List<LocalProductDescriptionEntity> descriptions) {
+        return upsert(STAGE_SQL, descriptions);
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertLocalEdits(List<LocalProductDescriptionEntity> descriptions) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalProductDescriptionEntity description : descriptions) {
+            description.setRowHash(null);
+            if (description.getCreatedAt() == null) {
+                description.setCreatedAt(now);
+            }
+            description.setUpdatedAt(now);
+        }
+        return upsert(LOCAL_EDIT_SQL, descriptions);
+    }
+
+    private int upsert(String sql, List<LocalProductDescriptionEntity> descriptions) {
+        if (descriptions.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalProductDescriptionEntity description = descriptions.get(i);
+                ps.setObject(1, description.getProductId());
+                ps.setObject(2, description.getSiteId());
+                ps.setObject(3, description.getLanguageId());
+                ps.setString(4, description.getName());
+                ps.setString(5, description.getDescription());
+                ps.setString(6, description.getFeature());
+                ps.setString(7, description.getSpecification());
+                ps.setString(8, description.getInclude());
+                ps.setString(9, description.getRequired());
+                ps.setTimestamp(10, timestamp(description.getCreatedAt()));
+                ps.setTimestamp(11, timestamp(description.getUpdatedAt()));
+                ps.setObject(12, description.getCreatedBy());
+                ps.setObject(13, description.getUpdatedBy());
+                ps.setObject(14, description.getRowHash());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return descriptions.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteAllByKeys(List<LocalProductDescriptionId> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalProductDescriptionId id = ids.get(i);
+                ps.setObject(1, id.getProductId());
+                ps.setObject(2, id.getSiteId());
+                ps.setObject(3, id.getLanguageId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int deleteOutOfScope(CatalogScope scope) {
+        List<String> outside = new ArrayList<>();
+        if (!scope.isAnySite()) {
+            outside.add("site_id NOT IN (" + inList(scope.getSiteIds()) + ")");
+        }
+        if (!scope.isAnyLanguage()) {
+            outside.add("language_id NOT IN (" + inList(scope.getLanguageIds()) + ")");
+        }
+        if (!scope.isAllProducts()) {
+            outside.add("product_id NOT IN (SELECT product_id FROM local_product)");
+        }
+        if (outside.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM local_product_description WHERE " + String.join(" OR ", outside));
+    }
+}
@@ -4,12 +4,15 @@ import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
 import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LocalProductDescriptionDao extends JpaRepository<LocalProductDescriptionEntity, LocalProductDescriptionId> {
+public interface LocalProductDescriptionDao extends JpaRepository<LocalProductDescriptionEntity, LocalProductDescriptionId>, LocalProductDescriptionBatchDao {
 
     List<LocalProductDescriptionEntity> findByProductId(Integer productId);
     
@@ -19,4 +22,13 @@ public interface LocalProductDescriptionDao extends JpaRepository<LocalProductDe
     
     @Query("SELECT COUNT(lpd) FROM LocalProductDescriptionEntity lpd")
     Long countAllDescriptions();
+
+    @Query("SELECT new com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId(lpd.productId, lpd.siteId, lpd.languageId) FROM LocalProductDescriptionEntity lpd")
+    List<LocalProductDescriptionId> findAllIds();
+
+    @Query("SELECT new com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId(lpd.productId, lpd.siteId, lpd.languageId) FROM LocalProductDescriptionEntity lpd WHERE lpd.productId IN :productIds")
+    List<LocalProductDescriptionId> findIdsByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT lpd FROM LocalProductDescriptionEntity lpd ORDER BY lpd.productId, lpd.siteId, lpd.languageId")
+    Stream<LocalProductDescriptionEntity> streamAllOrderByProductId();
 }
@@ -0,0 +1,17 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+
+import java.util.List;
+
+public interface LocalStockBatchDao {
+
+    /**
+     * Insert or update the given stock positions with one prepared-statement batch.
+     * A position is only overwritten by a later adjustment, so replayed or out-of-order
+     * adjustments leave the latest quantity in place.
+     *
+     * @return number of rows written
+     */
+    int upsertAll(List<LocalStockEntity> positions);
+}
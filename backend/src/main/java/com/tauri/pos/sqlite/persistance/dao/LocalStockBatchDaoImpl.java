@@ -0,0 +1,59 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.tauri.pos.shared.utils.JdbcValues.timestamp;
+
+public class LocalStockBatchDaoImpl implements LocalStockBatchDao {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO local_stock (product_id, warehouse_id, bin_id, qty, last_adjustment_detail_id, adjusted_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (product_id, warehouse_id, bin_id) DO UPDATE SET
+                qty = excluded.qty,
+                last_adjustment_detail_id = excluded.last_adjustment_detail_id,
+                adjusted_at = excluded.adjusted_at
+            WHERE excluded.last_adjustment_detail_id > local_stock.last_adjustment_detail_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalStockBatchDaoImpl(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(transactionManager = "sqliteTransactionManager")
+    public int upsertAll(List<LocalStockEntity> positions) {
+        if (positions.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LocalStockEntity position = positions.get(i);
+                ps.setLong(1, position.getProductId());
+                ps.setLong(2, position.getWarehouseId());
+                ps.setLong(3, position.getBinId());
+                ps.setObject(4, position.getQty());
+                ps.setLong(5, position.getLastAdjustmentDetailId());
+                ps.setTimestamp(6, timestamp(position.getAdjustedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return positions.size();
+            }
+        });
+        return Arrays.stream(counts).sum();
+    }
+}
@@ -0,0 +1,22 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalStockId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocalStockDao extends JpaRepository<LocalStockEntity, LocalStockId>, LocalStockBatchDao {
+
+    // Both lookups are prefix scans of the primary key
+    List<LocalStockEntity> findByProductId(Long productId);
+
+    List<LocalStockEntity> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
+
+    @Query("SELECT COALESCE(SUM(ls.qty), 0) FROM LocalStockEntity ls WHERE ls.productId = :productId")
+    Long sumQtyByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,27 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.eo.MysqlOutboxEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MysqlOutboxDao extends JpaRepository<MysqlOutboxEntity, Long> {
+
+    List<MysqlOutboxEntity> findByStatusInOrderBySeqAsc(Collection<SyncStatus> statuses, Limit limit);
+
+    List<MysqlOutboxEntity> findByStatus(SyncStatus status);
+
+    long countByStatus(SyncStatus status);
+
+    @Query("""
+            SELECT MIN(o.queuedAt) FROM MysqlOutboxEntity o
+            WHERE o.status <> com.tauri.pos.shared.enums.SyncStatus.CONFLICT""")
+    LocalDateTime findOldestQueuedAt();
+}
@@ -0,0 +1,80 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.model.SchemaMigration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * The schema_version table, one row per migration script applied to the terminal database.
+ * Writes must run on the SQLite writer.
+ */
+@Repository
+public class SchemaVersionDao {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                checksum INTEGER NOT NULL,
+                applied_at TIMESTAMP NOT NULL,
+                execution_ms INTEGER NOT NULL
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaVersionDao(@Qualifier("sqliteJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createTableIfMissing() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    public boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'", Integer.class);
+        return count != null && count > 0;
+    }
+
+    public List<SchemaMigration> findAll() {
+        return jdbcTemplate.query(
+                "SELECT version, description, checksum, applied_at, execution_ms FROM schema_version ORDER BY version",
+                (rs, rowNum) -> SchemaMigration.builder()
+                        .version(rs.getInt("version"))
+                        .description(rs.getString("description"))
+                        .checksum(rs.getLong("checksum"))
+                        .appliedAt(rs.getTimestamp("applied_at").toLocalDateTime())
+                        .executionMillis(rs.getLong("execution_ms"))
+                        .build());
+    }
+
+    public void insert(SchemaMigration migration) {
+        jdbcTemplate.update(
+                "INSERT INTO schema_version (version, description, checksum, applied_at, execution_ms) VALUES (?, ?, ?, ?, ?)",
+                migration.getVersion(), migration.getDescription(), migration.getChecksum(),
+                Timestamp.valueOf(migration.getAppliedAt()), migration.getExecutionMillis());
+    }
+
+    /**
+     * Column names of a table, empty when the table does not exist.
+     */
+    public List<String> columnsOf(String table) {
+        return jdbcTemplate.query("PRAGMA table_info(" + table + ")", (rs, rowNum) -> rs.getString("name"));
+    }
+
+    public void addColumn(String table, String columnDefinition) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN " + columnDefinition);
+    }
+
+    /**
+     * Run one statement of a migration script.
+     */
+    public void execute(String statement) {
+        jdbcTemplate.execute(statement);
+    }
+}
@@ -0,0 +1,9 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.SyncChangeCursorEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncChangeCursorDao extends JpaRepository<SyncChangeCursorEntity, String> {
+}
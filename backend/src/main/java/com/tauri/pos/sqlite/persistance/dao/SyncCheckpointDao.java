@@ -0,0 +1,12 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.shared.enums.CatalogSyncMode;
+import com.tauri.pos.sqlite.persistance.eo.SyncCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncCheckpointDao extends JpaRepository<SyncCheckpointEntity, String> {
+    boolean existsByMode(CatalogSyncMode mode);
+    void deleteByMode(CatalogSyncMode mode);
+}
@@ -0,0 +1,9 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncWatermarkDao extends JpaRepository<SyncWatermarkEntity, String> {
+}
@@ -19,6 +19,9 @@ public class LocalOrderItemEntity {
     @Column(name = "id")
     private Long id;
 
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey; // client-generated key of the create request, unique within its order when set
+
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
@@ -41,6 +44,15 @@ public class LocalOrderItemEntity {
     @Column(name = "last_sync")
     private LocalDateTime lastSync;
 
+    @Column(name = "sync_attempts", nullable = false)
+    private Integer syncAttempts = 0; // failed uploads since the row was last changed
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // earliest retry of a FAILED row
+
+    @Column(name = "sync_error", length = 500)
+    private String syncError;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
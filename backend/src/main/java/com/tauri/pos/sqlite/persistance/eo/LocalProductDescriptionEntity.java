@@ -55,14 +55,19 @@ public class LocalProductDescriptionEntity {
     @Column(name = "updated_by", nullable = false)
     private Integer updatedBy;
 
+    @Column(name = "row_hash")
+    private Long rowHash; // content hash of the MySQL row last synced, null once edited locally
+
     @PrePersist
     protected void onCreate() {
+        rowHash = null;
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        rowHash = null;
         updatedAt = LocalDateTime.now();
     }
 }
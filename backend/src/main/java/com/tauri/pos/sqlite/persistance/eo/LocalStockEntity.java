@@ -0,0 +1,36 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "local_stock")
+@IdClass(LocalStockId.class)
+public class LocalStockEntity {
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Id
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId; // 0 when the adjustment has no warehouse
+
+    @Id
+    @Column(name = "bin_id", nullable = false)
+    private Long binId; // 0 when the adjustment has no bin
+
+    @Column(name = "qty")
+    private Integer qty; // after_adjustment_qty of the latest adjustment
+
+    @Column(name = "last_adjustment_detail_id", nullable = false)
+    private Long lastAdjustmentDetailId;
+
+    @Column(name = "adjusted_at")
+    private LocalDateTime adjustedAt;
+}
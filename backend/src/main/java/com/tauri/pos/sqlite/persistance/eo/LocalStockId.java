@@ -0,0 +1,31 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalStockId implements Serializable {
+
+    private Long productId;
+    private Long warehouseId;
+    private Long binId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LocalStockId that = (LocalStockId) o;
+        return Objects.equals(productId, that.productId) &&
+               Objects.equals(warehouseId, that.warehouseId) &&
+               Objects.equals(binId, that.binId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, warehouseId, binId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.shared.enums.SyncStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "mysql_outbox")
+public class MysqlOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq; // writes are applied to MySQL in this order
+
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName; // MySQL table the write targets
+
+    @Column(name = "operation", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private OutboxOperation operation;
+
+    @Column(name = "entity_key", length = 128)
+    private String entityKey; // primary key of the target row, null for creates of generated ids
+
+    @Column(name = "payload", nullable = false)
+    private String payload; // JSON of the service model passed to the write
+
+    @Column(name = "status", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private SyncStatus status; // PENDING, FAILED while retrying, CONFLICT once parked
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+}
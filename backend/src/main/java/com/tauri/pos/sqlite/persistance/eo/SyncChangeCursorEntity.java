@@ -0,0 +1,30 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sync_change_cursor")
+public class SyncChangeCursorEntity {
+
+    @Id
+    @Column(name = "feed", nullable = false, length = 64)
+    private String feed; // tailed log the cursor belongs to
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq; // greatest sequence or id of the log applied locally
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
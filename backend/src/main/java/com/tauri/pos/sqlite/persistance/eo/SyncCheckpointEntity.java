@@ -0,0 +1,57 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import com.tauri.pos.shared.enums.CatalogSyncMode;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sync_checkpoint")
+public class SyncCheckpointEntity {
+
+    @Id
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName; // MySQL table being pulled
+
+    @Column(name = "mode", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private CatalogSyncMode mode;
+
+    @Column(name = "since")
+    private LocalDateTime since; // lower updated_at bound of a delta pull, null for full pulls
+
+    @Column(name = "last_product_id")
+    private Long lastProductId; // product_id of the last row in the last committed batch
+
+    @Column(name = "batch_seq", nullable = false)
+    private long batchSeq; // number of batches committed so far
+
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(name = "errors", nullable = false)
+    private long errors; // rows that failed so far, these keep the watermark from advancing
+
+    @Column(name = "max_updated_at")
+    private LocalDateTime maxUpdatedAt; // greatest updated_at committed so far
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed; // table fully loaded, only kept until a resync swaps its staging tables in
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package com.tauri.pos.sqlite.persistance.eo;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sync_watermark")
+public class SyncWatermarkEntity {
+
+    @Id
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName; // MySQL table the watermark belongs to
+
+    @Column(name = "high_water_mark")
+    private LocalDateTime highWaterMark; // greatest updated_at applied locally
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package com.tauri.pos.sqlite.service;
+
+import com.tauri.pos.sqlite.model.BackupFile;
+import com.tauri.pos.sqlite.model.BackupResult;
+
+import java.util.List;
+
+public interface DatabaseBackupService {
+    /**
+     * Copy the live database to a new backup file, verify it and rotate old backups out.
+     */
+    BackupResult backup();
+
+    /**
+     * Backups on disk, newest first.
+     */
+    List<BackupFile> listBackups();
+
+    /**
+     * Open an existing backup read-only and check that it would restore to a sound database.
+     *
+     * @throws IllegalArgumentException when there is no backup with that name
+     */
+    BackupResult verify(String fileName);
+}
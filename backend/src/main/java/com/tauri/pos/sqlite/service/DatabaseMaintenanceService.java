@@ -0,0 +1,18 @@
+package com.tauri.pos.sqlite.service;
+
+import com.tauri.pos.sqlite.model.MaintenanceState;
+import com.tauri.pos.sqlite.model.StorageStats;
+
+public interface DatabaseMaintenanceService {
+    /**
+     * Checkpoint, optimize, analyze and vacuum the terminal database now, whether due or not.
+     */
+    MaintenanceState runMaintenance();
+
+    MaintenanceState getState();
+
+    /**
+     * Row counts and page usage per table and index, to spot bloat.
+     */
+    StorageStats getStorageStats();
+}
@@ -0,0 +1,13 @@
+package com.tauri.pos.sqlite.service;
+
+import java.nio.file.Path;
+
+public interface DatabaseTemplateService {
+    /**
+     * Build a compacted, analyzed copy of this database holding the catalog, stock and sync
+     * positions but none of this terminal's orders or queued writes.
+     *
+     * @return a temporary file the caller deletes once it has been copied
+     */
+    Path buildTemplate();
+}
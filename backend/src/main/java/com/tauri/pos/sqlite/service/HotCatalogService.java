@@ -0,0 +1,32 @@
+package com.tauri.pos.sqlite.service;
+
+import com.tauri.pos.sqlite.model.HotCatalogState;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checkout lookups on the local catalog, served from memory when sqlite.hot-catalog.enabled is
+ * set and the copy is loaded, and from the database otherwise.
+ */
+public interface HotCatalogService {
+    Optional<LocalProductEntity> findProductById(Long productId);
+
+    List<LocalProductEntity> findProductsBySku(String sku);
+
+    List<LocalProductEntity> findProductsByBarcode(String barcode);
+
+    List<LocalProductBarcodeEntity> findBarcodesByBarcode(String barcode);
+
+    List<LocalProductBarcodeEntity> findBarcodesByProductId(Integer productId);
+
+    /**
+     * Rebuild the in-memory copy from the database, e.g. after the catalog tables were replaced
+     * wholesale. Does nothing while the hot catalog is disabled.
+     */
+    void reload();
+
+    HotCatalogState getState();
+}
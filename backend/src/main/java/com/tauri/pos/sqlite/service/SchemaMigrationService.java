@@ -0,0 +1,22 @@
+package com.tauri.pos.sqlite.service;
+
+import com.tauri.pos.sqlite.model.SchemaMigration;
+
+import java.util.List;
+
+public interface SchemaMigrationService {
+    /**
+     * Apply the migration scripts not yet recorded in schema_version, each in its own transaction.
+     * Runs at startup; calling it again only picks up scripts added since.
+     *
+     * @return the migrations applied by this call
+     */
+    List<SchemaMigration> migrate();
+
+    List<SchemaMigration> getAppliedMigrations();
+
+    /**
+     * Highest applied migration version, 0 for a database without any.
+     */
+    int getCurrentVersion();
+}
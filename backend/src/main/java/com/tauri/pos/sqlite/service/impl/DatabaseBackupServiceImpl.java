@@ -0,0 +1,329 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.config.SqliteBackupProperties;
+import com.tauri.pos.config.SqliteProperties;
+import com.tauri.pos.sqlite.model.BackupFile;
+import com.tauri.pos.sqlite.model.BackupResult;
+import com.tauri.pos.sqlite.service.DatabaseBackupService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.Codes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Online backups of the terminal database through SQLite's backup API.
+ * <p>
+ * The backup runs on a connection of its own that first pins a read snapshot, so commits made
+ * meanwhile neither tear the copy nor restart it, and the writer is never blocked in WAL mode.
+ * Pages are copied {@code sqlite.backup.pages-per-step} at a time with {@code step-pause} in
+ * between. The copy is written to a {@code .partial} file, checked with integrity_check and
+ * compared with the snapshot's row counts, and only then renamed into place and older backups
+ * rotated out. Scheduled backups run on a thread of their own rather than the shared task scheduler.
+ */
+@Service
+public class DatabaseBackupServiceImpl implements DatabaseBackupService {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBackupServiceImpl.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Pattern BACKUP_NAME = Pattern.compile("pos_local-\\d{8}-\\d{6}\\.db");
+
+    private static final String USER_TABLES_SQL =
+            "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite\\_%' ESCAPE '\\' ORDER BY name";
+
+    // Wait between retries of a step while the backup file is locked
+    private static final int BUSY_RETRY_MILLIS = 100;
+
+    private final SqliteProperties sqliteProperties;
+    private final SqliteBackupProperties backupProperties;
+    private final TaskScheduler taskScheduler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService backupExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("sqlite-backup-"));
+
+    public DatabaseBackupServiceImpl(SqliteProperties sqliteProperties,
+                                     SqliteBackupProperties backupProperties,
+                                     TaskScheduler taskScheduler) {
+        this.sqliteProperties = sqliteProperties;
+        this.backupProperties = backupProperties;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!backupProperties.isEnabled()) {
+            log.info("Scheduled SQLite backups are disabled");
+            return;
+        }
+        Duration interval = backupProperties.getInterval();
+        taskScheduler.scheduleWithFixedDelay(() -> {
+            if (!running.get()) {
+                backupExecutor.execute(this::scheduledBackup);
+            }
+        }, Instant.now().plus(interval), interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backupExecutor.shutdownNow();
+    }
+
+    private void scheduledBackup() {
+        try {
+            backup();
+        } catch (IllegalStateException e) {
+            // A manual backup is in progress
+        } catch (RuntimeException e) {
+            log.warn("Scheduled SQLite backup failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public BackupResult backup() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A database backup is already running");
+        }
+        Path partial = null;
+        try {
+            Path directory = backupDirectory();
+            Files.createDirectories(directory);
+            LocalDateTime startedAt = LocalDateTime.now();
+            long started = System.nanoTime();
+            String fileName = "pos_local-" + startedAt.format(FILE_TIMESTAMP) + ".db";
+            Path target = directory.resolve(fileName);
+            partial = directory.resolve(fileName + ".partial");
+            Files.deleteIfExists(partial);
+
+            Map<String, Long> sourceRows;
+            try (Connection source = DriverManager.getConnection(sqliteProperties.getJdbcUrl(), sourceProperties())) {
+                source.setAutoCommit(false);
+                // Reading inside the transaction pins the snapshot the backup then copies
+                sourceRows = countRows(source);
+                int rc = ((SQLiteConnection) source).getDatabase().backup("main", partial.toString(),
+                        (remaining, pageCount) -> pause(remaining),
+                        BUSY_RETRY_MILLIS,
+                        (int) Math.max(1, sqliteProperties.getBusyTimeout().toMillis() / BUSY_RETRY_MILLIS),
+                        backupProperties.getPagesPerStep());
+                source.rollback();
+                if (rc != Codes.SQLITE_OK && rc != Codes.SQLITE_DONE) {
+                    throw new DataAccessResourceFailureException("SQLite backup stopped with result code " + rc);
+                }
+            }
+
+            // The copied header still says WAL; a rollback journal keeps the backup a single file
+            try (Connection copy = DriverManager.getConnection("jdbc:sqlite:" + partial.toAbsolutePath());
+                 Statement statement = copy.createStatement()) {
+                statement.execute("PRAGMA journal_mode = DELETE");
+            }
+
+            BackupResult result = inspect(partial, sourceRows);
+            if (!result.isVerified()) {
+                throw new DataAccessResourceFailureException("Backup failed verification: " + result.getVerificationError());
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            result.setFileName(fileName);
+            result.setStartedAt(startedAt);
+            result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+            log.info("Backed up the terminal database to {} ({} bytes, {} ms)", target, result.getBytes(), result.getDurationMillis());
+            rotate();
+            return result;
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("Failed to back up the database", e);
+        } catch (SQLException e) {
+            deleteQuietly(partial);
+            throw new DataAccessResourceFailureException("Failed to back up the database", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public List<BackupFile> listBackups() {
+        List<BackupFile> backups = new ArrayList<>();
+        for (Path file : backupFiles()) {
+            try {
+                backups.add(BackupFile.builder()
+                        .fileName(file.getFileName().toString())
+                        .bytes(Files.size(file))
+                        .createdAt(LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault()))
+                        .build());
+            } catch (IOException e) {
+                // Deleted by a concurrent rotation
+            }
+        }
+        return backups;
+    }
+
+    @Override
+    public BackupResult verify(String fileName) {
+        Path file = backupDirectory().resolve(fileName);
+        if (!BACKUP_NAME.matcher(fileName).matches() || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No backup named " + fileName);
+        }
+        long started = System.nanoTime();
+        try {
+            BackupResult result = inspect(file, null);
+            result.setFileName(fileName);
+            result.setStartedAt(LocalDateTime.now());
+            result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to verify backup " + fileName, e);
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Failed to verify backup " + fileName, e);
+        }
+    }
+
+    /**
+     * Open a backup read-only, run a full integrity check and count its rows, comparing them with
+     * {@code expectedRows} when given.
+     */
+    private BackupResult inspect(Path file, Map<String, Long> expectedRows) throws IOException, SQLException {
+        SQLiteConfig readOnly = new SQLiteConfig();
+        readOnly.setReadOnly(true);
+        try (Connection backup = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath(), readOnly.toProperties());
+             Statement statement = backup.createStatement()) {
+            String error = null;
+            try (ResultSet check = statement.executeQuery("PRAGMA integrity_check")) {
+                String result = check.next() ? check.getString(1) : "no result";
+                if (!"ok".equals(result)) {
+                    error = "integrity_check: " + result;
+                }
+            }
+            long pages;
+            try (ResultSet pageCount = statement.executeQuery("PRAGMA page_count")) {
+                pages = pageCount.next() ? pageCount.getLong(1) : 0;
+            }
+            Map<String, Long> rows = countRows(backup);
+            if (error == null && expectedRows != null && !expectedRows.equals(rows)) {
+                error = "row counts " + rows + " differ from the source's " + expectedRows;
+            }
+            return BackupResult.builder()
+                    .bytes(Files.size(file))
+                    .pages(pages)
+                    .rows(rows)
+                    .verified(error == null)
+                    .verificationError(error)
+                    .build();
+        }
+    }
+
+    private static Map<String, Long> countRows(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(USER_TABLES_SQL)) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (String table : tables) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM \"" + table.replace("\"", "\"\"") + "\"")) {
+                rows.put(table, rs.next() ? rs.getLong(1) : 0);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Delete all but the newest {@code sqlite.backup.keep} backups.
+     */
+    private void rotate() {
+        List<Path> backups = backupFiles();
+        for (Path old : backups.subList(Math.min(backupProperties.getKeep(), backups.size()), backups.size())) {
+            deleteQuietly(old);
+            log.info("Rotated out backup {}", old.getFileName());
+        }
+    }
+
+    /**
+     * Backup files, newest first; their names sort by the time they were taken.
+     */
+    private List<Path> backupFiles() {
+        Path directory = backupDirectory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> BACKUP_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list backups", e);
+        }
+    }
+
+    private Path backupDirectory() {
+        return Path.of(backupProperties.getDirectory());
+    }
+
+    private Properties sourceProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("busy_timeout", String.valueOf(sqliteProperties.getBusyTimeout().toMillis()));
+        return properties;
+    }
+
+    /**
+     * Called by the backup after every step; sleeping here is what spaces the steps out.
+     */
+    private void pause(int remainingPages) {
+        if (remainingPages == 0 || backupProperties.getStepPause().isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(backupProperties.getStepPause().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.config.SqliteMaintenanceProperties;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.sqlite.model.IndexStorage;
+import com.tauri.pos.sqlite.model.MaintenanceState;
+import com.tauri.pos.sqlite.model.StorageStats;
+import com.tauri.pos.sqlite.model.TableStorage;
+import com.tauri.pos.sqlite.persistance.dao.DatabaseMaintenanceDao;
+import com.tauri.pos.sqlite.service.DatabaseMaintenanceService;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the terminal database's statistics fresh and its file compact.
+ * <p>
+ * Once the writer has been quiet for {@code sqlite.maintenance.idle-after}, the due steps run on
+ * the writer one statement at a time: a full ANALYZE or else {@code PRAGMA optimize}, an
+ * incremental vacuum when enough pages are free, and a WAL checkpoint. Writes queued meanwhile
+ * run between steps, and a scheduled run stops at the first one, leaving the rest due.
+ */
+@Service
+public class DatabaseMaintenanceServiceImpl implements DatabaseMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseMaintenanceServiceImpl.class);
+
+    private static final List<String> AUTO_VACUUM_MODES = List.of("NONE", "FULL", "INCREMENTAL");
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    // Rough rate a terminal's disk rewrites the file at during VACUUM, for the warning before one
+    private static final long VACUUM_BYTES_PER_SECOND = 20 * MEGABYTE;
+
+    private final DatabaseMaintenanceDao databaseMaintenanceDao;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final SqliteMaintenanceProperties maintenanceProperties;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate sqliteReadTemplate;
+    private final HotCatalogService hotCatalogService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile LocalDateTime lastCheckpointAt;
+    private volatile LocalDateTime lastOptimizeAt;
+    private volatile LocalDateTime lastAnalyzeAt;
+    private volatile LocalDateTime lastVacuumAt;
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastCheckpointedPages;
+    private volatile long lastVacuumedPages;
+    private volatile String lastError;
+
+    public DatabaseMaintenanceServiceImpl(DatabaseMaintenanceDao databaseMaintenanceDao,
+                                          SqliteWriteExecutor sqliteWriteExecutor,
+                                          SqliteMaintenanceProperties maintenanceProperties,
+                                          TaskScheduler taskScheduler,
+                                          @Qualifier("sqliteTransactionManager") PlatformTransactionManager sqliteTransactionManager,
+                                          HotCatalogService hotCatalogService) {
+        this.databaseMaintenanceDao = databaseMaintenanceDao;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+        this.maintenanceProperties = maintenanceProperties;
+        this.taskScheduler = taskScheduler;
+        this.sqliteReadTemplate = new TransactionTemplate(sqliteTransactionManager);
+        this.sqliteReadTemplate.setReadOnly(true);
+        this.hotCatalogService = hotCatalogService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!maintenanceProperties.isEnabled()) {
+            log.info("SQLite maintenance is disabled");
+            return;
+        }
+        Duration checkInterval = maintenanceProperties.getCheckInterval();
+        taskScheduler.scheduleWithFixedDelay(this::scheduledRun, Instant.now().plus(checkInterval), checkInterval);
+    }
+
+    private void scheduledRun() {
+        if (sqliteWriteExecutor.idleFor().compareTo(maintenanceProperties.getIdleAfter()) < 0) {
+            return;
+        }
+        try {
+            run(false);
+        } catch (IllegalStateException e) {
+            // A manual run is in progress
+        } catch (RuntimeException e) {
+            log.warn("SQLite maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public MaintenanceState runMaintenance() {
+        run(true);
+        return getState();
+    }
+
+    @Override
+    public MaintenanceState getState() {
+        return MaintenanceState.builder()
+                .enabled(maintenanceProperties.isEnabled())
+                .running(running.get())
+                .lastCheckpointAt(lastCheckpointAt)
+                .lastOptimizeAt(lastOptimizeAt)
+                .lastAnalyzeAt(lastAnalyzeAt)
+                .lastVacuumAt(lastVacuumAt)
+                .lastCheckpointedPages(lastCheckpointedPages)
+                .lastVacuumedPages(lastVacuumedPages)
+                .lastRunAt(lastRunAt)
+                .lastError(lastError)
+                .build();
+    }
+
+    @Override
+    public StorageStats getStorageStats() {
+        // One read transaction, so every figure comes from the same snapshot
+        return sqliteReadTemplate.execute(status -> {
+            long pageSize = databaseMaintenanceDao.pragma("page_size");
+            long pageCount = databaseMaintenanceDao.pragma("page_count");
+            int autoVacuum = databaseMaintenanceDao.autoVacuum();
+            Map<String, IndexStorage> btrees = databaseMaintenanceDao.btreeSizes();
+            List<TableStorage> tables = databaseMaintenanceDao.indexesByTable().entrySet().stream()
+                    .map(table -> tableStorage(table.getKey(), table.getValue(), btrees))
+                    .sorted(Comparator.comparingLong((TableStorage table) -> table.getBytes() + table.getIndexBytes()).reversed())
+                    .toList();
+            return StorageStats.builder()
+                    .pageSize(pageSize)
+                    .pageCount(pageCount)
+                    .freePages(databaseMaintenanceDao.pragma("freelist_count"))
+                    .fileBytes(pageSize * pageCount)
+                    .walBytes(new File(databaseMaintenanceDao.databaseFile() + "-wal").length())
+                    .journalMode(databaseMaintenanceDao.journalMode())
+                    .autoVacuum(autoVacuum >= 0 && autoVacuum < AUTO_VACUUM_MODES.size() ? AUTO_VACUUM_MODES.get(autoVacuum) : String.valueOf(autoVacuum))
+                    .tables(tables)
+                    .measuredAt(LocalDateTime.now())
+                    .build();
+        });
+    }
+
+    private TableStorage tableStorage(String table, List<String> indexNames, Map<String, IndexStorage> btrees) {
+        IndexStorage own = btrees.getOrDefault(table, new IndexStorage(table, 0, 0, 0));
+        List<IndexStorage> indexes = indexNames.stream()
+                .map(name -> btrees.getOrDefault(name, new IndexStorage(name, 0, 0, 0)))
+                .toList();
+        return TableStorage.builder()
+                .name(table)
+                .rows(databaseMaintenanceDao.countRows(table))
+                .pages(own.getPages())
+                .bytes(own.getBytes())
+                .unusedBytes(own.getUnusedBytes())
+                .indexBytes(indexes.stream().mapToLong(IndexStorage::getBytes).sum())
+                .indexes(indexes)
+                .build();
+    }
+
+    /**
+     * Run the due steps, or all of them when forced. Unforced runs give way to queued writes.
+     */
+    private void run(boolean force) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Database maintenance is already running");
+        }
+        try {
+            lastRunAt = LocalDateTime.now();
+            if (force || due(lastAnalyzeAt, maintenanceProperties.getAnalyzeInterval())) {
+                onWriter(databaseMaintenanceDao::analyze);
+                lastAnalyzeAt = LocalDateTime.now();
+                // A full analyze leaves nothing for optimize to do
+                lastOptimizeAt = lastAnalyzeAt;
+            } else if (due(lastOptimizeAt, maintenanceProperties.getOptimizeInterval())) {
+                onWriter(databaseMaintenanceDao::optimize);
+                lastOptimizeAt = LocalDateTime.now();
+            }
+            if ((force || due(lastVacuumAt, maintenanceProperties.getVacuumInterval())) && !yields(force)) {
+                vacuum(force);
+                lastVacuumAt = LocalDateTime.now();
+            }
+            if ((force || due(lastCheckpointAt, maintenanceProperties.getCheckpointInterval())) && !yields(force)) {
+                lastCheckpointedPages = sqliteWriteExecutor.executeWithoutTransaction(databaseMaintenanceDao::checkpoint);
+                lastCheckpointAt = LocalDateTime.now();
+            }
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Release free pages in steps of {@code vacuum-step-pages}. A database created without
+     * incremental auto-vacuum is switched to it by one full VACUUM, which blocks every write until
+     * the file is rewritten, so unforced runs only do that once enough pages are free.
+     */
+    private void vacuum(boolean force) {
+        long free = databaseMaintenanceDao.pragma("freelist_count");
+        lastVacuumedPages = 0;
+        boolean worthIt = free >= maintenanceProperties.getVacuumMinFreePages();
+        if (databaseMaintenanceDao.autoVacuum() != AUTO_VACUUM_INCREMENTAL) {
+            if (!force && !worthIt) {
+                return;
+            }
+            long bytes = databaseMaintenanceDao.pragma("page_size") * databaseMaintenanceDao.pragma("page_count");
+            log.info("Switching the terminal database to incremental vacuum; rewriting its {} MB blocks writes for about {}s",
+                    bytes / MEGABYTE, Math.max(1, bytes / VACUUM_BYTES_PER_SECOND));
+            long started = System.nanoTime();
+            onWriter(databaseMaintenanceDao::enableIncrementalVacuum);
+            log.info("Switched the terminal database to incremental vacuum in {} ms", (System.nanoTime() - started) / 1_000_000);
+            // VACUUM may renumber rowids, which the in-memory catalog follows changes by
+            hotCatalogService.reload();
+            // The rewrite left no free pages behind
+            lastVacuumedPages = free;
+            return;
+        }
+        if (force ? free == 0 : !worthIt) {
+            return;
+        }
+        long vacuumed = 0;
+        while (free > 0 && !yields(force)) {
+            long remaining = sqliteWriteExecutor.executeWithoutTransaction(() -> {
+                databaseMaintenanceDao.incrementalVacuum(maintenanceProperties.getVacuumStepPages());
+                return databaseMaintenanceDao.pragma("freelist_count");
+            });
+            if (remaining >= free) {
+                break;
+            }
+            vacuumed += free - remaining;
+            free = remaining;
+        }
+        lastVacuumedPages = vacuumed;
+    }
+
+    private void onWriter(Runnable statement) {
+        sqliteWriteExecutor.executeWithoutTransaction(() -> {
+            statement.run();
+            return null;
+        });
+    }
+
+    private boolean yields(boolean force) {
+        return !force && sqliteWriteExecutor.idleFor().isZero();
+    }
+
+    private static boolean due(LocalDateTime last, Duration interval) {
+        return last == null || !LocalDateTime.now().isBefore(last.plus(interval));
+    }
+}
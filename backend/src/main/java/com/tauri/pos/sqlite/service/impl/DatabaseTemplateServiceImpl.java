@@ -0,0 +1,113 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.config.SqliteProperties;
+import com.tauri.pos.sqlite.service.DatabaseTemplateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao.CATALOG_TABLES;
+import static com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao.stagingTableOf;
+
+/**
+ * Builds the template new terminals start from (see {@code spring.datasource.sqlite.template}).
+ * <p>
+ * {@code VACUUM INTO} copies a consistent snapshot of the live database through a connection of
+ * its own, so the writer keeps committing meanwhile. The copy is then stripped of rows that belong
+ * to this terminal, analyzed, switched out of WAL mode so it is a single file, and vacuumed again
+ * with incremental auto-vacuum enabled. The catalog watermarks and change cursors stay, so a terminal adopting the template only pulls
+ * what changed after it was built.
+ */
+@Service
+public class DatabaseTemplateServiceImpl implements DatabaseTemplateService {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseTemplateServiceImpl.class);
+
+    // Rows only meaningful on the terminal that wrote them
+    private static final List<String> TERMINAL_TABLES = List.of("local_order_items", "mysql_outbox", "sync_checkpoint");
+
+    private final SqliteProperties sqliteProperties;
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    public DatabaseTemplateServiceImpl(SqliteProperties sqliteProperties) {
+        this.sqliteProperties = sqliteProperties;
+    }
+
+    @Override
+    public Path buildTemplate() {
+        if (!building.compareAndSet(false, true)) {
+            throw new IllegalStateException("A database template is already being built");
+        }
+        Path template = null;
+        try {
+            template = Files.createTempFile("pos_local-template-", ".db");
+            // VACUUM INTO refuses to overwrite a file, even an empty one
+            Files.delete(template);
+            long started = System.currentTimeMillis();
+            Properties sourceProperties = new Properties();
+            sourceProperties.setProperty("busy_timeout", String.valueOf(sqliteProperties.getBusyTimeout().toMillis()));
+            try (Connection source = DriverManager.getConnection(sqliteProperties.getJdbcUrl(), sourceProperties);
+                 Statement statement = source.createStatement()) {
+                statement.execute("VACUUM INTO '" + template.toAbsolutePath().toString().replace("'", "''") + "'");
+            }
+            try (Connection copy = DriverManager.getConnection("jdbc:sqlite:" + template.toAbsolutePath());
+                 Statement statement = copy.createStatement()) {
+                for (String table : TERMINAL_TABLES) {
+                    statement.execute("DELETE FROM " + table);
+                }
+                statement.execute("DELETE FROM sqlite_sequence WHERE name IN ('local_order_items', 'mysql_outbox')");
+                for (String table : CATALOG_TABLES) {
+                    statement.execute("DROP TABLE IF EXISTS " + stagingTableOf(table));
+                }
+                statement.execute("ANALYZE");
+                statement.execute("PRAGMA journal_mode = DELETE");
+                // Set before the final VACUUM, so terminals never need the full rewrite maintenance would do
+                statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                statement.execute("VACUUM");
+                try (ResultSet check = statement.executeQuery("PRAGMA quick_check")) {
+                    String result = check.next() ? check.getString(1) : "no result";
+                    if (!"ok".equals(result)) {
+                        throw new DataAccessResourceFailureException("Database template failed its integrity check: " + result);
+                    }
+                }
+            }
+            log.info("Built database template of {} bytes in {} ms", Files.size(template), System.currentTimeMillis() - started);
+            return template;
+        } catch (IOException e) {
+            deleteQuietly(template);
+            throw new UncheckedIOException("Failed to build database template", e);
+        } catch (SQLException e) {
+            deleteQuietly(template);
+            throw new DataAccessResourceFailureException("Failed to build database template", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(template);
+            throw e;
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
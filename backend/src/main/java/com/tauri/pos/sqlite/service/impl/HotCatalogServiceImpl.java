@@ -0,0 +1,575 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.config.HotCatalogProperties;
+import com.tauri.pos.config.SqliteProperties;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.sqlite.model.HotCatalogState;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteUpdateListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps local_product and local_product_barcode in a shared-cache in-memory SQLite database so
+ * checkout lookups never touch the disk.
+ * <p>
+ * The copy is loaded at startup through an attached connection to the database file, indexes
+ * included, within one read snapshot. The database file stays the only thing written: an update
+ * hook on the writer's connection notes which rows of the two tables change, and once their
+ * transaction commits those rows are re-read from the file and copied, or removed, by rowid.
+ * Replacing the tables wholesale (a resync swap, VACUUM renumbering rowids) calls {@link #reload},
+ * which builds a fresh copy and switches to it; a periodic row count check reloads as well should
+ * the copy ever drift. Lookups fall back to the database while no copy is loaded.
+ * <p>
+ * A commit reaches the copy a moment after it returns, once the copying thread has re-read its
+ * rows. Until then lookups on a table with changes not yet copied read the database instead, so
+ * a lookup right after a local edit sees it; the copy serves them again once it caught up.
+ * <p>
+ * Copying and checking run on a thread of their own, so a slow copy or reload never holds up
+ * the shared task scheduler.
+ */
+@Service
+public class HotCatalogServiceImpl implements HotCatalogService {
+    private static final Logger log = LoggerFactory.getLogger(HotCatalogServiceImpl.class);
+
+    private static final List<String> HOT_TABLES = List.of("local_product", "local_product_barcode");
+
+    private static final int ROWID_CHUNK = 500;
+
+    private static final BeanPropertyRowMapper<LocalProductEntity> PRODUCT_MAPPER =
+            new BeanPropertyRowMapper<>(LocalProductEntity.class);
+
+    private static final BeanPropertyRowMapper<LocalProductBarcodeEntity> BARCODE_MAPPER =
+            new BeanPropertyRowMapper<>(LocalProductBarcodeEntity.class);
+
+    private final HotCatalogProperties hotCatalogProperties;
+    private final SqliteProperties sqliteProperties;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final JdbcTemplate sqliteJdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final LocalProductDao localProductDao;
+    private final LocalProductBarcodeDao localProductBarcodeDao;
+
+    // Guards switching copies and writing to the current one
+    private final Object lock = new Object();
+    private final AtomicInteger generations = new AtomicInteger();
+    private volatile Generation current;
+
+    // Rows changed by the writer's open transaction; only touched on the writer thread
+    private final Map<String, Set<Long>> uncommitted = new HashMap<>();
+    // Rows changed by committed transactions and not yet copied; guarded by itself
+    private final Map<String, Set<Long>> committed = new HashMap<>();
+    // Per table, commits that changed it, and how many of those the copy holds
+    private final Map<String, Long> committedVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> copiedVersions = new ConcurrentHashMap<>();
+    private final AtomicBoolean mirrorScheduled = new AtomicBoolean(false);
+    // Runs mirror and verify one at a time
+    private final ExecutorService mirrorExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("hot-catalog-"));
+    private final SQLiteUpdateListener updateListener = this::onUpdate;
+    private final SQLiteCommitListener commitListener = new SQLiteCommitListener() {
+        @Override
+        public void onCommit() {
+            onWriterCommit();
+        }
+
+        @Override
+        public void onRollback() {
+            uncommitted.clear();
+        }
+    };
+    private SQLiteConnection listenedConnection;
+
+    private volatile long reloads;
+    private volatile long mirroredRows;
+    private volatile String lastError;
+
+    public HotCatalogServiceImpl(HotCatalogProperties hotCatalogProperties,
+                                 SqliteProperties sqliteProperties,
+                                 SqliteWriteExecutor sqliteWriteExecutor,
+                                 @Qualifier("sqliteJdbcTemplate") JdbcTemplate sqliteJdbcTemplate,
+                                 TaskScheduler taskScheduler,
+                                 LocalProductDao localProductDao,
+                                 LocalProductBarcodeDao localProductBarcodeDao) {
+        this.hotCatalogProperties = hotCatalogProperties;
+        this.sqliteProperties = sqliteProperties;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+        this.sqliteJdbcTemplate = sqliteJdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.localProductDao = localProductDao;
+        this.localProductBarcodeDao = localProductBarcodeDao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!hotCatalogProperties.isEnabled()) {
+            return;
+        }
+        try {
+            synchronized (lock) {
+                listenToWriter();
+                load();
+            }
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.warn("Hot catalog not loaded, lookups read the database: {}", e.getMessage());
+        }
+        taskScheduler.scheduleWithFixedDelay(() -> submit(this::verify),
+                Instant.now().plus(hotCatalogProperties.getVerifyInterval()), hotCatalogProperties.getVerifyInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mirrorExecutor.shutdownNow();
+        synchronized (lock) {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+
+    @Override
+    public Optional<LocalProductEntity> findProductById(Long productId) {
+        return lookup("local_product",
+                jdbc -> jdbc.query("SELECT * FROM local_product WHERE product_id = ?", PRODUCT_MAPPER, productId)
+                        .stream().findFirst(),
+                () -> localProductDao.findById(productId));
+    }
+
+    @Override
+    public List<LocalProductEntity> findProductsBySku(String sku) {
+        return lookup("local_product", jdbc -> jdbc.query("SELECT * FROM local_product WHERE sku = ?", PRODUCT_MAPPER, sku),
+                () -> localProductDao.findBySku(sku));
+    }
+
+    @Override
+    public List<LocalProductEntity> findProductsByBarcode(String barcode) {
+        return lookup("local_product", jdbc -> jdbc.query("SELECT * FROM local_product WHERE barcode = ?", PRODUCT_MAPPER, barcode),
+                () -> localProductDao.findByBarcode(barcode));
+    }
+
+    @Override
+    public List<LocalProductBarcodeEntity> findBarcodesByBarcode(String barcode) {
+        return lookup("local_product_barcode",
+                jdbc -> jdbc.query("SELECT * FROM local_product_barcode WHERE barcode = ?", BARCODE_MAPPER, barcode),
+                () -> localProductBarcodeDao.findByBarcode(barcode));
+    }
+
+    @Override
+    public List<LocalProductBarcodeEntity> findBarcodesByProductId(Integer productId) {
+        return lookup("local_product_barcode",
+                jdbc -> jdbc.query("SELECT * FROM local_product_barcode WHERE product_id = ?", BARCODE_MAPPER, productId),
+                () -> localProductBarcodeDao.findByProductId(productId));
+    }
+
+    private <T> T lookup(String table, Function<JdbcTemplate, T> fromMemory, Supplier<T> fromDatabase) {
+        Generation generation = current;
+        if (generation == null || !Objects.equals(committedVersions.get(table), copiedVersions.get(table))) {
+            return fromDatabase.get();
+        }
+        try {
+            return fromMemory.apply(generation.jdbcTemplate);
+        } catch (DataAccessException e) {
+            // The copy was switched out mid-query
+            return fromDatabase.get();
+        }
+    }
+
+    @Override
+    public void reload() {
+        if (!hotCatalogProperties.isEnabled()) {
+            return;
+        }
+        synchronized (lock) {
+            load();
+        }
+    }
+
+    @Override
+    public HotCatalogState getState() {
+        Generation generation = current;
+        return HotCatalogState.builder()
+                .enabled(hotCatalogProperties.isEnabled())
+                .loaded(generation != null)
+                .rows(generation != null ? countRows(generation.jdbcTemplate) : Map.of())
+                .loadedAt(generation != null ? generation.loadedAt : null)
+                .loadMillis(generation != null ? generation.loadMillis : 0)
+                .reloads(reloads)
+                .mirroredRows(mirroredRows)
+                .lastError(lastError)
+                .build();
+    }
+
+    /**
+     * Build a new in-memory copy and switch lookups to it. Changes committed while it loads are
+     * still queued and get copied into it afterwards. Caller holds {@link #lock}.
+     */
+    private void load() {
+        long started = System.nanoTime();
+        String name = "hot_catalog_" + generations.incrementAndGet();
+        String url = "jdbc:sqlite:file:" + name + "?mode=memory&cache=shared";
+        Connection keeper = null;
+        try {
+            // The in-memory database lives as long as this connection stays open
+            keeper = DriverManager.getConnection(url);
+            try (Statement statement = keeper.createStatement()) {
+                String file = sqliteProperties.databaseFile().toAbsolutePath().toString();
+                statement.execute("ATTACH DATABASE '" + file.replace("'", "''") + "' AS disk");
+                keeper.setAutoCommit(false);
+                Map<String, List<String>> columns = new LinkedHashMap<>();
+                for (String table : HOT_TABLES) {
+                    statement.execute(ddl(keeper, "table", table).get(0));
+                    columns.put(table, columnsOf(keeper, table));
+                    String columnList = String.join(", ", columns.get(table));
+                    statement.execute("INSERT INTO main." + table + " (rowid, " + columnList + ") SELECT rowid, "
+                            + columnList + " FROM disk." + table);
+                    for (String index : ddl(keeper, "index", table)) {
+                        statement.execute(index);
+                    }
+                }
+                keeper.commit();
+                keeper.setAutoCommit(true);
+                statement.execute("DETACH DATABASE disk");
+                Generation generation = new Generation(keeper, readPool(name, url), columns, LocalDateTime.now(),
+                        (System.nanoTime() - started) / 1_000_000);
+                Generation previous = current;
+                current = generation;
+                if (previous != null) {
+                    previous.close();
+                    reloads++;
+                }
+                mirroredRows = 0;
+                lastError = null;
+                log.info("Hot catalog loaded in {} ms: {}", generation.loadMillis, countRows(generation.jdbcTemplate));
+            }
+        } catch (SQLException e) {
+            closeQuietly(keeper);
+            lastError = e.getMessage();
+            throw new DataAccessResourceFailureException("Failed to load the hot catalog", e);
+        }
+    }
+
+    /**
+     * CREATE statements of the table, or of its explicit indexes, as stored in the database file.
+     */
+    private static List<String> ddl(Connection keeper, String type, String table) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (PreparedStatement ps = keeper.prepareStatement(
+                "SELECT sql FROM disk.sqlite_master WHERE type = ? AND tbl_name = ? AND sql IS NOT NULL")) {
+            ps.setString(1, type);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    statements.add(rs.getString(1));
+                }
+            }
+        }
+        if (statements.isEmpty() && "table".equals(type)) {
+            throw new SQLException("Table " + table + " does not exist");
+        }
+        return statements;
+    }
+
+    private static List<String> columnsOf(Connection keeper, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = keeper.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA main.table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+
+    private HikariDataSource readPool(String name, String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setDriverClassName(sqliteProperties.getDriverClassName());
+        dataSource.setMaximumPoolSize(hotCatalogProperties.getReadPoolSize());
+        dataSource.setMinimumIdle(1);
+        // Skip shared-cache table locks, so lookups never wait on a copy being applied
+        dataSource.addDataSourceProperty("read_uncommitted", "true");
+        dataSource.setConnectionInitSql("PRAGMA query_only = 1");
+        return dataSource;
+    }
+
+    /**
+     * Attach the change listeners to the writer's connection, on the writer thread, unless they
+     * already are. Returns whether that connection is new, in which case changes may have been
+     * missed. Caller holds {@link #lock}.
+     */
+    private boolean listenToWriter() {
+        return sqliteWriteExecutor.executeWithoutTransaction(() -> sqliteJdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            SQLiteConnection writer = con.unwrap(SQLiteConnection.class);
+            if (writer == listenedConnection) {
+                return false;
+            }
+            writer.addUpdateListener(updateListener);
+            writer.addCommitListener(commitListener);
+            listenedConnection = writer;
+            return true;
+        }));
+    }
+
+    // Called on the writer thread for every row it inserts, updates or deletes
+    private void onUpdate(SQLiteUpdateListener.Type type, String database, String table, long rowId) {
+        if ("main".equals(database) && HOT_TABLES.contains(table)) {
+            uncommitted.computeIfAbsent(table, key -> new HashSet<>()).add(rowId);
+        }
+    }
+
+    // Called on the writer thread while the commit is still in progress, so copying is left to a task
+    private void onWriterCommit() {
+        if (uncommitted.isEmpty()) {
+            return;
+        }
+        synchronized (committed) {
+            uncommitted.forEach((table, rowIds) -> {
+                committed.computeIfAbsent(table, key -> new HashSet<>()).addAll(rowIds);
+                committedVersions.merge(table, 1L, Long::sum);
+            });
+        }
+        uncommitted.clear();
+        if (mirrorScheduled.compareAndSet(false, true)) {
+            submit(this::mirror);
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            mirrorExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Copy the rows changed by committed transactions into the current copy.
+     */
+    private void mirror() {
+        mirrorScheduled.set(false);
+        Map<String, Set<Long>> changes;
+        Map<String, Long> versions;
+        synchronized (committed) {
+            if (committed.isEmpty()) {
+                return;
+            }
+            changes = new HashMap<>(committed);
+            versions = new HashMap<>(committedVersions);
+            committed.clear();
+        }
+        // The commit hook runs before the commit is visible to other connections; a write queued
+        // behind it only runs once it is
+        sqliteWriteExecutor.executeWithoutTransaction(() -> null);
+        synchronized (lock) {
+            Generation generation = current;
+            if (generation != null) {
+                try {
+                    for (Map.Entry<String, Set<Long>> change : changes.entrySet()) {
+                        mirroredRows += copyRows(generation, change.getKey(), new ArrayList<>(change.getValue()));
+                    }
+                } catch (SQLException | DataAccessException e) {
+                    lastError = e.getMessage();
+                    log.warn("Hot catalog fell behind, reloading: {}", e.getMessage());
+                    if (!reloadQuietly()) {
+                        // Lookups on these tables stay on the database until a copy has the changes
+                        return;
+                    }
+                }
+            }
+            // Any copy loaded from here on reads these commits as well
+            copiedVersions.putAll(versions);
+        }
+    }
+
+    /**
+     * Re-read the rows with the given rowids from the database and write them into the copy,
+     * deleting the ones no longer there.
+     *
+     * @return rows copied or deleted
+     */
+    private int copyRows(Generation generation, String table, List<Long> rowIds) throws SQLException {
+        List<String> columns = generation.columns.get(table);
+        String columnList = String.join(", ", columns);
+        String upsert = "INSERT OR REPLACE INTO " + table + " (rowid, " + columnList + ") VALUES (?"
+                + ", ?".repeat(columns.size()) + ")";
+        Connection keeper = generation.keeper;
+        int written = 0;
+        keeper.setAutoCommit(false);
+        try (PreparedStatement upserts = keeper.prepareStatement(upsert);
+             PreparedStatement deletes = keeper.prepareStatement("DELETE FROM " + table + " WHERE rowid = ?")) {
+            for (int from = 0; from < rowIds.size(); from += ROWID_CHUNK) {
+                List<Long> chunk = rowIds.subList(from, Math.min(from + ROWID_CHUNK, rowIds.size()));
+                Set<Long> missing = new HashSet<>(chunk);
+                List<Object[]> rows = sqliteJdbcTemplate.query(
+                        "SELECT rowid, " + columnList + " FROM " + table + " WHERE rowid IN ("
+                                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                        (rs, rowNum) -> {
+                            Object[] values = new Object[columns.size() + 1];
+                            for (int i = 0; i < values.length; i++) {
+                                values[i] = rs.getObject(i + 1);
+                            }
+                            return values;
+                        },
+                        chunk.toArray());
+                for (Object[] row : rows) {
+                    missing.remove(((Number) row[0]).longValue());
+                    for (int i = 0; i < row.length; i++) {
+                        upserts.setObject(i + 1, row[i]);
+                    }
+                    upserts.addBatch();
+                }
+                for (Long rowId : missing) {
+                    deletes.setLong(1, rowId);
+                    deletes.addBatch();
+                }
+                upserts.executeBatch();
+                deletes.executeBatch();
+                written += chunk.size();
+            }
+            keeper.commit();
+        } catch (SQLException | RuntimeException e) {
+            keeper.rollback();
+            throw e;
+        } finally {
+            keeper.setAutoCommit(true);
+        }
+        return written;
+    }
+
+    /**
+     * Reload when the writer got a new connection, nothing is loaded or the copy's row counts no
+     * longer match.
+     */
+    private void verify() {
+        try {
+            synchronized (lock) {
+                // Also retries a load that failed
+                if (listenToWriter() || current == null) {
+                    load();
+                    return;
+                }
+            }
+            if (countsMatch()) {
+                return;
+            }
+            // Rows committed between the two counts are not drift; copy them and count again
+            mirror();
+            if (!countsMatch()) {
+                log.warn("Hot catalog row counts drifted from the database, reloading");
+                reload();
+            }
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.warn("Hot catalog check failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean countsMatch() {
+        Generation generation = current;
+        return generation == null || countRows(sqliteJdbcTemplate).equals(countRows(generation.jdbcTemplate));
+    }
+
+    private static Map<String, Long> countRows(JdbcTemplate jdbcTemplate) {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (String table : HOT_TABLES) {
+            rows.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+        }
+        return rows;
+    }
+
+    private boolean reloadQuietly() {
+        try {
+            load();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Hot catalog reload failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing hot catalog connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One loaded in-memory copy: the connection keeping it alive and the pool reading it.
+     */
+    private static final class Generation {
+        private final Connection keeper;
+        private final HikariDataSource readPool;
+        private final JdbcTemplate jdbcTemplate;
+        private final Map<String, List<String>> columns;
+        private final LocalDateTime loadedAt;
+        private final long loadMillis;
+
+        private Generation(Connection keeper, HikariDataSource readPool, Map<String, List<String>> columns,
+                           LocalDateTime loadedAt, long loadMillis) {
+            this.keeper = keeper;
+            this.readPool = readPool;
+            this.jdbcTemplate = new JdbcTemplate(readPool);
+            this.columns = columns;
+            this.loadedAt = loadedAt;
+            this.loadMillis = loadMillis;
+        }
+
+        private void close() {
+            readPool.close();
+            closeQuietly(keeper);
+        }
+    }
+}
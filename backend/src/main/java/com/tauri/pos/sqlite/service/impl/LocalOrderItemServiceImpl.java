@@ -1,5 +1,7 @@
 package com.tauri.pos.sqlite.service.impl;
 
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.shared.enums.SyncStatus;
 import com.tauri.pos.sqlite.mapper.LocalOrderItemMapper;
 import com.tauri.pos.sqlite.model.LocalOrderItem;
 import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemDao;
@@ -7,21 +9,72 @@ import com.tauri.pos.sqlite.persistance.eo.LocalOrderItemEntity;
 import com.tauri.pos.sqlite.service.LocalOrderItemService;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class LocalOrderItemServiceImpl implements LocalOrderItemService {
+    // Creates the frontend may still retry; older keys are looked up in the database
+    private static final int RECENT_KEYS = 1024;
+
+    private static final int MAX_KEY_LENGTH = 64;
+
     private final LocalOrderItemDao localOrderItemDao;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
 
-    public LocalOrderItemServiceImpl(LocalOrderItemDao localOrderItemDao) {
+    // Item returned by the first create with each recent order and idempotency key, least recently used first
+    private final Map<CreateKey, LocalOrderItem> recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CreateKey, LocalOrderItem> eldest) {
+            return size() > RECENT_KEYS;
+        }
+    };
+
+    public LocalOrderItemServiceImpl(LocalOrderItemDao localOrderItemDao, SqliteWriteExecutor sqliteWriteExecutor) {
         this.localOrderItemDao = localOrderItemDao;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
     }
 
     @Override
     public LocalOrderItem createLocalOrderItem(LocalOrderItem localOrderItem) {
-        return LocalOrderItemMapper.INSTANCE.localOrderItemEntityToLocalOrderItem(
-                localOrderItemDao.save(LocalOrderItemMapper.INSTANCE.localOrderItemToLocalOrderItemEntity(localOrderItem))
-        );
+        String idempotencyKey = normalizeKey(localOrderItem.getIdempotencyKey());
+        CreateKey key = idempotencyKey != null ? new CreateKey(localOrderItem.getOrderId(), idempotencyKey) : null;
+        if (key != null) {
+            LocalOrderItem first;
+            synchronized (recentKeys) {
+                first = recentKeys.get(key);
+            }
+            if (first != null) {
+                return replay(first, localOrderItem);
+            }
+        }
+        // Looked up and inserted in one write, so a concurrent create with the same key either
+        // finds this one's row or is found by it, even inside the same group commit.
+        // Mapped inside the write so a retry after a failed group commit starts from a fresh entity
+        LocalOrderItem created = sqliteWriteExecutor.execute(() -> {
+            if (key != null) {
+                Optional<LocalOrderItemEntity> first = localOrderItemDao.findByOrderIdAndIdempotencyKey(key.orderId(), key.idempotencyKey());
+                if (first.isPresent()) {
+                    return LocalOrderItemMapper.INSTANCE.localOrderItemEntityToLocalOrderItem(first.get());
+                }
+            }
+            LocalOrderItemEntity entity = LocalOrderItemMapper.INSTANCE.localOrderItemToLocalOrderItemEntity(localOrderItem);
+            entity.setId(null);
+            entity.setIdempotencyKey(idempotencyKey);
+            queueUpload(entity);
+            return LocalOrderItemMapper.INSTANCE.localOrderItemEntityToLocalOrderItem(localOrderItemDao.save(entity));
+        });
+        if (key == null) {
+            return created;
+        }
+        synchronized (recentKeys) {
+            recentKeys.put(key, created);
+        }
+        return replay(created, localOrderItem);
     }
 
     @Override
@@ -40,20 +93,76 @@ public class LocalOrderItemServiceImpl implements LocalOrderItemService {
 
     @Override
     public LocalOrderItem updateLocalOrderItemById(Long Id,LocalOrderItem localOrderItem) {
-        return localOrderItemDao.findById(Id)
+        return sqliteWriteExecutor.execute(() -> localOrderItemDao.findById(Id)
                 .map(entity -> {
                     LocalOrderItemEntity updatedEntity = LocalOrderItemMapper.INSTANCE.localOrderItemToLocalOrderItemEntity(localOrderItem);
                     updatedEntity.setId(Id);
+                    updatedEntity.setIdempotencyKey(entity.getIdempotencyKey());
+                    // Keep the MySQL id so the re-upload updates the row it wrote before
+                    updatedEntity.setRemoteId(entity.getRemoteId());
+                    updatedEntity.setLastSync(entity.getLastSync());
+                    updatedEntity.setCreatedAt(entity.getCreatedAt());
+                    updatedEntity.setUpdatedAt(LocalDateTime.now());
+                    queueUpload(updatedEntity);
+                    forgetCreated(Id);
                     return LocalOrderItemMapper.INSTANCE.localOrderItemEntityToLocalOrderItem(localOrderItemDao.save(updatedEntity));
                 })
-                .orElse(null);    }
+                .orElse(null));
+    }
 
     @Override
     public void deleteLocalOrderItemById(Long Id) {
-        localOrderItemDao.findById(Id)
+        sqliteWriteExecutor.run(() -> localOrderItemDao.findById(Id)
                 .map(entity -> {
                     localOrderItemDao.deleteById(Id);
+                    forgetCreated(Id);
                     return true;
-                });
+                }));
+    }
+
+    /**
+     * Queue a new or changed item for upload to MySQL with a fresh retry budget.
+     */
+    private void queueUpload(LocalOrderItemEntity entity) {
+        entity.setSyncStatus(SyncStatus.PENDING);
+        entity.setSyncAttempts(0);
+        entity.setNextAttemptAt(null);
+        entity.setSyncError(null);
+        if (entity.getCreatedAt() == null) {
+            entity.setCreatedAt(LocalDateTime.now());
+        }
+        if (entity.getUpdatedAt() == null) {
+            entity.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private static String normalizeKey(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key is longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    private void forgetCreated(Long id) {
+        synchronized (recentKeys) {
+            recentKeys.values().removeIf(item -> id.equals(item.getId()));
+        }
+    }
+
+    /**
+     * Answer a create with the item first created with its key, unless the key was reused for another item of the order.
+     */
+    private static LocalOrderItem replay(LocalOrderItem first, LocalOrderItem retry) {
+        if (!Objects.equals(first.getProductId(), retry.getProductId())) {
+            throw new IllegalStateException("Idempotency key " + first.getIdempotencyKey()
+                    + " was already used for another item of order " + first.getOrderId());
+        }
+        return first;
+    }
+
+    private record CreateKey(Long orderId, String idempotencyKey) {
     }
 }
@@ -0,0 +1,209 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.sqlite.model.SchemaMigration;
+import com.tauri.pos.sqlite.persistance.dao.SchemaVersionDao;
+import com.tauri.pos.sqlite.service.SchemaMigrationService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Forward-only schema migrations for the terminal database.
+ * <p>
+ * Scripts live in {@code db/sqlite} on the classpath as {@code V<version>__<description>.sql}.
+ * Pending ones are applied in version order at startup, before the web server takes requests,
+ * each in a single write transaction together with its schema_version row, so a failing script
+ * leaves the database at the previous version. Applied scripts must never be edited: their
+ * checksum is compared on every start. Statements are separated by {@code ;} and lines starting
+ * with {@code --} are comments, so trigger bodies are not supported.
+ * <p>
+ * A database created before migrations existed already has some of the baseline's tables, and
+ * {@code CREATE TABLE IF NOT EXISTS} leaves those as they are. Before the baseline is applied,
+ * the columns it added to such tables are added with {@code ALTER TABLE}.
+ */
+@Service
+public class SchemaMigrationServiceImpl implements SchemaMigrationService {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrationServiceImpl.class);
+
+    private static final String SCRIPT_LOCATION = "classpath:db/sqlite/V*__*.sql";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final int BASELINE_VERSION = 1;
+
+    // Columns the baseline has that tables created by earlier versions lack, as in V1__baseline.sql
+    private static final Map<String, List<String>> LEGACY_COLUMNS = Map.of(
+            "local_product", List.of("row_hash INTEGER"),
+            "local_product_barcode", List.of("row_hash INTEGER"),
+            "local_product_description", List.of("row_hash INTEGER"),
+            "local_order_items", List.of(
+                    "idempotency_key VARCHAR(64)",
+                    "sync_attempts INTEGER NOT NULL DEFAULT 0",
+                    "next_attempt_at TIMESTAMP",
+                    "sync_error VARCHAR(500)"));
+
+    private final SchemaVersionDao schemaVersionDao;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+
+    public SchemaMigrationServiceImpl(SchemaVersionDao schemaVersionDao, SqliteWriteExecutor sqliteWriteExecutor) {
+        this.schemaVersionDao = schemaVersionDao;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+    }
+
+    @PostConstruct
+    public void migrateOnStartup() {
+        List<SchemaMigration> applied = migrate();
+        log.info("Terminal database at schema version {}, {} migration(s) applied", getCurrentVersion(), applied.size());
+    }
+
+    @Override
+    public synchronized List<SchemaMigration> migrate() {
+        List<Script> scripts = loadScripts();
+        if (!schemaVersionDao.tableExists()) {
+            sqliteWriteExecutor.run(schemaVersionDao::createTableIfMissing);
+        }
+        Map<Integer, SchemaMigration> applied = schemaVersionDao.findAll().stream()
+                .collect(Collectors.toMap(SchemaMigration::getVersion, Function.identity()));
+        int current = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        List<SchemaMigration> migrated = new ArrayList<>();
+        for (Script script : scripts) {
+            SchemaMigration done = applied.get(script.version());
+            if (done != null) {
+                if (done.getChecksum() != script.checksum()) {
+                    throw new IllegalStateException("Migration " + script.fileName() + " was changed after it was applied");
+                }
+                continue;
+            }
+            if (script.version() < current) {
+                throw new IllegalStateException("Migration " + script.fileName()
+                        + " is older than the applied schema version " + current + "; add a new version instead");
+            }
+            migrated.add(apply(script));
+            current = script.version();
+        }
+        int latest = scripts.isEmpty() ? 0 : scripts.get(scripts.size() - 1).version();
+        if (current > latest) {
+            log.warn("Terminal database is at schema version {}, newer than the {} this build knows", current, latest);
+        }
+        return migrated;
+    }
+
+    private SchemaMigration apply(Script script) {
+        log.info("Applying migration {}", script.fileName());
+        return sqliteWriteExecutor.execute(() -> {
+            long started = System.nanoTime();
+            if (script.version() == BASELINE_VERSION) {
+                addLegacyColumns();
+            }
+            script.statements().forEach(schemaVersionDao::execute);
+            SchemaMigration migration = SchemaMigration.builder()
+                    .version(script.version())
+                    .description(script.description())
+                    .checksum(script.checksum())
+                    .appliedAt(LocalDateTime.now())
+                    .executionMillis((System.nanoTime() - started) / 1_000_000)
+                    .build();
+            schemaVersionDao.insert(migration);
+            return migration;
+        });
+    }
+
+    /**
+     * Add the baseline's columns to tables that predate it; tables that do not exist yet are left to the baseline.
+     */
+    private void addLegacyColumns() {
+        LEGACY_COLUMNS.forEach((table, definitions) -> {
+            List<String> existing = schemaVersionDao.columnsOf(table);
+            if (existing.isEmpty()) {
+                return;
+            }
+            for (String definition : definitions) {
+                String column = definition.substring(0, definition.indexOf(' '));
+                if (!existing.contains(column)) {
+                    log.info("Adding column {}.{} to a database created before migrations", table, column);
+                    schemaVersionDao.addColumn(table, definition);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<SchemaMigration> getAppliedMigrations() {
+        return schemaVersionDao.tableExists() ? schemaVersionDao.findAll() : List.of();
+    }
+
+    @Override
+    public int getCurrentVersion() {
+        return getAppliedMigrations().stream().mapToInt(SchemaMigration::getVersion).max().orElse(0);
+    }
+
+    private static List<Script> loadScripts() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SCRIPT_LOCATION);
+            List<Script> scripts = new ArrayList<>();
+            for (Resource resource : resources) {
+                Matcher name = SCRIPT_NAME.matcher(resource.getFilename());
+                if (!name.matches()) {
+                    throw new IllegalStateException("Migration " + resource.getFilename() + " is not named V<version>__<description>.sql");
+                }
+                String sql;
+                try (InputStream in = resource.getInputStream()) {
+                    // Line endings are normalized so a Windows checkout has the same checksum
+                    sql = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+                }
+                scripts.add(new Script(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                        resource.getFilename(), checksum(sql), statements(sql)));
+            }
+            scripts.sort(Comparator.comparingInt(Script::version));
+            for (int i = 1; i < scripts.size(); i++) {
+                if (scripts.get(i).version() == scripts.get(i - 1).version()) {
+                    throw new IllegalStateException("Migrations " + scripts.get(i - 1).fileName() + " and "
+                            + scripts.get(i).fileName() + " share a version");
+                }
+            }
+            return scripts;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read SQLite migrations", e);
+        }
+    }
+
+    private static List<String> statements(String sql) {
+        String withoutComments = sql.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private record Script(int version, String description, String fileName, long checksum, List<String> statements) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.tauri.pos.sqlite.service.impl;
 
+import com.tauri.pos.config.SqliteWriteExecutor;
 import com.tauri.pos.sqlite.mapper.UserMapper;
 import com.tauri.pos.sqlite.model.User;
 import com.tauri.pos.sqlite.persistance.dao.UserDao;
@@ -13,28 +14,34 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
     private final UserDao userDao;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
     private final BCryptPasswordEncoder passwordEncoder;
 
-    public UserServiceImpl(UserDao userDao) {
+    public UserServiceImpl(UserDao userDao, SqliteWriteExecutor sqliteWriteExecutor) {
         this.userDao = userDao;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
         this.passwordEncoder = new BCryptPasswordEncoder();
     }
 
     @Override
     public User createUser(User user) {
-        // Check if username already exists
-        UserEntity existingUser = userDao.findByUsername(user.getUsername());
-        if (existingUser != null) {
-            throw new RuntimeException("Username already exists: " + user.getUsername());
-        }
-        
-        // Hash the password before saving
-        UserEntity userEntity = UserMapper.INSTANCE.userToUserEntity(user);
-        userEntity.setHashedPassword(passwordEncoder.encode(user.getHashedPassword()));
-        
-        return UserMapper.INSTANCE.userEntityToUser(
-                userDao.save(userEntity)
-        );
+        // Hash the password before queueing the write, so the writer never waits on bcrypt
+        String hashedPassword = passwordEncoder.encode(user.getHashedPassword());
+
+        return sqliteWriteExecutor.execute(() -> {
+            // Check if username already exists
+            UserEntity existingUser = userDao.findByUsername(user.getUsername());
+            if (existingUser != null) {
+                throw new RuntimeException("Username already exists: " + user.getUsername());
+            }
+
+            UserEntity userEntity = UserMapper.INSTANCE.userToUserEntity(user);
+            userEntity.setHashedPassword(hashedPassword);
+
+            return UserMapper.INSTANCE.userEntityToUser(
+                    userDao.save(userEntity)
+            );
+        });
     }
 
     @Override
@@ -75,7 +82,12 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User updateUserById(Integer userid, User user) {
-        return userDao.findById(userid)
+        // Only update password if provided
+        String hashedPassword = user.getHashedPassword() != null && !user.getHashedPassword().trim().isEmpty()
+                ? passwordEncoder.encode(user.getHashedPassword())
+                : null;
+
+        return sqliteWriteExecutor.execute(() -> userDao.findById(userid)
                 .map(entity -> {
                     // Check if username already exists (excluding current user)
                     if (!entity.getUsername().equals(user.getUsername())) {
@@ -97,19 +109,18 @@ public class UserServiceImpl implements UserService {
                     entity.setUsername(user.getUsername());
                     entity.setPermission(user.getPermission());
                     
-                    // Only update password if provided
-                    if (user.getHashedPassword() != null && !user.getHashedPassword().trim().isEmpty()) {
-                        entity.setHashedPassword(passwordEncoder.encode(user.getHashedPassword()));
+                    if (hashedPassword != null) {
+                        entity.setHashedPassword(hashedPassword);
                     }
                     
                     return UserMapper.INSTANCE.userEntityToUser(userDao.save(entity));
                 })
-                .orElse(null);
+                .orElse(null));
     }
 
     @Override
     public void deleteUserById(Integer userid) {
-        userDao.findById(userid)
+        sqliteWriteExecutor.run(() -> userDao.findById(userid)
                 .map(entity -> {
                     // Check if trying to delete an admin user
                     if ("admin".equals(entity.getPermission())) {
@@ -121,7 +132,7 @@ public class UserServiceImpl implements UserService {
                     
                     userDao.deleteById(userid);
                     return true;
-                });
+                }));
     }
     
     @Override
@@ -0,0 +1,225 @@
+package com.tauri.pos.sync.config;
+
+import com.tauri.pos.sync.model.CatalogScope;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sync")
+public class SyncProperties {
+
+    /**
+     * Base URL of the central POS backend.
+     */
+    private Remote remote = new Remote();
+
+    /**
+     * Identifies this terminal's uploads in MySQL; the host name when blank.
+     */
+    private String terminalId;
+
+    /**
+     * How often the background sync pulls catalog changes while MySQL is reachable.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Rows per SQLite transaction for background pulls over the slowest link; faster links
+     * get batches up to {@code write-batch-size}.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Failed background syncs retried at {@code retry-delay} doubling before the terminal is
+     * treated as offline and probed at a backed-off interval instead.
+     */
+    private int retryAttempts = 3;
+
+    private Duration retryDelay = Duration.ofSeconds(10);
+
+    /**
+     * Upper bound for the backed-off background sync interval while MySQL is unreachable.
+     */
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    private boolean backgroundEnabled = true;
+
+    private Duration backgroundInitialDelay = Duration.ofSeconds(30);
+
+    /**
+     * MySQL round trips at or below this get full-size batches.
+     */
+    private Duration fastLatency = Duration.ofMillis(50);
+
+    /**
+     * MySQL round trips at or above this get {@code batch-size} batches and a doubled interval.
+     */
+    private Duration slowLatency = Duration.ofSeconds(1);
+
+    private Duration probeTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Rows written to SQLite per transaction when pulling the catalog.
+     */
+    private int writeBatchSize = 1000;
+
+    /**
+     * How far before the stored watermark a delta pull starts reading, to catch rows
+     * committed late with an older updated_at.
+     */
+    private Duration deltaOverlap = Duration.ofMinutes(5);
+
+    /**
+     * Number of sub-ranges a mismatching product_id range is split into during reconciliation.
+     */
+    private int reconcileFanout = 16;
+
+    /**
+     * Ranges holding at most this many rows are compared row by row instead of split further.
+     */
+    private int reconcileLeafRows = 256;
+
+    /**
+     * Threads streaming catalog tables from MySQL during a pull; one per table reads them all at once.
+     */
+    private int pipelineReaders = 3;
+
+    /**
+     * Threads mapping fetched MySQL rows to local entities during a pull.
+     */
+    private int pipelineMappers = 3;
+
+    /**
+     * Batches buffered between pipeline stages per table before the faster stage waits.
+     */
+    private int pipelineQueueDepth = 4;
+
+    /**
+     * Brands, statuses, sites and languages this terminal keeps; empty keeps everything.
+     */
+    private CatalogScope scope = new CatalogScope();
+
+    private Hub hub = new Hub();
+
+    private ChangeFeed changeFeed = new ChangeFeed();
+
+    private Stock stock = new Stock();
+
+    private Upload upload = new Upload();
+
+    private Outbox outbox = new Outbox();
+
+    @Data
+    public static class Remote {
+        private String url;
+    }
+
+    @Data
+    public static class Hub {
+        /**
+         * Serve catalog changes and accept uploads for terminals over HTTP. Needs MySQL.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Sync this terminal through the hub at {@code sync.remote.url} instead of MySQL.
+         */
+        private boolean clientEnabled = false;
+
+        /**
+         * Requests are rounded down to this granularity so terminals with nearby watermarks share one read.
+         */
+        private Duration sinceGranularity = Duration.ofMinutes(1);
+
+        /**
+         * How long an encoded change set is served to other terminals before it is read again.
+         */
+        private Duration cacheTtl = Duration.ofSeconds(30);
+
+        /**
+         * Change sets larger than this are streamed to their waiting requests but not cached.
+         */
+        private int maxCachedBytes = 16 * 1024 * 1024;
+    }
+
+    @Data
+    public static class ChangeFeed {
+        /**
+         * Tail MySQL's catalog_change_log and apply changed products within seconds. Needs MySQL.
+         */
+        private boolean enabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * Change-log entries read per poll; a full batch is followed by another read right away.
+         */
+        private int batchSize = 500;
+
+        /**
+         * A gap in the sequence younger than this may still be filled by a transaction that has
+         * not committed, so the feed waits at the gap; older gaps are rolled back inserts.
+         */
+        private Duration gapSettle = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Stock {
+        /**
+         * Keep local_stock current from new MySQL adjustment_detail rows. Needs MySQL.
+         */
+        private boolean enabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(30);
+
+        /**
+         * Adjustment rows read per poll; a full batch is followed by another read right away.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Same as {@code change-feed.gap-settle}, for gaps in adjustment_detail_id.
+         */
+        private Duration gapSettle = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Upload {
+        /**
+         * Upload PENDING and retryable FAILED local order items to MySQL in the background. Needs MySQL.
+         */
+        private boolean enabled = true;
+
+        private Duration interval = Duration.ofSeconds(10);
+
+        /**
+         * Rows claimed and sent per multi-row insert; a full batch is followed by another right away.
+         * MySQL allows at most 7281 rows per statement at 9 placeholders each.
+         */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Outbox {
+        /**
+         * Queue product, barcode, description and adjustment writes in SQLite and apply them to
+         * MySQL in the background instead of waiting on MySQL. Needs MySQL.
+         * <p>
+         * This changes what the MySQL write endpoints answer: a write is accepted once queued, so a
+         * create returns the request without its generated id, and an update or delete of a missing
+         * row succeeds and is only parked as CONFLICT when applied. Off unless callers expect that.
+         */
+        private boolean enabled = false;
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Queued writes applied per MySQL transaction.
+         */
+        private int batchSize = 100;
+    }
+}
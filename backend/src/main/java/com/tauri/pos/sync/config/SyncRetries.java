@@ -0,0 +1,35 @@
+package com.tauri.pos.sync.config;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+
+/**
+ * Retry rules shared by the queues that push local writes to MySQL: the MySQL outbox and the
+ * order item upload.
+ */
+public final class SyncRetries {
+
+    private SyncRetries() {
+    }
+
+    /**
+     * {@code retry-delay} doubled for every attempt after the first, capped at {@code max-backoff}.
+     */
+    public static Duration backoff(SyncProperties syncProperties, int attempts) {
+        Duration delay = syncProperties.getRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(syncProperties.getMaxBackoff()) > 0 ? syncProperties.getMaxBackoff() : delay;
+    }
+
+    /**
+     * Whether the failure says MySQL could not be reached, rather than that it rejected the write.
+     * Such failures count no attempt against the rows being sent.
+     */
+    public static boolean isUnreachable(RuntimeException e) {
+        return e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tauri.pos.sync.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's task scheduler, which the periodic sync, upload and maintenance tasks share.
+ * Its pool is sized by {@code spring.task.scheduling.pool.size}; tasks that can run for minutes
+ * (background catalog pulls, backups, hot catalog copies) only use it as a trigger and run on
+ * threads of their own.
+ */
+@Configuration
+@EnableScheduling
+public class SyncSchedulingConfig {
+}
@@ -0,0 +1,284 @@
+package com.tauri.pos.sync.controller;
+
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import com.tauri.pos.sync.model.BackgroundSyncState;
+import com.tauri.pos.sync.model.CatalogSyncStatus;
+import com.tauri.pos.sync.model.ChangeFeedState;
+import com.tauri.pos.sync.model.SyncProgressEvent;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.BackgroundSyncService;
+import com.tauri.pos.sync.service.CatalogChangeFeedService;
+import com.tauri.pos.sync.service.CatalogSyncService;
+import com.tauri.pos.sync.service.OrderUploadService;
+import com.tauri.pos.sync.service.StockSyncService;
+import com.tauri.pos.sync.service.SyncProgressService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class CatalogSyncController {
+    private final CatalogSyncService catalogSyncService;
+    private final BackgroundSyncService backgroundSyncService;
+    private final SyncProgressService syncProgressService;
+    private final CatalogChangeFeedService catalogChangeFeedService;
+    private final StockSyncService stockSyncService;
+    private final OrderUploadService orderUploadService;
+
+    public CatalogSyncController(CatalogSyncService catalogSyncService,
+                                 BackgroundSyncService backgroundSyncService,
+                                 SyncProgressService syncProgressService,
+                                 CatalogChangeFeedService catalogChangeFeedService,
+                                 StockSyncService stockSyncService,
+                                 OrderUploadService orderUploadService) {
+        this.catalogSyncService = catalogSyncService;
+        this.backgroundSyncService = backgroundSyncService;
+        this.syncProgressService = syncProgressService;
+        this.catalogChangeFeedService = catalogChangeFeedService;
+        this.stockSyncService = stockSyncService;
+        this.orderUploadService = orderUploadService;
+    }
+
+    /**
+     * Pull products, barcodes and descriptions from MySQL into SQLite
+     */
+    @PostMapping("/catalog")
+    public ResponseEntity<SyncResult> pullCatalog() {
+        try {
+            return ResponseEntity.ok(catalogSyncService.pullCatalog());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Reload the whole catalog into staging tables and swap them in atomically
+     */
+    @PostMapping("/catalog/resync")
+    public ResponseEntity<SyncResult> resyncCatalog() {
+        try {
+            return ResponseEntity.ok(catalogSyncService.resyncCatalog());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Pull only the rows changed since the last sync, optionally removing rows deleted in MySQL
+     */
+    @PostMapping("/catalog/changes")
+    public ResponseEntity<SyncResult> pullCatalogChanges(
+            @RequestParam(defaultValue = "false") boolean propagateDeletes) {
+        try {
+            return ResponseEntity.ok(catalogSyncService.pullCatalogChanges(propagateDeletes));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Compare range hashes with MySQL and repair only the rows that differ
+     */
+    @PostMapping("/catalog/reconcile")
+    public ResponseEntity<SyncResult> reconcileCatalog() {
+        try {
+            return ResponseEntity.ok(catalogSyncService.reconcileCatalog());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Download the catalog as a gzip-compressed binary snapshot for bootstrapping a new terminal
+     */
+    @GetMapping("/catalog/snapshot")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        String fileName = "catalog-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".pcat.gz";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(catalogSyncService::exportSnapshot);
+    }
+
+    /**
+     * Replace the local catalog with an uploaded snapshot, swapped in atomically once fully loaded
+     */
+    @PostMapping(value = "/catalog/snapshot", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<SyncResult> importSnapshot(InputStream snapshot) {
+        try {
+            return ResponseEntity.ok(catalogSyncService.importSnapshot(snapshot));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get the per-table high-water marks used by delta syncs
+     */
+    @GetMapping("/watermarks")
+    public ResponseEntity<List<SyncWatermarkEntity>> getWatermarks() {
+        try {
+            return ResponseEntity.ok(catalogSyncService.getWatermarks());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get whether a sync is running, the watermarks, and how far any unfinished sync got
+     */
+    @GetMapping("/status")
+    public ResponseEntity<CatalogSyncStatus> getStatus() {
+        try {
+            return ResponseEntity.ok(catalogSyncService.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get the background sync's connectivity, chosen batch size, backoff and last result
+     */
+    @GetMapping("/background")
+    public ResponseEntity<BackgroundSyncState> getBackgroundState() {
+        try {
+            return ResponseEntity.ok(backgroundSyncService.getState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get the change feed's cursor, any sequence gap it is waiting at, and its last result
+     */
+    @GetMapping("/catalog/change-feed")
+    public ResponseEntity<ChangeFeedState> getChangeFeedState() {
+        try {
+            return ResponseEntity.ok(catalogChangeFeedService.getState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Apply pending change-log entries now instead of waiting for the next poll
+     */
+    @PostMapping("/catalog/change-feed")
+    public ResponseEntity<ChangeFeedState> pollChangeFeed() {
+        try {
+            return ResponseEntity.ok(catalogChangeFeedService.poll());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Apply new MySQL adjustment_detail rows to the local stock cache
+     */
+    @PostMapping("/stock")
+    public ResponseEntity<SyncResult> pullStock() {
+        try {
+            return ResponseEntity.ok(stockSyncService.pullStock());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Rebuild the local stock cache from the latest adjustment of every position
+     */
+    @PostMapping("/stock/resync")
+    public ResponseEntity<SyncResult> resyncStock() {
+        try {
+            return ResponseEntity.ok(stockSyncService.resyncStock());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Upload pending and retryable failed local order items to MySQL
+     */
+    @PostMapping("/order-items")
+    public ResponseEntity<SyncResult> uploadOrderItems() {
+        try {
+            return ResponseEntity.ok(orderUploadService.uploadOrderItems());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Queue every failed local order item for upload again, including those out of retries
+     */
+    @PostMapping("/order-items/retry")
+    public ResponseEntity<Integer> retryFailedOrderItems() {
+        try {
+            return ResponseEntity.ok(orderUploadService.retryFailedOrderItems());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Count local order items by sync status
+     */
+    @GetMapping("/order-items")
+    public ResponseEntity<Map<SyncStatus, Long>> getOrderItemQueue() {
+        try {
+            return ResponseEntity.ok(orderUploadService.getQueueState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Stream per-table sync progress as Server-Sent Events, with a keep-alive comment every 15 seconds
+     */
+    @GetMapping(value = "/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SyncProgressEvent>> streamProgress() {
+        Flux<ServerSentEvent<SyncProgressEvent>> events = syncProgressService.stream()
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getPhase().name().toLowerCase())
+                        .build());
+        Flux<ServerSentEvent<SyncProgressEvent>> keepAlive = Flux.interval(Duration.ofSeconds(15))
+                .map(tick -> ServerSentEvent.<SyncProgressEvent>builder().comment("keep-alive").build());
+        return Flux.merge(events, keepAlive);
+    }
+
+    /**
+     * Health check endpoint
+     */
+    @GetMapping("/health")
+    public ResponseEntity<String> health() {
+        return ResponseEntity.ok("Sync Controller is running!");
+    }
+}
@@ -0,0 +1,49 @@
+package com.tauri.pos.sync.controller;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.HubClientService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sync/hub-client")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "sync.hub.client-enabled", havingValue = "true", matchIfMissing = false)
+public class HubClientController {
+    private final HubClientService hubClientService;
+
+    public HubClientController(HubClientService hubClientService) {
+        this.hubClientService = hubClientService;
+    }
+
+    /**
+     * Pull catalog changes from the hub at sync.remote.url
+     */
+    @PostMapping("/catalog/changes")
+    public ResponseEntity<SyncResult> pullCatalogChanges() {
+        try {
+            return ResponseEntity.ok(hubClientService.pullCatalogChanges());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Forward a batch of adjustment details to MySQL through the hub
+     */
+    @PostMapping("/adjustment-details")
+    public ResponseEntity<Integer> uploadAdjustmentDetails(@RequestBody List<AdjustmentDetail> adjustmentDetails) {
+        try {
+            return ResponseEntity.ok(hubClientService.uploadAdjustmentDetails(adjustmentDetails));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+}
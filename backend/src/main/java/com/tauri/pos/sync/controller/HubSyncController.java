@@ -0,0 +1,53 @@
+package com.tauri.pos.sync.controller;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.sync.service.HubSyncService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sync/hub")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.hub.enabled"}, havingValue = "true", matchIfMissing = false)
+public class HubSyncController {
+    private final HubSyncService hubSyncService;
+
+    public HubSyncController(HubSyncService hubSyncService) {
+        this.hubSyncService = hubSyncService;
+    }
+
+    /**
+     * Get the catalog rows changed since a terminal's watermark, or the whole catalog without one,
+     * as a gzip-compressed catalog snapshot
+     */
+    @GetMapping("/catalog/changes")
+    public ResponseEntity<byte[]> getCatalogChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(hubSyncService.getCatalogChanges(since));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Write a terminal's batch of adjustment details to MySQL in one transaction
+     */
+    @PostMapping("/adjustment-details")
+    public ResponseEntity<Integer> uploadAdjustmentDetails(@RequestBody List<AdjustmentDetail> adjustmentDetails) {
+        try {
+            return ResponseEntity.ok(hubSyncService.uploadAdjustmentDetails(adjustmentDetails));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tauri.pos.sync.controller;
+
+import com.tauri.pos.sync.model.OutboxState;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync/outbox")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class OutboxController {
+    private final MysqlOutboxService mysqlOutboxService;
+
+    public OutboxController(MysqlOutboxService mysqlOutboxService) {
+        this.mysqlOutboxService = mysqlOutboxService;
+    }
+
+    /**
+     * Count queued, retrying and parked MySQL writes
+     */
+    @GetMapping
+    public ResponseEntity<OutboxState> getState() {
+        try {
+            return ResponseEntity.ok(mysqlOutboxService.getState());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Apply queued writes to MySQL now instead of at the next poll
+     */
+    @PostMapping
+    public ResponseEntity<SyncResult> drain() {
+        try {
+            return ResponseEntity.ok(mysqlOutboxService.drain());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Queue every parked write again, in its original order
+     */
+    @PostMapping("/retry")
+    public ResponseEntity<Integer> retryConflicts() {
+        try {
+            return ResponseEntity.ok(mysqlOutboxService.retryConflicts());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 64-bit content hashes of local catalog rows.
+ * <p>
+ * These mirror the {@code ROW_HASH} expressions of the MySQL catalog DAOs: the first
+ * 8 bytes of the MD5 of the columns joined with U+001F, with U+0000 for NULL, so a
+ * row hashed here and the same row hashed by MySQL produce the same value.
+ * <p>
+ * The audit timestamps are hashed too, so a row whose only change is its updated_at is
+ * still written. MySQL keeps them in UTC (the connection sets {@code serverTimezone=UTC})
+ * and the driver hands them over in the JVM's zone, so they are converted back to UTC and
+ * hashed to the second as {@code yyyyMMddHHmmss}, matching {@code DATE_FORMAT} on the MySQL side.
+ */
+public final class CatalogRowHashes {
+    private static final char SEPARATOR = '\u001f';
+    private static final String NULL_MARK = "\u0000";
+    private static final DateTimeFormatter AUDIT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private CatalogRowHashes() {
+    }
+
+    public static long product(LocalProductEntity product) {
+        return hash(product.getProductId(), product.getStatus(), product.getBrandId(), product.getEbayId(),
+                product.getModelNumber(), product.getSku(), product.getDateAvailable(), product.getDateBackorder(),
+                product.getDatePreorder(), product.getQtyPreorder(), product.getBarcode(),
+                decimal(product.getWeight(), 2), product.getWeightClassId(), product.getCreatedBy(),
+                product.getUpdatedBy(), utc(product.getCreatedAt()), utc(product.getUpdatedAt()));
+    }
+
+    public static long barcode(LocalProductBarcodeEntity barcode) {
+        return hash(barcode.getProductId(), barcode.getBarcode(), barcode.getStatus(), barcode.getCreatedBy(),
+                barcode.getUpdatedBy(), utc(barcode.getCreatedAt()), utc(barcode.getUpdatedAt()));
+    }
+
+    public static long description(LocalProductDescriptionEntity description) {
+        return hash(description.getProductId(), description.getSiteId(), description.getLanguageId(),
+                description.getName(), description.getDescription(), description.getFeature(),
+                description.getSpecification(), description.getInclude(), description.getRequired(),
+                description.getCreatedBy(), description.getUpdatedBy(), utc(description.getCreatedAt()),
+                utc(description.getUpdatedAt()));
+    }
+
+    private static String utc(LocalDateTime value) {
+        return value == null ? null
+                : value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(AUDIT_TIME);
+    }
+
+    // MySQL renders DECIMAL(15,2) with its declared scale, SQLite hands it back as a REAL
+    private static String decimal(BigDecimal value, int scale) {
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static long hash(Object... values) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(SEPARATOR);
+            }
+            row.append(values[i] == null ? NULL_MARK : values[i].toString());
+        }
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(row.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(md5).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
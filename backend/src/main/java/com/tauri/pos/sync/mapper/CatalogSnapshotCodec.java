@@ -0,0 +1,257 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of catalog snapshots.
+ * <p>
+ * A snapshot is a header (magic, format version, creation time, table count) followed by one
+ * section per table: the MySQL table name, its rows each preceded by a row marker, an end
+ * marker, the row count and the table's greatest {@code updated_at}. Nullable columns carry a
+ * presence byte; strings are length-prefixed UTF-8 so long descriptions fit. The whole stream is
+ * gzip-compressed by the caller.
+ * <p>
+ * Row hashes are not stored; rows read back are hashed again with {@link CatalogRowHashes}.
+ */
+public final class CatalogSnapshotCodec {
+    public static final int MAGIC = 0x50434154; // "PCAT"
+    public static final int VERSION = 1;
+
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+
+    private CatalogSnapshotCodec() {
+    }
+
+    public static void writeHeader(DataOutput out, LocalDateTime createdAt, int tableCount) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeDateTime(out, createdAt);
+        out.writeInt(tableCount);
+    }
+
+    /**
+     * Check the magic and version and return the number of table sections that follow.
+     */
+    public static int readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + version);
+        }
+        readDateTime(in);
+        return in.readInt();
+    }
+
+    public static void writeRowMarker(DataOutput out) throws IOException {
+        out.writeByte(ROW);
+    }
+
+    public static void writeSectionEnd(DataOutput out, long rowCount, LocalDateTime maxUpdatedAt) throws IOException {
+        out.writeByte(END);
+        out.writeLong(rowCount);
+        writeDateTime(out, maxUpdatedAt);
+    }
+
+    /**
+     * Whether another row follows in the current section.
+     */
+    public static boolean readRowMarker(DataInput in) throws IOException {
+        byte marker = in.readByte();
+        if (marker != ROW && marker != END) {
+            throw new IOException("Corrupt catalog snapshot: unexpected marker " + marker);
+        }
+        return marker == ROW;
+    }
+
+    public static void writeProduct(DataOutput out, LocalProductEntity product) throws IOException {
+        out.writeLong(product.getProductId());
+        writeInteger(out, product.getStatus());
+        writeInteger(out, product.getBrandId());
+        writeInteger(out, product.getEbayId());
+        writeString(out, product.getModelNumber());
+        writeString(out, product.getSku());
+        writeDate(out, product.getDateAvailable());
+        writeDate(out, product.getDateBackorder());
+        writeDate(out, product.getDatePreorder());
+        writeInteger(out, product.getQtyPreorder());
+        writeString(out, product.getBarcode());
+        writeDecimal(out, product.getWeight());
+        writeInteger(out, product.getWeightClassId());
+        writeDateTime(out, product.getCreatedAt());
+        writeDateTime(out, product.getUpdatedAt());
+        writeInteger(out, product.getCreatedBy());
+        writeInteger(out, product.getUpdatedBy());
+    }
+
+    public static LocalProductEntity readProduct(DataInput in) throws IOException {
+        LocalProductEntity product = new LocalProductEntity();
+        product.setProductId(in.readLong());
+        product.setStatus(readInteger(in));
+        product.setBrandId(readInteger(in));
+        product.setEbayId(readInteger(in));
+        product.setModelNumber(readString(in));
+        product.setSku(readString(in));
+        product.setDateAvailable(readDate(in));
+        product.setDateBackorder(readDate(in));
+        product.setDatePreorder(readDate(in));
+        product.setQtyPreorder(readInteger(in));
+        product.setBarcode(readString(in));
+        product.setWeight(readDecimal(in));
+        product.setWeightClassId(readInteger(in));
+        product.setCreatedAt(readDateTime(in));
+        product.setUpdatedAt(readDateTime(in));
+        product.setCreatedBy(readInteger(in));
+        product.setUpdatedBy(readInteger(in));
+        product.setRowHash(CatalogRowHashes.product(product));
+        return product;
+    }
+
+    public static void writeBarcode(DataOutput out, LocalProductBarcodeEntity barcode) throws IOException {
+        out.writeInt(barcode.getProductId());
+        writeString(out, barcode.getBarcode());
+        writeInteger(out, barcode.getStatus());
+        writeDateTime(out, barcode.getCreatedAt());
+        writeDateTime(out, barcode.getUpdatedAt());
+        writeInteger(out, barcode.getCreatedBy());
+        writeInteger(out, barcode.getUpdatedBy());
+    }
+
+    public static LocalProductBarcodeEntity readBarcode(DataInput in) throws IOException {
+        LocalProductBarcodeEntity barcode = new LocalProductBarcodeEntity();
+        barcode.setProductId(in.readInt());
+        barcode.setBarcode(readString(in));
+        barcode.setStatus(readInteger(in));
+        barcode.setCreatedAt(readDateTime(in));
+        barcode.setUpdatedAt(readDateTime(in));
+        barcode.setCreatedBy(readInteger(in));
+        barcode.setUpdatedBy(readInteger(in));
+        barcode.setRowHash(CatalogRowHashes.barcode(barcode));
+        return barcode;
+    }
+
+    public static void writeDescription(DataOutput out, LocalProductDescriptionEntity description) throws IOException {
+        out.writeInt(description.getProductId());
+        out.writeInt(description.getSiteId());
+        out.writeInt(description.getLanguageId());
+        writeString(out, description.getName());
+        writeString(out, description.getDescription());
+        writeString(out, description.getFeature());
+        writeString(out, description.getSpecification());
+        writeString(out, description.getInclude());
+        writeString(out, description.getRequired());
+        writeDateTime(out, description.getCreatedAt());
+        writeDateTime(out, description.getUpdatedAt());
+        writeInteger(out, description.getCreatedBy());
+        writeInteger(out, description.getUpdatedBy());
+    }
+
+    public static LocalProductDescriptionEntity readDescription(DataInput in) throws IOException {
+        LocalProductDescriptionEntity description = new LocalProductDescriptionEntity();
+        description.setProductId(in.readInt());
+        description.setSiteId(in.readInt());
+        description.setLanguageId(in.readInt());
+        description.setName(readString(in));
+        description.setDescription(readString(in));
+        description.setFeature(readString(in));
+        description.setSpecification(readString(in));
+        description.setInclude(readString(in));
+        description.setRequired(readString(in));
+        description.setCreatedAt(readDateTime(in));
+        description.setUpdatedAt(readDateTime(in));
+        description.setCreatedBy(readInteger(in));
+        description.setUpdatedBy(readInteger(in));
+        description.setRowHash(CatalogRowHashes.description(description));
+        return description;
+    }
+
+    public static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    public static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutput out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            out.writeShort(value.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readShort();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
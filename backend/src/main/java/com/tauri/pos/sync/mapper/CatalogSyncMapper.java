@@ -0,0 +1,42 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.mysql.model.Product;
+import com.tauri.pos.mysql.model.ProductBarcode;
+import com.tauri.pos.mysql.model.ProductDescription;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface CatalogSyncMapper {
+    CatalogSyncMapper INSTANCE = Mappers.getMapper(CatalogSyncMapper.class);
+
+    @Mapping(target = "rowHash", ignore = true)
+    LocalProductEntity productToLocalProductEntity(Product product);
+
+    @Mapping(target = "rowHash", ignore = true)
+    LocalProductBarcodeEntity productBarcodeToLocalProductBarcodeEntity(ProductBarcode productBarcode);
+
+    @Mapping(target = "rowHash", ignore = true)
+    LocalProductDescriptionEntity productDescriptionToLocalProductDescriptionEntity(ProductDescription productDescription);
+
+    @AfterMapping
+    default void setRowHash(@MappingTarget LocalProductEntity product) {
+        product.setRowHash(CatalogRowHashes.product(product));
+    }
+
+    @AfterMapping
+    default void setRowHash(@MappingTarget LocalProductBarcodeEntity barcode) {
+        barcode.setRowHash(CatalogRowHashes.barcode(barcode));
+    }
+
+    @AfterMapping
+    default void setRowHash(@MappingTarget LocalProductDescriptionEntity description) {
+        description.setRowHash(CatalogRowHashes.description(description));
+    }
+}
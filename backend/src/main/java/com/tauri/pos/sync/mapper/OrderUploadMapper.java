@@ -0,0 +1,20 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalOrderItemEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface OrderUploadMapper {
+    OrderUploadMapper INSTANCE = Mappers.getMapper(OrderUploadMapper.class);
+
+    @Mapping(target = "orderItemId", ignore = true)
+    @Mapping(target = "localId", source = "item.id")
+    @Mapping(target = "terminalId", source = "terminalId")
+    @Mapping(target = "uploadedAt", source = "uploadedAt")
+    OrderItemEntity localOrderItemEntityToOrderItemEntity(LocalOrderItemEntity item, String terminalId, LocalDateTime uploadedAt);
+}
@@ -0,0 +1,20 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface StockSyncMapper {
+    StockSyncMapper INSTANCE = Mappers.getMapper(StockSyncMapper.class);
+
+    // Missing warehouse and bin become 0 so they can be part of local_stock's primary key
+    @Mapping(target = "warehouseId", source = "warehouseId", defaultValue = "0L")
+    @Mapping(target = "binId", source = "binId", defaultValue = "0L")
+    @Mapping(target = "qty", source = "afterAdjustmentQty")
+    @Mapping(target = "lastAdjustmentDetailId", source = "adjustmentDetailId")
+    @Mapping(target = "adjustedAt", source = "createdAt")
+    LocalStockEntity adjustmentDetailToLocalStockEntity(AdjustmentDetail adjustmentDetail);
+}
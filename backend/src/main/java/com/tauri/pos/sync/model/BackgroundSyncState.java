@@ -0,0 +1,20 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackgroundSyncState {
+    private boolean enabled;
+    private boolean online; // whether the last probe reached MySQL
+    private Long latencyMillis; // round trip of the last successful probe
+    private int consecutiveFailures;
+    private int batchSize; // rows per SQLite transaction chosen for the last pull
+    private LocalDateTime lastRunAt;
+    private LocalDateTime nextRunAt;
+    private SyncResult lastResult;
+}
@@ -0,0 +1,71 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The slice of the catalog this terminal keeps, bound from {@code sync.scope.*}.
+ * An empty set does not restrict its column.
+ * <p>
+ * Products are scoped by brand and status, barcodes follow their product, and descriptions
+ * follow their product and are further scoped by site and language. The {@code ...Filter}
+ * getters are for the scoped MySQL queries, which cannot bind an empty IN list; they are only
+ * consulted when the matching {@code any...} flag is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogScope {
+    private Set<Integer> siteIds = new LinkedHashSet<>();
+    private Set<Integer> languageIds = new LinkedHashSet<>();
+    private Set<Integer> brandIds = new LinkedHashSet<>();
+    private Set<Integer> statuses = new LinkedHashSet<>();
+
+    public boolean isAnySite() {
+        return siteIds.isEmpty();
+    }
+
+    public boolean isAnyLanguage() {
+        return languageIds.isEmpty();
+    }
+
+    public boolean isAnyBrand() {
+        return brandIds.isEmpty();
+    }
+
+    public boolean isAnyStatus() {
+        return statuses.isEmpty();
+    }
+
+    // Barcodes and descriptions only need checking against product when brand or status is scoped
+    public boolean isAllProducts() {
+        return isAnyBrand() && isAnyStatus();
+    }
+
+    public boolean isUnrestricted() {
+        return isAllProducts() && isAnySite() && isAnyLanguage();
+    }
+
+    public List<Integer> getSiteIdFilter() {
+        return filter(siteIds);
+    }
+
+    public List<Integer> getLanguageIdFilter() {
+        return filter(languageIds);
+    }
+
+    public List<Integer> getBrandIdFilter() {
+        return filter(brandIds);
+    }
+
+    public List<Integer> getStatusFilter() {
+        return filter(statuses);
+    }
+
+    private static List<Integer> filter(Set<Integer> ids) {
+        return ids.isEmpty() ? List.of(0) : List.copyOf(ids);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tauri.pos.sync.model;
+
+import com.tauri.pos.sqlite.persistance.eo.SyncCheckpointEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSyncStatus {
+    private boolean running;
+    private List<SyncWatermarkEntity> watermarks;
+    private List<SyncCheckpointEntity> checkpoints; // tables whose last pull has not finished yet
+}
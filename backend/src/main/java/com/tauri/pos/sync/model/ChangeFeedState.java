@@ -0,0 +1,19 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedState {
+    private boolean enabled;
+    private Long lastSeq; // greatest catalog_change_log sequence applied locally
+    private Long waitingAtSeq; // first entry held back behind a sequence gap that may still fill
+    private long entriesApplied; // since this instance started
+    private LocalDateTime lastPolledAt;
+    private LocalDateTime lastAppliedAt;
+    private SyncResult lastResult;
+}
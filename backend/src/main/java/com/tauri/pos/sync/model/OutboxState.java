@@ -0,0 +1,20 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxState {
+    private boolean enabled;
+    private long pending; // writes waiting for MySQL
+    private long failed; // writes at the head of the queue waiting to be retried
+    private long conflicts; // writes parked after running out of retries or finding their row gone
+    private LocalDateTime oldestQueuedAt; // of the writes still to be applied
+    private long applied; // since this instance started
+    private LocalDateTime lastDrainedAt;
+    private String lastError;
+}
@@ -0,0 +1,7 @@
+package com.tauri.pos.sync.model;
+
+public interface ProductIdRange {
+    Long getMinProductId();
+
+    Long getMaxProductId();
+}
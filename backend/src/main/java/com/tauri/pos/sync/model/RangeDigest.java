@@ -0,0 +1,12 @@
+package com.tauri.pos.sync.model;
+
+/**
+ * Row count and XOR of row hashes for one product_id bucket, computed by MySQL.
+ */
+public interface RangeDigest {
+    Long getBucket(); // (product_id - range start) DIV bucket width
+
+    Long getRowCount();
+
+    Long getDigest();
+}
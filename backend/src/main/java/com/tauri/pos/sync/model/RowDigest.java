@@ -0,0 +1,12 @@
+package com.tauri.pos.sync.model;
+
+/**
+ * Key and content hash of a single MySQL catalog row.
+ */
+public interface RowDigest {
+    Long getProductId();
+
+    String getRowKey(); // primary key columns joined with '|'
+
+    Long getRowHash();
+}
@@ -0,0 +1,25 @@
+package com.tauri.pos.sync.model;
+
+import com.tauri.pos.shared.enums.CatalogSyncMode;
+import com.tauri.pos.shared.enums.SyncProgressPhase;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncProgressEvent {
+    private CatalogSyncMode mode;
+    private String table; // key in SyncResult.details
+    private SyncProgressPhase phase;
+    private long fetched; // rows read from MySQL so far
+    private long written; // rows committed to SQLite so far, unchanged ones included
+    private long errors;
+    private double rowsPerSecond; // rows committed per second since the table started
+    private Double percentComplete; // progress through the table's product_id range, null while unknown
+    private Long etaSeconds;
+    private String message;
+    private LocalDateTime timestamp;
+}
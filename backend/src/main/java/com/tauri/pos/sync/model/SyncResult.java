@@ -0,0 +1,17 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResult {
+    private boolean success;
+    private String message;
+    private Map<String, TableSyncResult> details; // keyed by products / barcodes / descriptions
+    private List<String> errors;
+}
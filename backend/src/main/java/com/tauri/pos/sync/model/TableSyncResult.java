@@ -0,0 +1,17 @@
+package com.tauri.pos.sync.model;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableSyncResult {
+    private long fetched; // rows read from MySQL
+    private long synced; // rows written to SQLite
+    private long skipped; // rows identical to the local copy, left untouched
+    private long errors; // rows that could not be written
+    private long deleted; // local rows removed because they no longer exist in MySQL
+    private long rangesCompared; // product_id ranges whose digests were compared by a reconciliation
+    private Long resumedFromProductId; // checkpoint a resumed pull restarted from, null when it started from scratch
+}
@@ -0,0 +1,7 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.sync.model.BackgroundSyncState;
+
+public interface BackgroundSyncService {
+    BackgroundSyncState getState();
+}
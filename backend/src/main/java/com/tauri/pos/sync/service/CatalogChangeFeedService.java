@@ -0,0 +1,9 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.sync.model.ChangeFeedState;
+
+public interface CatalogChangeFeedService {
+    ChangeFeedState poll();
+
+    ChangeFeedState getState();
+}
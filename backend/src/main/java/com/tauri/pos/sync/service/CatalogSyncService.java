@@ -0,0 +1,37 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import com.tauri.pos.sync.model.CatalogSyncStatus;
+import com.tauri.pos.sync.model.SyncResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface CatalogSyncService {
+    SyncResult pullCatalog();
+
+    SyncResult resyncCatalog();
+
+    SyncResult pullCatalogChanges(boolean propagateDeletes);
+
+    SyncResult pullCatalogChanges(boolean propagateDeletes, int writeBatchSize);
+
+    SyncResult reconcileCatalog();
+
+    SyncResult refreshProducts(Map<String, Set<Long>> productIdsBySourceTable);
+
+    void exportSnapshot(OutputStream output) throws IOException;
+
+    void exportChanges(OutputStream output, LocalDateTime since) throws IOException;
+
+    SyncResult importSnapshot(InputStream input);
+
+    List<SyncWatermarkEntity> getWatermarks();
+
+    CatalogSyncStatus getStatus();
+}
@@ -0,0 +1,12 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.sync.model.SyncResult;
+
+import java.util.List;
+
+public interface HubClientService {
+    SyncResult pullCatalogChanges();
+
+    int uploadAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails);
+}
@@ -0,0 +1,13 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HubSyncService {
+    byte[] getCatalogChanges(LocalDateTime since) throws IOException;
+
+    int uploadAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails);
+}
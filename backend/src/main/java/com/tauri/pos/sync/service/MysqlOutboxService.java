@@ -0,0 +1,15 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.sync.model.OutboxState;
+import com.tauri.pos.sync.model.SyncResult;
+
+public interface MysqlOutboxService {
+    void enqueue(String tableName, OutboxOperation operation, String entityKey, Object payload);
+
+    SyncResult drain();
+
+    int retryConflicts();
+
+    OutboxState getState();
+}
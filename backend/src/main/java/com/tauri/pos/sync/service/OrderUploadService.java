@@ -0,0 +1,14 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sync.model.SyncResult;
+
+import java.util.Map;
+
+public interface OrderUploadService {
+    SyncResult uploadOrderItems();
+
+    int retryFailedOrderItems();
+
+    Map<SyncStatus, Long> getQueueState();
+}
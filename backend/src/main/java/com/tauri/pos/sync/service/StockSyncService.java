@@ -0,0 +1,9 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.sync.model.SyncResult;
+
+public interface StockSyncService {
+    SyncResult pullStock();
+
+    SyncResult resyncStock();
+}
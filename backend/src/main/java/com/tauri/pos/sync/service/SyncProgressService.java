@@ -0,0 +1,10 @@
+package com.tauri.pos.sync.service;
+
+import com.tauri.pos.sync.model.SyncProgressEvent;
+import reactor.core.publisher.Flux;
+
+public interface SyncProgressService {
+    void publish(SyncProgressEvent event);
+
+    Flux<SyncProgressEvent> stream();
+}
@@ -0,0 +1,230 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.model.BackgroundSyncState;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.BackgroundSyncService;
+import com.tauri.pos.sync.service.CatalogSyncService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the local catalog fresh by pulling MySQL changes in the background.
+ * <p>
+ * Each run first probes MySQL. While it answers, changes are pulled every
+ * {@code sync.interval}, stretched when round trips are slow. Failed runs are retried
+ * {@code sync.retry-attempts} times at a doubling {@code sync.retry-delay}, after which the
+ * terminal is treated as offline and probed at a doubling interval capped by
+ * {@code sync.max-backoff}. Delays carry jitter so terminals coming back from the same
+ * outage do not all hit MySQL at once.
+ * <p>
+ * Background pulls commit fewer rows per transaction the slower the link, so each
+ * checkpoint lands sooner and a dropped connection costs less work. Runs are triggered by the
+ * shared task scheduler but execute on a thread of their own, as a pull can take minutes.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class BackgroundSyncServiceImpl implements BackgroundSyncService {
+    private static final Logger log = LoggerFactory.getLogger(BackgroundSyncServiceImpl.class);
+
+    private static final double JITTER = 0.2;
+
+    private final CatalogSyncService catalogSyncService;
+    private final DataSource mysqlDataSource;
+    private final TaskScheduler taskScheduler;
+    private final SyncProperties syncProperties;
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("background-sync-"));
+
+    private volatile boolean online;
+    private volatile Long latencyMillis;
+    private volatile int consecutiveFailures;
+    private volatile int batchSize;
+    private volatile LocalDateTime lastRunAt;
+    private volatile LocalDateTime nextRunAt;
+    private volatile SyncResult lastResult;
+
+    public BackgroundSyncServiceImpl(CatalogSyncService catalogSyncService,
+                                     @Qualifier("mysqlDataSource") DataSource mysqlDataSource,
+                                     TaskScheduler taskScheduler,
+                                     SyncProperties syncProperties) {
+        this.catalogSyncService = catalogSyncService;
+        this.mysqlDataSource = mysqlDataSource;
+        this.taskScheduler = taskScheduler;
+        this.syncProperties = syncProperties;
+        this.batchSize = syncProperties.getWriteBatchSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!syncProperties.isBackgroundEnabled()) {
+            log.info("Background catalog sync is disabled");
+            return;
+        }
+        scheduleNext(syncProperties.getBackgroundInitialDelay());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    @Override
+    public BackgroundSyncState getState() {
+        return BackgroundSyncState.builder()
+                .enabled(syncProperties.isBackgroundEnabled())
+                .online(online)
+                .latencyMillis(latencyMillis)
+                .consecutiveFailures(consecutiveFailures)
+                .batchSize(batchSize)
+                .lastRunAt(lastRunAt)
+                .nextRunAt(nextRunAt)
+                .lastResult(lastResult)
+                .build();
+    }
+
+    private void scheduleNext(Duration delay) {
+        Instant next = Instant.now().plus(delay);
+        nextRunAt = LocalDateTime.ofInstant(next, ZoneId.systemDefault());
+        taskScheduler.schedule(() -> syncExecutor.execute(this::run), next);
+    }
+
+    private void run() {
+        Duration delay;
+        try {
+            delay = syncOnce();
+        } catch (RuntimeException e) {
+            log.error("Background catalog sync failed", e);
+            delay = failed();
+        }
+        scheduleNext(delay);
+    }
+
+    /**
+     * Probe MySQL, pull the changes if it answered, and return the delay until the next run.
+     */
+    private Duration syncOnce() {
+        Long latency = probeLatencyMillis();
+        online = latency != null;
+        if (latency == null) {
+            log.warn("MySQL unreachable, background catalog sync skipped");
+            return failed();
+        }
+        latencyMillis = latency;
+        batchSize = batchSizeFor(latency);
+
+        SyncResult result;
+        try {
+            result = catalogSyncService.pullCatalogChanges(false, batchSize);
+        } catch (IllegalStateException e) {
+            // A foreground sync is running and will leave the catalog just as fresh
+            return withJitter(syncProperties.getInterval());
+        }
+        lastResult = result;
+        lastRunAt = LocalDateTime.now();
+        if (!result.isSuccess()) {
+            return failed();
+        }
+        consecutiveFailures = 0;
+        Duration interval = syncProperties.getInterval();
+        return withJitter(latency >= syncProperties.getSlowLatency().toMillis() ? interval.multipliedBy(2) : interval);
+    }
+
+    /**
+     * Time to open a MySQL connection and check it, or null when MySQL does not answer within
+     * {@code sync.probe-timeout}.
+     * <p>
+     * The probe opens a connection of its own with connect and socket timeouts instead of borrowing
+     * from the pool, whose connection timeout would hold an offline run for far longer.
+     */
+    private Long probeLatencyMillis() {
+        Duration timeout = syncProperties.getProbeTimeout();
+        long start = System.nanoTime();
+        try (Connection connection = openProbeConnection(timeout)) {
+            boolean valid = connection.isValid((int) Math.max(1, timeout.toSeconds()));
+            return valid ? Duration.ofNanos(System.nanoTime() - start).toMillis() : null;
+        } catch (SQLException e) {
+            log.debug("MySQL connectivity probe failed", e);
+            return null;
+        }
+    }
+
+    private Connection openProbeConnection(Duration timeout) throws SQLException {
+        if (!mysqlDataSource.isWrapperFor(HikariDataSource.class)) {
+            return mysqlDataSource.getConnection();
+        }
+        HikariDataSource hikari = mysqlDataSource.unwrap(HikariDataSource.class);
+        Properties properties = new Properties();
+        if (hikari.getUsername() != null) {
+            properties.setProperty("user", hikari.getUsername());
+        }
+        if (hikari.getPassword() != null) {
+            properties.setProperty("password", hikari.getPassword());
+        }
+        properties.setProperty("connectTimeout", String.valueOf(timeout.toMillis()));
+        properties.setProperty("socketTimeout", String.valueOf(timeout.toMillis()));
+        return DriverManager.getConnection(hikari.getJdbcUrl(), properties);
+    }
+
+    /**
+     * Scale batches linearly from {@code write-batch-size} on a fast link down to {@code batch-size} on a slow one.
+     */
+    private int batchSizeFor(long latency) {
+        int largest = syncProperties.getWriteBatchSize();
+        int smallest = Math.min(syncProperties.getBatchSize(), largest);
+        long fast = syncProperties.getFastLatency().toMillis();
+        long slow = syncProperties.getSlowLatency().toMillis();
+        if (latency <= fast) {
+            return largest;
+        }
+        if (latency >= slow) {
+            return smallest;
+        }
+        double slowness = (double) (latency - fast) / (slow - fast);
+        return (int) Math.round(largest - slowness * (largest - smallest));
+    }
+
+    private Duration failed() {
+        int failures = ++consecutiveFailures;
+        int retryAttempts = syncProperties.getRetryAttempts();
+        Duration delay = failures <= retryAttempts
+                ? doubled(syncProperties.getRetryDelay(), failures - 1)
+                : doubled(syncProperties.getInterval(), failures - retryAttempts - 1);
+        if (delay.compareTo(syncProperties.getMaxBackoff()) > 0) {
+            delay = syncProperties.getMaxBackoff();
+        }
+        log.info("Next background catalog sync in {}s after {} consecutive failures", delay.toSeconds(), failures);
+        return withJitter(delay);
+    }
+
+    private static Duration doubled(Duration base, int times) {
+        // Capped so the shift cannot overflow; max-backoff bounds the result anyway
+        return base.multipliedBy(1L << Math.min(times, 20));
+    }
+
+    private static Duration withJitter(Duration delay) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Duration.ofMillis((long) (delay.toMillis() * factor));
+    }
+}
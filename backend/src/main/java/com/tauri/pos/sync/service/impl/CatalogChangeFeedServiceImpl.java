@@ -0,0 +1,190 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.persistance.dao.CatalogChangeLogDao;
+import com.tauri.pos.mysql.persistance.eo.CatalogChangeLogEntity;
+import com.tauri.pos.sqlite.persistance.dao.SyncChangeCursorDao;
+import com.tauri.pos.sqlite.persistance.eo.SyncChangeCursorEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.model.ChangeFeedState;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.CatalogChangeFeedService;
+import com.tauri.pos.sync.service.CatalogSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies catalog changes within seconds by tailing MySQL's {@code catalog_change_log}.
+ * <p>
+ * Every write through the MySQL services appends the changed product to the log in the same
+ * transaction. Each poll reads the entries past this terminal's cursor in {@code sync_change_cursor},
+ * re-reads the products they name through {@link CatalogSyncService#refreshProducts} and then
+ * advances the cursor. Refreshing a product replaces its rows with MySQL's current state, so
+ * duplicate entries and entries applied twice after a crash are harmless.
+ * <p>
+ * Sequences are assigned at insert but become visible at commit, so a gap may be a transaction
+ * still in flight. The feed stops at a gap until the entry after it is older than
+ * {@code sync.change-feed.gap-settle}; by then the gap is taken to be a rolled back insert.
+ * <p>
+ * A terminal without a cursor starts at the end of the log; the catalog pulls cover everything
+ * before it and stay the backstop for writes that bypass the log.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class CatalogChangeFeedServiceImpl implements CatalogChangeFeedService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeedServiceImpl.class);
+
+    private static final String FEED = "catalog";
+
+    private final CatalogChangeLogDao catalogChangeLogDao;
+    private final SyncChangeCursorDao syncChangeCursorDao;
+    private final CatalogSyncService catalogSyncService;
+    private final TaskScheduler taskScheduler;
+    private final SyncProperties syncProperties;
+    private final TransactionTemplate mysqlReadTemplate;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+
+    private volatile Long lastSeq;
+    private volatile Long waitingAtSeq;
+    private volatile long entriesApplied;
+    private volatile LocalDateTime lastPolledAt;
+    private volatile LocalDateTime lastAppliedAt;
+    private volatile SyncResult lastResult;
+
+    public CatalogChangeFeedServiceImpl(CatalogChangeLogDao catalogChangeLogDao,
+                                        SyncChangeCursorDao syncChangeCursorDao,
+                                        CatalogSyncService catalogSyncService,
+                                        TaskScheduler taskScheduler,
+                                        SyncProperties syncProperties,
+                                        @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+                                        SqliteWriteExecutor sqliteWriteExecutor) {
+        this.catalogChangeLogDao = catalogChangeLogDao;
+        this.syncChangeCursorDao = syncChangeCursorDao;
+        this.catalogSyncService = catalogSyncService;
+        this.taskScheduler = taskScheduler;
+        this.syncProperties = syncProperties;
+        this.mysqlReadTemplate = new TransactionTemplate(mysqlTransactionManager);
+        this.mysqlReadTemplate.setReadOnly(true);
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        SyncProperties.ChangeFeed changeFeed = syncProperties.getChangeFeed();
+        if (!changeFeed.isEnabled()) {
+            log.info("Catalog change feed is disabled");
+            return;
+        }
+        taskScheduler.scheduleWithFixedDelay(this::scheduledPoll,
+                Instant.now().plus(changeFeed.getPollInterval()), changeFeed.getPollInterval());
+    }
+
+    private void scheduledPoll() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // MySQL is probably unreachable; the background sync reports that, so keep this quiet
+            log.debug("Catalog change feed poll failed", e);
+        }
+    }
+
+    @Override
+    public synchronized ChangeFeedState poll() {
+        lastPolledAt = LocalDateTime.now();
+        long cursor = cursor();
+        int batchSize = syncProperties.getChangeFeed().getBatchSize();
+        while (true) {
+            long from = cursor;
+            // Read before the entries, so any entry stamped later counts as unsettled
+            LocalDateTime mysqlNow = mysqlReadTemplate.execute(status -> catalogChangeLogDao.findDatabaseNow());
+            List<CatalogChangeLogEntity> entries = mysqlReadTemplate.execute(status ->
+                    catalogChangeLogDao.findBySeqGreaterThanOrderBySeqAsc(from, Limit.of(batchSize)));
+            // Aged on MySQL's clock, which stamped changed_at, so a terminal's clock drift cannot settle a gap early
+            List<CatalogChangeLogEntity> ready = SequenceGaps.untilUnsettledGap(cursor, entries, CatalogChangeLogEntity::getSeq,
+                    CatalogChangeLogEntity::getChangedAt, mysqlNow.minus(syncProperties.getChangeFeed().getGapSettle()));
+            waitingAtSeq = ready.size() < entries.size() ? entries.get(ready.size()).getSeq() : null;
+            if (ready.isEmpty()) {
+                break;
+            }
+
+            SyncResult result;
+            try {
+                result = catalogSyncService.refreshProducts(productIdsByTable(ready));
+            } catch (IllegalStateException e) {
+                // Another catalog sync holds the writer; the next poll picks these entries up again
+                break;
+            }
+            lastResult = result;
+            // Rows that failed to write are repaired by the next delta pull; only a failed run is retried here
+            boolean runFailed = !result.isSuccess()
+                    && result.getDetails().values().stream().allMatch(stats -> stats.getErrors() == 0);
+            if (runFailed) {
+                break;
+            }
+            cursor = ready.get(ready.size() - 1).getSeq();
+            saveCursor(cursor);
+            entriesApplied += ready.size();
+            lastAppliedAt = LocalDateTime.now();
+            if (ready.size() < batchSize) {
+                break;
+            }
+        }
+        return getState();
+    }
+
+    @Override
+    public ChangeFeedState getState() {
+        return ChangeFeedState.builder()
+                .enabled(syncProperties.getChangeFeed().isEnabled())
+                .lastSeq(lastSeq)
+                .waitingAtSeq(waitingAtSeq)
+                .entriesApplied(entriesApplied)
+                .lastPolledAt(lastPolledAt)
+                .lastAppliedAt(lastAppliedAt)
+                .lastResult(lastResult)
+                .build();
+    }
+
+    private long cursor() {
+        if (lastSeq == null) {
+            lastSeq = syncChangeCursorDao.findById(FEED)
+                    .map(SyncChangeCursorEntity::getLastSeq)
+                    .orElseGet(() -> {
+                        long end = mysqlReadTemplate.execute(status -> catalogChangeLogDao.findMaxSeq());
+                        saveCursor(end);
+                        return end;
+                    });
+        }
+        return lastSeq;
+    }
+
+    private void saveCursor(long seq) {
+        sqliteWriteExecutor.run(() -> syncChangeCursorDao.save(new SyncChangeCursorEntity(FEED, seq, null)));
+        lastSeq = seq;
+    }
+
+    private static Map<String, Set<Long>> productIdsByTable(List<CatalogChangeLogEntity> entries) {
+        Map<String, Set<Long>> productIds = new LinkedHashMap<>();
+        for (CatalogChangeLogEntity entry : entries) {
+            productIds.computeIfAbsent(entry.getTableName(), table -> new HashSet<>()).add(entry.getProductId());
+        }
+        return productIds;
+    }
+}
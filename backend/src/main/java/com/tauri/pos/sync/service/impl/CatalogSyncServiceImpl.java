@@ -0,0 +1,1126 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.mapper.ProductBarcodeMapper;
+import com.tauri.pos.mysql.mapper.ProductDescriptionMapper;
+import com.tauri.pos.mysql.mapper.ProductMapper;
+import com.tauri.pos.mysql.persistance.dao.ProductBarcodeDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDescriptionDao;
+import com.tauri.pos.mysql.persistance.eo.ProductBarcodeEntity;
+import com.tauri.pos.mysql.persistance.eo.ProductDescriptionEntity;
+import com.tauri.pos.mysql.persistance.eo.ProductEntity;
+import com.tauri.pos.shared.enums.CatalogSyncMode;
+import com.tauri.pos.shared.enums.SyncProgressPhase;
+import com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDescriptionDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncCheckpointDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncWatermarkDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeId;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionId;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncCheckpointEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.mapper.CatalogRowHashes;
+import com.tauri.pos.sync.mapper.CatalogSnapshotCodec;
+import com.tauri.pos.sync.mapper.CatalogSyncMapper;
+import com.tauri.pos.sync.model.CatalogScope;
+import com.tauri.pos.sync.model.CatalogSyncStatus;
+import com.tauri.pos.sync.model.ProductIdRange;
+import com.tauri.pos.sync.model.RangeDigest;
+import com.tauri.pos.sync.model.RowDigest;
+import com.tauri.pos.sync.model.SyncProgressEvent;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.model.TableSyncResult;
+import com.tauri.pos.sync.service.CatalogSyncService;
+import com.tauri.pos.sync.service.SyncProgressService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the local SQLite catalog tables (products, barcodes and descriptions) in step with
+ * MySQL: full and delta pulls, staged resyncs, reconciliation, targeted refreshes and binary
+ * snapshots. Only one of them runs at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class CatalogSyncServiceImpl implements CatalogSyncService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogSyncServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final long PIPELINE_POLL_MILLIS = 50;
+
+    private static final int SNAPSHOT_BUFFER_BYTES = 64 * 1024;
+
+    private final SyncWatermarkDao syncWatermarkDao;
+    private final SyncCheckpointDao syncCheckpointDao;
+    private final LocalCatalogStagingDao localCatalogStagingDao;
+    private final SyncProgressService syncProgressService;
+    private final SyncProperties syncProperties;
+    private final CatalogScope scope;
+    private final TransactionTemplate mysqlReadTemplate;
+    private final TransactionTemplate sqliteReadTemplate;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final HotCatalogService hotCatalogService;
+    private final List<CatalogTable<?, ?, ?>> tables;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @PersistenceContext(unitName = "mysql")
+    private EntityManager mysqlEntityManager;
+
+    @PersistenceContext(unitName = "sqlite")
+    private EntityManager sqliteEntityManager;
+
+    public CatalogSyncServiceImpl(ProductDao productDao,
+                                  ProductBarcodeDao productBarcodeDao,
+                                  ProductDescriptionDao productDescriptionDao,
+                                  LocalProductDao localProductDao,
+                                  LocalProductBarcodeDao localProductBarcodeDao,
+                                  LocalProductDescriptionDao localProductDescriptionDao,
+                                  SyncWatermarkDao syncWatermarkDao,
+                                  SyncCheckpointDao syncCheckpointDao,
+                                  LocalCatalogStagingDao localCatalogStagingDao,
+                                  SyncProgressService syncProgressService,
+                                  SyncProperties syncProperties,
+                                  @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+                                  SqliteWriteExecutor sqliteWriteExecutor,
+                                  @Qualifier("sqliteTransactionManager") PlatformTransactionManager sqliteTransactionManager,
+                                  HotCatalogService hotCatalogService) {
+        this.syncWatermarkDao = syncWatermarkDao;
+        this.syncCheckpointDao = syncCheckpointDao;
+        this.localCatalogStagingDao = localCatalogStagingDao;
+        this.syncProgressService = syncProgressService;
+        this.syncProperties = syncProperties;
+        this.scope = syncProperties.getScope();
+        this.mysqlReadTemplate = new TransactionTemplate(mysqlTransactionManager);
+        this.mysqlReadTemplate.setReadOnly(true);
+        this.sqliteReadTemplate = new TransactionTemplate(sqliteTransactionManager);
+        this.sqliteReadTemplate.setReadOnly(true);
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+        this.hotCatalogService = hotCatalogService;
+
+        // Products first: local_product_barcode and local_product_description reference local_product
+        this.tables = List.of(
+                CatalogTable.<ProductEntity, LocalProductEntity, Long>builder()
+                        .name("products")
+                        .sourceTable("product")
+                        .fullSource(fromProductId -> productDao.streamFromProductId(fromProductId, scope))
+                        .changedSince((since, fromProductId) -> productDao.streamUpdatedSince(since, fromProductId, scope))
+                        .updatedAt(LocalProductEntity::getUpdatedAt)
+                        .productId(LocalProductEntity::getProductId)
+                        .mapper(entity -> CatalogSyncMapper.INSTANCE.productToLocalProductEntity(
+                                ProductMapper.INSTANCE.productEntityToProduct(entity)))
+                        .writer(localProductDao::upsertAll)
+                        .stager(localProductDao::stageAll)
+                        .describe(product -> "Product " + product.getProductId())
+                        .remoteKeys(() -> productDao.streamAllIds(scope))
+                        .localKeys(localProductDao::findAllIds)
+                        .localKeysByProductIds(localProductDao::findIdsByProductIdIn)
+                        .deleter(localProductDao::deleteAllByKeys)
+                        .scopePurger(() -> localProductDao.deleteOutOfScope(scope))
+                        .key(LocalProductEntity::getProductId)
+                        .rowKey(product -> String.valueOf(product.getProductId()))
+                        .rowHash(CatalogRowHashes::product)
+                        .localRows(localProductDao::streamAllOrderByProductId)
+                        .remoteProductIdRange(productDao::findProductIdRange)
+                        .remoteDigests((from, to, step) -> productDao.digestRanges(from, to, step, scope))
+                        .remoteRowDigests((from, to) -> productDao.digestRows(from, to, scope))
+                        .remoteRowsByProductIds(productIds -> productDao.findByProductIdIn(productIds, scope))
+                        .snapshotWriter(CatalogSnapshotCodec::writeProduct)
+                        .snapshotReader(CatalogSnapshotCodec::readProduct)
+                        .build(),
+                CatalogTable.<ProductBarcodeEntity, LocalProductBarcodeEntity, LocalProductBarcodeId>builder()
+                        .name("barcodes")
+                        .parent("products")
+                        .sourceTable("product_barcode")
+                        .fullSource(fromProductId -> productBarcodeDao.streamFromProductId(fromProductId.intValue(), scope))
+                        .changedSince((since, fromProductId) -> productBarcodeDao.streamUpdatedSince(since, fromProductId.intValue(), scope))
+                        .updatedAt(LocalProductBarcodeEntity::getUpdatedAt)
+                        .productId(barcode -> barcode.getProductId().longValue())
+                        .mapper(entity -> CatalogSyncMapper.INSTANCE.productBarcodeToLocalProductBarcodeEntity(
+                                ProductBarcodeMapper.INSTANCE.productBarcodeEntityToProductBarcode(entity)))
+                        .writer(localProductBarcodeDao::upsertAll)
+                        .stager(localProductBarcodeDao::stageAll)
+                        .describe(barcode -> "Barcode " + barcode.getProductId() + "/" + barcode.getBarcode())
+                        .remoteKeys(() -> productBarcodeDao.streamAllIds(scope)
+                                .map(id -> new LocalProductBarcodeId(id.getProductId(), id.getBarcode())))
+                        .localKeys(localProductBarcodeDao::findAllIds)
+                        .localKeysByProductIds(productIds -> localProductBarcodeDao.findIdsByProductIdIn(
+                                productIds.stream().map(Long::intValue).toList()))
+                        .deleter(localProductBarcodeDao::deleteAllByKeys)
+                        .scopePurger(() -> localProductBarcodeDao.deleteOutOfScope(scope))
+                        .key(barcode -> new LocalProductBarcodeId(barcode.getProductId(), barcode.getBarcode()))
+                        .rowKey(barcode -> barcode.getProductId() + "|" + barcode.getBarcode())
+                        .rowHash(CatalogRowHashes::barcode)
+                        .localRows(localProductBarcodeDao::streamAllOrderByProductId)
+                        .remoteProductIdRange(productBarcodeDao::findProductIdRange)
+                        .remoteDigests((from, to, step) -> productBarcodeDao.digestRanges(from, to, step, scope))
+                        .remoteRowDigests((from, to) -> productBarcodeDao.digestRows(from, to, scope))
+                        .remoteRowsByProductIds(productIds -> productBarcodeDao.findByProductIdIn(
+                                productIds.stream().map(Long::intValue).toList(), scope))
+                        .snapshotWriter(CatalogSnapshotCodec::writeBarcode)
+                        .snapshotReader(CatalogSnapshotCodec::readBarcode)
+                        .build(),
+                CatalogTable.<ProductDescriptionEntity, LocalProductDescriptionEntity, LocalProductDescriptionId>builder()
+                        .name("descriptions")
+                        .parent("products")
+                        .sourceTable("product_description")
+                        .fullSource(fromProductId -> productDescriptionDao.streamFromProductId(fromProductId.intValue(), scope))
+                        .changedSince((since, fromProductId) -> productDescriptionDao.streamUpdatedSince(since, fromProductId.intValue(), scope))
+                        .updatedAt(LocalProductDescriptionEntity::getUpdatedAt)
+                        .productId(description -> description.getProductId().longValue())
+                        .mapper(entity -> CatalogSyncMapper.INSTANCE.productDescriptionToLocalProductDescriptionEntity(
+                                ProductDescriptionMapper.INSTANCE.productDescriptionEntityToProductDescription(entity)))
+                        .writer(localProductDescriptionDao::upsertAll)
+                        .stager(localProductDescriptionDao::stageAll)
+                        .describe(description -> "Description " + description.getProductId() + "/"
+                                + description.getSiteId() + "/" + description.getLanguageId())
+                        .remoteKeys(() -> productDescriptionDao.streamAllIds(scope)
+                                .map(id -> new LocalProductDescriptionId(id.getProductId(), id.getSiteId(), id.getLanguageId())))
+                        .localKeys(localProductDescriptionDao::findAllIds)
+                        .localKeysByProductIds(productIds -> localProductDescriptionDao.findIdsByProductIdIn(
+                                productIds.stream().map(Long::intValue).toList()))
+                        .deleter(localProductDescriptionDao::deleteAllByKeys)
+                        .scopePurger(() -> localProductDescriptionDao.deleteOutOfScope(scope))
+                        .key(description -> new LocalProductDescriptionId(
+                                description.getProductId(), description.getSiteId(), description.getLanguageId()))
+                        .rowKey(description -> description.getProductId() + "|" + description.getSiteId() + "|"
+                                + description.getLanguageId())
+                        .rowHash(CatalogRowHashes::description)
+                        .localRows(localProductDescriptionDao::streamAllOrderByProductId)
+                        .remoteProductIdRange(productDescriptionDao::findProductIdRange)
+                        .remoteDigests((from, to, step) -> productDescriptionDao.digestRanges(from, to, step, scope))
+                        .remoteRowDigests((from, to) -> productDescriptionDao.digestRows(from, to, scope))
+                        .remoteRowsByProductIds(productIds -> productDescriptionDao.findByProductIdIn(
+                                productIds.stream().map(Long::intValue).toList(), scope))
+                        .snapshotWriter(CatalogSnapshotCodec::writeDescription)
+                        .snapshotReader(CatalogSnapshotCodec::readDescription)
+                        .build());
+    }
+
+    /**
+     * Pull every row in scope. Rows are upserted in transactions of {@code sync.write-batch-size},
+     * and a row whose content hash matches the stored one is skipped.
+     */
+    @Override
+    public SyncResult pullCatalog() {
+        return runExclusive(result -> {
+            pullTables(CatalogSyncMode.FULL, table -> null, syncProperties.getWriteBatchSize(), result);
+            purgeOutOfScope(result);
+        });
+    }
+
+    /**
+     * Load the whole catalog into staging copies of the tables and swap them over the live ones in
+     * one transaction, so the till never sees a half-loaded catalog.
+     */
+    @Override
+    public SyncResult resyncCatalog() {
+        return runExclusive(result -> {
+            // Staging tables outlive an interrupted resync, so keep loading them instead of starting over
+            if (!syncCheckpointDao.existsByMode(CatalogSyncMode.RESYNC) || !localCatalogStagingDao.stagingTablesExist()) {
+                sqliteWriteExecutor.run(() -> {
+                    syncCheckpointDao.deleteByMode(CatalogSyncMode.RESYNC);
+                    localCatalogStagingDao.createStagingTables();
+                });
+            }
+            List<TablePull> pulls = pullTables(CatalogSyncMode.RESYNC, table -> null, syncProperties.getWriteBatchSize(), result);
+            if (result.getDetails().values().stream().anyMatch(stats -> stats.getErrors() > 0)) {
+                discardStaging();
+                addError(result, "Live catalog left unchanged because the staging load had errors");
+                return;
+            }
+            sqliteWriteExecutor.run(localCatalogStagingDao::createStagingIndexes);
+            sqliteWriteExecutor.run(() -> {
+                localCatalogStagingDao.swapStagingTables();
+                syncCheckpointDao.deleteByMode(CatalogSyncMode.RESYNC);
+                pulls.forEach(pull -> saveWatermark(pull.sourceTable(), pull.highWaterMark()));
+            });
+            // The swap replaced the live tables without row-level changes for the in-memory catalog to follow
+            hotCatalogService.reload();
+        });
+    }
+
+    @Override
+    public SyncResult pullCatalogChanges(boolean propagateDeletes) {
+        return pullCatalogChanges(propagateDeletes, syncProperties.getWriteBatchSize());
+    }
+
+    /**
+     * Pull the rows changed since each table's {@code sync_watermark}, less {@code sync.delta-overlap}.
+     * Every successful table pull moves its watermark to the greatest {@code updated_at} it applied.
+     */
+    @Override
+    public SyncResult pullCatalogChanges(boolean propagateDeletes, int writeBatchSize) {
+        return runExclusive(result -> {
+            // Re-read a little before the mark so rows committed late with an older updated_at are not missed
+            pullTables(CatalogSyncMode.DELTA, table -> syncWatermarkDao.findById(table.sourceTable())
+                    .map(SyncWatermarkEntity::getHighWaterMark)
+                    .map(mark -> mark.minus(syncProperties.getDeltaOverlap()))
+                    .orElse(null), writeBatchSize, result);
+            purgeOutOfScope(result);
+            if (propagateDeletes) {
+                for (CatalogTable<?, ?, ?> table : tables) {
+                    result.getDetails().get(table.name()).setDeleted(propagateDeletes(table, result));
+                }
+            }
+        });
+    }
+
+    /**
+     * Compare per-range hash digests with MySQL rather than rows, narrowing down to the ranges that
+     * differ, so checking an unchanged terminal costs a handful of small queries.
+     */
+    @Override
+    public SyncResult reconcileCatalog() {
+        return runExclusive(result -> {
+            // Purged first so rows that left the scope do not show up as differences
+            purgeOutOfScope(result);
+            for (CatalogTable<?, ?, ?> table : tables) {
+                reconcileTable(table, result);
+            }
+        });
+    }
+
+    /**
+     * Bring the given products' rows up to date, keyed by MySQL table name.
+     * <p>
+     * Each product's rows are replaced by what MySQL holds now rather than replaying what changed,
+     * so applying the same product twice or out of order leaves the same result.
+     */
+    @Override
+    public SyncResult refreshProducts(Map<String, Set<Long>> productIdsBySourceTable) {
+        return runExclusive(result -> {
+            for (CatalogTable<?, ?, ?> table : tables) {
+                Set<Long> productIds = productIdsBySourceTable.get(table.sourceTable());
+                if (productIds != null && !productIds.isEmpty()) {
+                    result.getDetails().put(table.name(), refreshTable(table, List.copyOf(productIds), result));
+                }
+            }
+            // A product that changed brand or status takes its barcodes and descriptions with it
+            purgeOutOfScope(result);
+        });
+    }
+
+    /**
+     * Write the whole catalog as a gzip-compressed binary snapshot, see {@link CatalogSnapshotCodec}.
+     */
+    @Override
+    public void exportSnapshot(OutputStream output) throws IOException {
+        exportChanges(output, null);
+    }
+
+    /**
+     * Write the rows changed since {@code since}, or every row when it is null, in snapshot format.
+     */
+    @Override
+    public void exportChanges(OutputStream output, LocalDateTime since) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(output, SNAPSHOT_BUFFER_BYTES);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, SNAPSHOT_BUFFER_BYTES));
+        CatalogSnapshotCodec.writeHeader(out, LocalDateTime.now(), tables.size());
+        try {
+            // One read transaction so all tables come from the same InnoDB snapshot
+            mysqlReadTemplate.executeWithoutResult(status -> {
+                for (CatalogTable<?, ?, ?> table : tables) {
+                    exportTable(table, since, out);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Load a snapshot into a new terminal through the resync staging tables and swap it in.
+     */
+    @Override
+    public SyncResult importSnapshot(InputStream input) {
+        return runExclusive(result -> {
+            // A snapshot replaces the catalog like a resync does, through the same staging tables
+            sqliteWriteExecutor.run(() -> {
+                syncCheckpointDao.deleteByMode(CatalogSyncMode.RESYNC);
+                localCatalogStagingDao.createStagingTables();
+            });
+            Map<String, LocalDateTime> highWaterMarks = new HashMap<>();
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        new GZIPInputStream(input, SNAPSHOT_BUFFER_BYTES), SNAPSHOT_BUFFER_BYTES));
+                int tableCount = CatalogSnapshotCodec.readHeader(in);
+                for (int i = 0; i < tableCount; i++) {
+                    String sourceTable = in.readUTF();
+                    CatalogTable<?, ?, ?> table = tables.stream()
+                            .filter(candidate -> candidate.sourceTable().equals(sourceTable))
+                            .findFirst()
+                            .orElseThrow(() -> new IOException("Unknown table " + sourceTable + " in catalog snapshot"));
+                    TableSyncResult stats = new TableSyncResult();
+                    result.getDetails().put(table.name(), stats);
+                    highWaterMarks.put(sourceTable, importTable(table, in, stats, result));
+                }
+                if (highWaterMarks.size() < tables.size()) {
+                    throw new IOException("snapshot does not cover every catalog table");
+                }
+            } catch (IOException e) {
+                discardStaging();
+                throw new UncheckedIOException("Invalid catalog snapshot: " + e.getMessage(), e);
+            }
+            if (result.getDetails().values().stream().anyMatch(stats -> stats.getErrors() > 0)) {
+                discardStaging();
+                addError(result, "Live catalog left unchanged because the snapshot load had errors");
+                return;
+            }
+            sqliteWriteExecutor.run(localCatalogStagingDao::createStagingIndexes);
+            sqliteWriteExecutor.run(() -> {
+                localCatalogStagingDao.swapStagingTables();
+                // The catalog is now exactly the snapshot, so deltas continue from its marks even if older
+                highWaterMarks.forEach((sourceTable, highWaterMark) -> syncWatermarkDao.save(
+                        new SyncWatermarkEntity(sourceTable, highWaterMark, null)));
+            });
+            hotCatalogService.reload();
+        });
+    }
+
+    @Override
+    public List<SyncWatermarkEntity> getWatermarks() {
+        return syncWatermarkDao.findAll();
+    }
+
+    @Override
+    public CatalogSyncStatus getStatus() {
+        return CatalogSyncStatus.builder()
+                .running(running.get())
+                .watermarks(syncWatermarkDao.findAll())
+                .checkpoints(syncCheckpointDao.findAll())
+                .build();
+    }
+
+    private SyncResult runExclusive(Consumer<SyncResult> sync) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A catalog sync is already running");
+        }
+        SyncResult result = SyncResult.builder()
+                .success(true)
+                .details(new LinkedHashMap<>())
+                .errors(new ArrayList<>())
+                .build();
+        try {
+            sync.accept(result);
+            long totalErrors = result.getDetails().values().stream().mapToLong(TableSyncResult::getErrors).sum();
+            if (totalErrors > 0) {
+                result.setSuccess(false);
+                result.setMessage("Sync completed with " + totalErrors + " errors");
+            } else {
+                result.setMessage("Sync completed successfully");
+            }
+        } catch (Exception e) {
+            log.error("Catalog sync failed", e);
+            result.setSuccess(false);
+            result.setMessage("Sync failed due to connection or server error");
+            result.getErrors().add(e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        log.info("Catalog sync finished: {}", result.getDetails());
+        return result;
+    }
+
+    /**
+     * Stream every catalog table from MySQL into SQLite, or into the staging copies for a resync.
+     * A null {@code since} pulls the whole table. Rows are committed {@code batchSize} per transaction.
+     * <p>
+     * Tables run concurrently as a three-stage pipeline: a reader per table streams MySQL rows
+     * into batches, a mapper turns them into local entities, and the calling thread is the single
+     * SQLite writer. Stages are joined by queues of {@code sync.pipeline-queue-depth} batches, so a
+     * slow stage holds back the one before it instead of buffering the catalog in memory. A
+     * child table's batch is only written once its parent has committed every product_id the
+     * batch refers to.
+     * <p>
+     * Every committed batch advances the table's {@code sync_checkpoint} row in the same
+     * transaction, so an interrupted pull of the same mode resumes from the last committed
+     * product_id. Rows of that product_id are read again, which the upserts make harmless.
+     * Progress is published per committed batch to {@link SyncProgressService}.
+     */
+    private List<TablePull> pullTables(CatalogSyncMode mode, Function<CatalogTable<?, ?, ?>, LocalDateTime> since,
+                                       int batchSize, SyncResult result) {
+        Object writerSignal = new Object();
+        Map<String, TableRun<?, ?, ?>> runs = new LinkedHashMap<>();
+        for (CatalogTable<?, ?, ?> table : tables) {
+            TableRun<?, ?, ?> run = startTable(table, mode, since.apply(table), batchSize, writerSignal);
+            run.parent = table.parent() != null ? runs.get(table.parent()) : null;
+            runs.put(table.name(), run);
+            result.getDetails().put(table.name(), run.stats);
+            publishProgress(run, SyncProgressPhase.STARTED, null);
+        }
+
+        ExecutorService readers = Executors.newFixedThreadPool(syncProperties.getPipelineReaders(),
+                new CustomizableThreadFactory("catalog-read-"));
+        ExecutorService mappers = Executors.newFixedThreadPool(syncProperties.getPipelineMappers(),
+                new CustomizableThreadFactory("catalog-map-"));
+        List<TablePull> pulls = new ArrayList<>();
+        List<TableRun<?, ?, ?>> pending = new ArrayList<>(runs.values());
+        try {
+            // Submitted in foreign key order so a parent never waits for a thread held by its children
+            for (TableRun<?, ?, ?> run : runs.values()) {
+                if (!run.writeDone) {
+                    readers.execute(() -> read(run));
+                    mappers.execute(() -> map(run));
+                }
+            }
+            while (!pending.isEmpty()) {
+                boolean progressed = false;
+                for (Iterator<TableRun<?, ?, ?>> iterator = pending.iterator(); iterator.hasNext(); ) {
+                    TableRun<?, ?, ?> run = iterator.next();
+                    if (run.failure != null) {
+                        throw new IllegalStateException("Reading " + run.table.sourceTable() + " failed: "
+                                + run.failure.getMessage(), run.failure);
+                    }
+                    if (run.writeDone || run.mapDone && run.mapped.isEmpty()) {
+                        pulls.add(finishTable(run, mode));
+                        iterator.remove();
+                        progressed = true;
+                        publishProgress(run, SyncProgressPhase.FINISHED, null);
+                    } else if (writeNext(run, result)) {
+                        progressed = true;
+                        publishProgress(run, SyncProgressPhase.RUNNING, null);
+                    }
+                }
+                if (!progressed) {
+                    awaitBatches(writerSignal);
+                }
+            }
+        } catch (RuntimeException e) {
+            pending.forEach(run -> publishProgress(run, SyncProgressPhase.FAILED, e.getMessage()));
+            throw e;
+        } finally {
+            // Stops stages still blocked on a queue when the writer gave up
+            readers.shutdownNow();
+            mappers.shutdownNow();
+        }
+        return pulls;
+    }
+
+    private <E, L, K> TableRun<E, L, K> startTable(CatalogTable<E, L, K> table, CatalogSyncMode mode,
+                                                   LocalDateTime since, int batchSize, Object writerSignal) {
+        SyncCheckpointEntity checkpoint = syncCheckpointDao.findById(table.sourceTable())
+                .filter(existing -> existing.getMode() == mode)
+                .orElseGet(() -> SyncCheckpointEntity.builder()
+                        .tableName(table.sourceTable())
+                        .mode(mode)
+                        .since(since)
+                        .startedAt(LocalDateTime.now())
+                        .build());
+        TableRun<E, L, K> run = new TableRun<>(table, mode, checkpoint, syncProperties.getPipelineQueueDepth(), writerSignal);
+        run.stats.setErrors(checkpoint.getErrors());
+        run.stats.setResumedFromProductId(checkpoint.getLastProductId());
+        run.writer = mode == CatalogSyncMode.RESYNC ? table.stager() : table.writer();
+        run.batchSize = batchSize;
+        run.writeDone = checkpoint.isCompleted();
+        if (!run.writeDone) {
+            // Min and max of an indexed column, cheap enough to get a percentage and ETA from
+            ProductIdRange range = mysqlReadTemplate.execute(status -> table.remoteProductIdRange().get());
+            run.startProgress(range);
+            if (checkpoint.getLastProductId() != null) {
+                log.info("Resuming {} pull of {} from product_id {} after {} batches",
+                        mode, table.sourceTable(), checkpoint.getLastProductId(), checkpoint.getBatchSeq());
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Reader stage: stream the table's MySQL rows from the checkpoint on, in write-sized batches.
+     */
+    private <E, L, K> void read(TableRun<E, L, K> run) {
+        CatalogTable<E, L, K> table = run.table;
+        SyncCheckpointEntity checkpoint = run.checkpoint;
+        long fromProductId = checkpoint.getLastProductId() != null ? checkpoint.getLastProductId() : Integer.MIN_VALUE;
+        int batchSize = run.batchSize;
+        try {
+            mysqlReadTemplate.executeWithoutResult(status -> {
+                try (Stream<E> rows = checkpoint.getSince() == null
+                        ? table.fullSource().apply(fromProductId)
+                        : table.changedSince().apply(checkpoint.getSince(), fromProductId)) {
+                    List<E> batch = new ArrayList<>(batchSize);
+                    Iterator<E> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        E entity = iterator.next();
+                        // Keep the MySQL persistence context from growing with every streamed row
+                        mysqlEntityManager.detach(entity);
+                        run.stats.setFetched(run.stats.getFetched() + 1);
+                        batch.add(entity);
+                        if (batch.size() >= batchSize) {
+                            put(run.fetched, batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        put(run.fetched, batch);
+                    }
+                }
+            });
+        } catch (CancellationException e) {
+            // The writer stopped the run
+        } catch (RuntimeException e) {
+            run.failure = e;
+            run.signalWriter();
+        } finally {
+            run.readDone = true;
+        }
+    }
+
+    /**
+     * Mapper stage: convert fetched MySQL entities to local entities, computing their row hashes.
+     */
+    private <E, L, K> void map(TableRun<E, L, K> run) {
+        try {
+            while (run.failure == null) {
+                List<E> batch = run.fetched.poll(PIPELINE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    run.mapped.put(batch.stream().map(run.table.mapper()).toList());
+                    run.signalWriter();
+                } else if (run.readDone && run.fetched.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            run.failure = e;
+        } finally {
+            run.mapDone = true;
+            run.signalWriter();
+        }
+    }
+
+    /**
+     * Writer stage: write the table's next mapped batch unless its parent has not caught up yet.
+     *
+     * @return whether a batch was written
+     */
+    private <E, L, K> boolean writeNext(TableRun<E, L, K> run, SyncResult result) {
+        List<L> batch = run.mapped.peek();
+        if (batch == null) {
+            return false;
+        }
+        TableRun<?, ?, ?> parent = run.parent;
+        if (parent != null && !parent.writeDone) {
+            Long parentProductId = parent.checkpoint.getLastProductId();
+            Long batchProductId = run.table.productId().apply(batch.get(batch.size() - 1));
+            if (parentProductId == null || parentProductId < batchProductId) {
+                return false;
+            }
+        }
+        run.mapped.poll();
+        run.checkpoint = writeBatch(run.table, run.writer, batch, run.checkpoint, run.stats, result);
+        return true;
+    }
+
+    private TablePull finishTable(TableRun<?, ?, ?> run, CatalogSyncMode mode) {
+        SyncCheckpointEntity finished = run.checkpoint;
+        String sourceTable = run.table.sourceTable();
+        run.writeDone = true;
+        if (finished.isCompleted()) {
+            return new TablePull(sourceTable, run.stats, finished.getMaxUpdatedAt());
+        }
+        // Only advance the mark when every row made it, otherwise the failed rows would never be retried
+        LocalDateTime highWaterMark = finished.getErrors() == 0 ? finished.getMaxUpdatedAt() : null;
+        if (mode == CatalogSyncMode.RESYNC) {
+            // Keep finished tables recorded until the swap so a restart does not load them again
+            finished.setCompleted(true);
+            sqliteWriteExecutor.run(() -> syncCheckpointDao.save(finished));
+        } else {
+            sqliteWriteExecutor.run(() -> {
+                saveWatermark(sourceTable, highWaterMark);
+                syncCheckpointDao.deleteById(sourceTable);
+            });
+        }
+        return new TablePull(sourceTable, run.stats, highWaterMark);
+    }
+
+    private <E, L, K> void exportTable(CatalogTable<E, L, K> table, LocalDateTime since, DataOutputStream out) {
+        long fromProductId = Integer.MIN_VALUE;
+        try (Stream<E> rows = since == null
+                ? table.fullSource().apply(fromProductId)
+                : table.changedSince().apply(since, fromProductId)) {
+            out.writeUTF(table.sourceTable());
+            long rowCount = 0;
+            LocalDateTime maxUpdatedAt = null;
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                E entity = iterator.next();
+                mysqlEntityManager.detach(entity);
+                L row = table.mapper().apply(entity);
+                CatalogSnapshotCodec.writeRowMarker(out);
+                table.snapshotWriter().write(out, row);
+                rowCount++;
+                LocalDateTime updatedAt = table.updatedAt().apply(row);
+                if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+                    maxUpdatedAt = updatedAt;
+                }
+            }
+            CatalogSnapshotCodec.writeSectionEnd(out, rowCount, maxUpdatedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load one snapshot section into the table's staging copy.
+     *
+     * @return the section's greatest {@code updated_at}
+     */
+    private <E, L, K> LocalDateTime importTable(CatalogTable<E, L, K> table, DataInputStream in,
+                                                TableSyncResult stats, SyncResult result) throws IOException {
+        int batchSize = syncProperties.getWriteBatchSize();
+        List<L> batch = new ArrayList<>(batchSize);
+        while (CatalogSnapshotCodec.readRowMarker(in)) {
+            batch.add(table.snapshotReader().read(in));
+            stats.setFetched(stats.getFetched() + 1);
+            if (batch.size() >= batchSize) {
+                writeRows(table, table.stager(), batch, () -> { }, stats, result);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeRows(table, table.stager(), batch, () -> { }, stats, result);
+        }
+        long rowCount = in.readLong();
+        if (rowCount != stats.getFetched()) {
+            throw new IOException("Catalog snapshot section " + table.sourceTable() + " holds " + stats.getFetched()
+                    + " rows but declares " + rowCount);
+        }
+        return CatalogSnapshotCodec.readDateTime(in);
+    }
+
+    private void publishProgress(TableRun<?, ?, ?> run, SyncProgressPhase phase, String message) {
+        TableSyncResult stats = run.stats;
+        long written = stats.getSynced() + stats.getSkipped();
+        double seconds = (System.nanoTime() - run.startedNanos) / 1e9;
+        Double percent = phase == SyncProgressPhase.FINISHED ? Double.valueOf(100) : run.percentComplete();
+        Long etaSeconds = null;
+        if (phase == SyncProgressPhase.FINISHED) {
+            etaSeconds = 0L;
+        } else if (percent != null && run.startPercent != null && percent > run.startPercent) {
+            // Extrapolated from the share of the product_id range covered since this run started
+            etaSeconds = Math.round(seconds * (100 - percent) / (percent - run.startPercent));
+        }
+        syncProgressService.publish(SyncProgressEvent.builder()
+                .mode(run.mode)
+                .table(run.table.name())
+                .phase(phase)
+                .fetched(stats.getFetched())
+                .written(written)
+                .errors(stats.getErrors())
+                .rowsPerSecond(seconds > 0 ? written / seconds : 0)
+                .percentComplete(percent)
+                .etaSeconds(etaSeconds)
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Catalog sync stopped");
+        }
+    }
+
+    private static void awaitBatches(Object writerSignal) {
+        synchronized (writerSignal) {
+            try {
+                writerSignal.wait(PIPELINE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Catalog sync interrupted");
+            }
+        }
+    }
+
+    private void saveWatermark(String sourceTable, LocalDateTime highWaterMark) {
+        if (highWaterMark == null) {
+            return;
+        }
+        sqliteWriteExecutor.run(() -> {
+            SyncWatermarkEntity watermark = syncWatermarkDao.findById(sourceTable)
+                    .orElseGet(() -> new SyncWatermarkEntity(sourceTable, null, null));
+            if (watermark.getHighWaterMark() == null || highWaterMark.isAfter(watermark.getHighWaterMark())) {
+                watermark.setHighWaterMark(highWaterMark);
+                syncWatermarkDao.save(watermark);
+            }
+        });
+    }
+
+    /**
+     * Write one batch and return the checkpoint advanced past it.
+     */
+    private <E, L, K> SyncCheckpointEntity writeBatch(CatalogTable<E, L, K> table, Function<List<L>, Integer> writer,
+                                                      List<L> batch, SyncCheckpointEntity checkpoint,
+                                                      TableSyncResult stats, SyncResult result) {
+        SyncCheckpointEntity next = advance(table, checkpoint, batch, 0);
+        long failed = writeRows(table, writer, batch, () -> syncCheckpointDao.save(next), stats, result);
+        if (failed == 0) {
+            return next;
+        }
+        SyncCheckpointEntity partial = advance(table, checkpoint, batch, failed);
+        sqliteWriteExecutor.run(() -> syncCheckpointDao.save(partial));
+        return partial;
+    }
+
+    /**
+     * Write rows in one transaction together with {@code alsoInTransaction}. If that fails the
+     * rows are retried one per transaction so a single bad record does not discard the rest.
+     *
+     * @return number of rows that could not be written
+     */
+    private <E, L, K> long writeRows(CatalogTable<E, L, K> table, Function<List<L>, Integer> writer, List<L> rows,
+                                     Runnable alsoInTransaction, TableSyncResult stats, SyncResult result) {
+        try {
+            int written = sqliteWriteExecutor.execute(() -> {
+                int count = writer.apply(rows);
+                alsoInTransaction.run();
+                return count;
+            });
+            countWritten(stats, rows.size(), written);
+            return 0;
+        } catch (RuntimeException batchError) {
+            long failed = 0;
+            for (L row : rows) {
+                try {
+                    countWritten(stats, 1, sqliteWriteExecutor.execute(() -> writer.apply(List.of(row))));
+                } catch (RuntimeException rowError) {
+                    failed++;
+                    stats.setErrors(stats.getErrors() + 1);
+                    addError(result, table.describe().apply(row) + ": " + rowError.getMessage());
+                }
+            }
+            return failed;
+        }
+    }
+
+    // The upserts leave rows whose row_hash already matches untouched and do not count them
+    private void countWritten(TableSyncResult stats, int rows, int written) {
+        stats.setSynced(stats.getSynced() + written);
+        stats.setSkipped(stats.getSkipped() + rows - written);
+    }
+
+    private <E, L, K> SyncCheckpointEntity advance(CatalogTable<E, L, K> table, SyncCheckpointEntity checkpoint,
+                                                   List<L> batch, long failed) {
+        LocalDateTime maxUpdatedAt = checkpoint.getMaxUpdatedAt();
+        for (L row : batch) {
+            LocalDateTime updatedAt = table.updatedAt().apply(row);
+            if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+                maxUpdatedAt = updatedAt;
+            }
+        }
+        return checkpoint.toBuilder()
+                .lastProductId(table.productId().apply(batch.get(batch.size() - 1)))
+                .batchSeq(checkpoint.getBatchSeq() + 1)
+                .rowsCommitted(checkpoint.getRowsCommitted() + batch.size() - failed)
+                .errors(checkpoint.getErrors() + failed)
+                .maxUpdatedAt(maxUpdatedAt)
+                .build();
+    }
+
+    /**
+     * Compare one table with MySQL range by range and repair only the rows that differ.
+     * <p>
+     * MySQL returns a row count and XOR of row hashes per product_id bucket; buckets that
+     * match the local digest are skipped, mismatching ones are split again until they are
+     * small enough to compare row hashes, and only rows whose hash differs are fetched.
+     */
+    private <E, L, K> void reconcileTable(CatalogTable<E, L, K> table, SyncResult result) {
+        TableSyncResult stats = result.getDetails().computeIfAbsent(table.name(), name -> new TableSyncResult());
+        LocalRangeIndex<K> local = sqliteReadTemplate.execute(status -> {
+            LocalRangeIndex.Builder<K> index = LocalRangeIndex.builder();
+            try (Stream<L> rows = table.localRows().get()) {
+                rows.forEach(row -> {
+                    sqliteEntityManager.detach(row);
+                    index.add(table.productId().apply(row), table.rowKey().apply(row), table.rowHash().apply(row),
+                            table.key().apply(row));
+                });
+            }
+            return index.build();
+        });
+        ProductIdRange remote = mysqlReadTemplate.execute(status -> table.remoteProductIdRange().get());
+
+        Long fromProductId = remote.getMinProductId();
+        Long toProductId = remote.getMaxProductId();
+        if (!local.isEmpty()) {
+            fromProductId = fromProductId == null ? local.minProductId() : Math.min(fromProductId, local.minProductId());
+            toProductId = toProductId == null ? local.maxProductId() : Math.max(toProductId, local.maxProductId());
+        }
+        if (fromProductId != null) {
+            reconcileRange(table, local, fromProductId, toProductId, stats, result);
+        }
+    }
+
+    private <E, L, K> void reconcileRange(CatalogTable<E, L, K> table, LocalRangeIndex<K> local,
+                                          long fromProductId, long toProductId,
+                                          TableSyncResult stats, SyncResult result) {
+        int fanout = syncProperties.getReconcileFanout();
+        long step = Math.max(1, (toProductId - fromProductId + fanout) / fanout);
+        Map<Long, RangeDigest> remoteBuckets = mysqlReadTemplate.execute(status ->
+                table.remoteDigests().digest(fromProductId, toProductId, step)).stream()
+                .collect(Collectors.toMap(RangeDigest::getBucket, Function.identity()));
+
+        for (long bucket = 0; fromProductId + bucket * step <= toProductId; bucket++) {
+            long bucketFrom = fromProductId + bucket * step;
+            long bucketTo = Math.min(toProductId, bucketFrom + step - 1);
+            RangeDigest remote = remoteBuckets.get(bucket);
+            long remoteRows = remote == null ? 0 : remote.getRowCount();
+            long remoteDigest = remote == null ? 0 : remote.getDigest();
+            long localRows = local.count(bucketFrom, bucketTo);
+            stats.setRangesCompared(stats.getRangesCompared() + 1);
+            if (remoteRows == localRows && remoteDigest == local.digest(bucketFrom, bucketTo)) {
+                continue;
+            }
+            if (bucketFrom == bucketTo || remoteRows + localRows <= syncProperties.getReconcileLeafRows()) {
+                repairRange(table, local, bucketFrom, bucketTo, stats, result);
+            } else {
+                reconcileRange(table, local, bucketFrom, bucketTo, stats, result);
+            }
+        }
+    }
+
+    private <E, L, K> void repairRange(CatalogTable<E, L, K> table, LocalRangeIndex<K> local,
+                                       long fromProductId, long toProductId,
+                                       TableSyncResult stats, SyncResult result) {
+        List<RowDigest> remoteRows = mysqlReadTemplate.execute(status ->
+                table.remoteRowDigests().apply(fromProductId, toProductId));
+        Map<String, Long> localHashes = local.rowHashes(fromProductId, toProductId);
+
+        Set<String> changedKeys = new HashSet<>();
+        Set<Long> changedProductIds = new HashSet<>();
+        for (RowDigest row : remoteRows) {
+            if (!row.getRowHash().equals(localHashes.remove(row.getRowKey()))) {
+                changedKeys.add(row.getRowKey());
+                changedProductIds.add(row.getProductId());
+            }
+        }
+
+        if (!changedKeys.isEmpty()) {
+            List<L> rows = mysqlReadTemplate.execute(status ->
+                    table.remoteRowsByProductIds().apply(changedProductIds).stream()
+                            .map(table.mapper())
+                            .filter(row -> changedKeys.contains(table.rowKey().apply(row)))
+                            .toList());
+            stats.setFetched(stats.getFetched() + rows.size());
+            writeRows(table, table.writer(), rows, () -> { }, stats, result);
+        }
+
+        // Whatever is left in localHashes no longer exists in MySQL
+        if (!localHashes.isEmpty()) {
+            Map<String, K> localKeys = local.keys(fromProductId, toProductId);
+            List<K> staleKeys = localHashes.keySet().stream().map(localKeys::get).toList();
+            stats.setDeleted(stats.getDeleted() + sqliteWriteExecutor.execute(() -> table.deleter().apply(staleKeys)));
+        }
+    }
+
+    private <E, L, K> TableSyncResult refreshTable(CatalogTable<E, L, K> table, List<Long> productIds,
+                                                   SyncResult result) {
+        TableSyncResult stats = new TableSyncResult();
+        int batchSize = syncProperties.getWriteBatchSize();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            List<L> rows = mysqlReadTemplate.execute(status ->
+                    table.remoteRowsByProductIds().apply(chunk).stream().map(table.mapper()).toList());
+            stats.setFetched(stats.getFetched() + rows.size());
+            if (!rows.isEmpty()) {
+                writeRows(table, table.writer(), rows, () -> { }, stats, result);
+            }
+
+            // Local rows of these products that MySQL no longer has were deleted there
+            Set<K> remoteKeys = rows.stream().map(table.key()).collect(Collectors.toSet());
+            List<K> staleKeys = table.localKeysByProductIds().apply(chunk).stream()
+                    .filter(key -> !remoteKeys.contains(key))
+                    .toList();
+            if (!staleKeys.isEmpty()) {
+                stats.setDeleted(stats.getDeleted() + sqliteWriteExecutor.execute(() -> table.deleter().apply(staleKeys)));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Delete local rows that fall outside {@code sync.scope}, left behind when the scope was
+     * narrowed or a product changed brand or status. Products go first so their barcodes and
+     * descriptions follow.
+     */
+    private void purgeOutOfScope(SyncResult result) {
+        if (scope.isUnrestricted()) {
+            return;
+        }
+        for (CatalogTable<?, ?, ?> table : tables) {
+            int deleted = sqliteWriteExecutor.execute(() -> table.scopePurger().get());
+            TableSyncResult stats = result.getDetails().computeIfAbsent(table.name(), name -> new TableSyncResult());
+            stats.setDeleted(stats.getDeleted() + deleted);
+        }
+    }
+
+    /**
+     * Delete local rows whose keys no longer exist in MySQL.
+     * <p>
+     * The ERP deletes rows outright and other systems write to it too, so there is no
+     * tombstone to pull; comparing key sets is the only reliable signal.
+     */
+    private <E, L, K> long propagateDeletes(CatalogTable<E, L, K> table, SyncResult result) {
+        Set<K> remoteKeys = mysqlReadTemplate.execute(status -> {
+            try (Stream<K> keys = table.remoteKeys().get()) {
+                return keys.collect(Collectors.toCollection(HashSet::new));
+            }
+        });
+        List<K> staleKeys = table.localKeys().get().stream()
+                .filter(key -> !remoteKeys.contains(key))
+                .toList();
+        if (remoteKeys.isEmpty() && !staleKeys.isEmpty()) {
+            addError(result, "Skipped deleting " + staleKeys.size() + " " + table.name()
+                    + ": MySQL returned no rows for " + table.sourceTable());
+            return 0;
+        }
+
+        long deleted = 0;
+        int batchSize = syncProperties.getWriteBatchSize();
+        for (int from = 0; from < staleKeys.size(); from += batchSize) {
+            List<K> chunk = staleKeys.subList(from, Math.min(from + batchSize, staleKeys.size()));
+            deleted += sqliteWriteExecutor.execute(() -> table.deleter().apply(chunk));
+        }
+        return deleted;
+    }
+
+    private void discardStaging() {
+        try {
+            sqliteWriteExecutor.run(() -> {
+                localCatalogStagingDao.dropStagingTables();
+                syncCheckpointDao.deleteByMode(CatalogSyncMode.RESYNC);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not drop catalog staging tables", e);
+        }
+    }
+
+    private void addError(SyncResult result, String message) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(message);
+        }
+    }
+
+    private record TablePull(String sourceTable, TableSyncResult stats, LocalDateTime highWaterMark) {
+    }
+
+    /**
+     * One table's state within a pipelined pull. The queues and flags are shared between its
+     * reader, its mapper and the writer; the checkpoint and writer are only touched by the writer
+     * once the stages are running.
+     */
+    private static final class TableRun<E, L, K> {
+        final CatalogTable<E, L, K> table;
+        final CatalogSyncMode mode;
+        final TableSyncResult stats = new TableSyncResult();
+        final long startedNanos = System.nanoTime();
+        final BlockingQueue<List<E>> fetched;
+        final BlockingQueue<List<L>> mapped;
+        final Object writerSignal;
+        TableRun<?, ?, ?> parent;
+        Function<List<L>, Integer> writer;
+        int batchSize;
+        SyncCheckpointEntity checkpoint;
+        volatile boolean readDone;
+        volatile boolean mapDone;
+        volatile boolean writeDone;
+        volatile RuntimeException failure;
+        Long minProductId;
+        Long maxProductId;
+        Double startPercent;
+
+        TableRun(CatalogTable<E, L, K> table, CatalogSyncMode mode, SyncCheckpointEntity checkpoint, int queueDepth,
+                 Object writerSignal) {
+            this.table = table;
+            this.mode = mode;
+            this.checkpoint = checkpoint;
+            this.fetched = new ArrayBlockingQueue<>(queueDepth);
+            this.mapped = new ArrayBlockingQueue<>(queueDepth);
+            this.writerSignal = writerSignal;
+        }
+
+        void startProgress(ProductIdRange range) {
+            if (range != null) {
+                minProductId = range.getMinProductId();
+                maxProductId = range.getMaxProductId();
+            }
+            startPercent = percentComplete();
+        }
+
+        /**
+         * How far the last committed product_id is through the MySQL product_id range, or null when unknown.
+         */
+        Double percentComplete() {
+            if (minProductId == null || maxProductId == null) {
+                return null;
+            }
+            Long at = checkpoint.getLastProductId();
+            if (at == null) {
+                return 0.0;
+            }
+            if (maxProductId <= minProductId) {
+                return 100.0;
+            }
+            return Math.max(0, Math.min(100, 100.0 * (at - minProductId) / (maxProductId - minProductId)));
+        }
+
+        void signalWriter() {
+            synchronized (writerSignal) {
+                writerSignal.notifyAll();
+            }
+        }
+    }
+}
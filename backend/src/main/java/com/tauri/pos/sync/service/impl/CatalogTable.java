@@ -0,0 +1,69 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.sync.model.ProductIdRange;
+import com.tauri.pos.sync.model.RangeDigest;
+import com.tauri.pos.sync.model.RowDigest;
+import lombok.Builder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Describes how one catalog table is read from MySQL and written to SQLite.
+ *
+ * @param <E> MySQL entity type
+ * @param <L> local SQLite entity type
+ * @param <K> local primary key type
+ */
+@Builder
+record CatalogTable<E, L, K>(
+        String name,                                   // key in SyncResult.details
+        String sourceTable,                            // MySQL table name, also the watermark key
+        String parent,                                 // name of the table this one references by product_id
+        Function<Long, Stream<E>> fullSource,          // rows with product_id >= the argument, ordered by product_id
+        BiFunction<LocalDateTime, Long, Stream<E>> changedSince,
+        Function<L, LocalDateTime> updatedAt,
+        Function<L, Long> productId,                   // resume key recorded in sync_checkpoint
+        Function<E, L> mapper,
+        Function<List<L>, Integer> writer,
+        Function<List<L>, Integer> stager,             // writes into the staging copy used by full resyncs
+        Function<L, String> describe,
+        Supplier<Stream<K>> remoteKeys,                // MySQL keys converted to the local key type
+        Supplier<List<K>> localKeys,
+        Function<Collection<Long>, List<K>> localKeysByProductIds,
+        Function<List<K>, Integer> deleter,
+        Supplier<Integer> scopePurger,                 // deletes local rows outside sync.scope
+        Function<L, K> key,
+        Function<L, String> rowKey,                    // key columns joined with '|', as MySQL's digestRows returns them
+        Function<L, Long> rowHash,                     // computed from the row content, see CatalogRowHashes
+        Supplier<Stream<L>> localRows,                 // ordered by product_id
+        Supplier<ProductIdRange> remoteProductIdRange,
+        RangeDigester remoteDigests,
+        BiFunction<Long, Long, List<RowDigest>> remoteRowDigests,
+        Function<Collection<Long>, List<E>> remoteRowsByProductIds,
+        SnapshotWriter<L> snapshotWriter,              // see CatalogSnapshotCodec
+        SnapshotReader<L> snapshotReader) {
+
+    /**
+     * Per-bucket MySQL digests of a product_id range split into buckets of {@code step} ids.
+     */
+    interface RangeDigester {
+        List<RangeDigest> digest(long fromProductId, long toProductId, long step);
+    }
+
+    interface SnapshotWriter<L> {
+        void write(DataOutput out, L row) throws IOException;
+    }
+
+    interface SnapshotReader<L> {
+        L read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,228 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDescriptionDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncWatermarkDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.mapper.CatalogSnapshotCodec;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.model.TableSyncResult;
+import com.tauri.pos.sync.service.HubClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Syncs this terminal's catalog through a hub at {@code sync.remote.url} instead of MySQL.
+ * <p>
+ * The hub answers with the rows changed since this terminal's oldest watermark, encoded as a
+ * catalog snapshot; they are upserted into the live tables in write-batch-size transactions
+ * and each table's watermark advances once its section applied cleanly. Rows deleted in MySQL
+ * are not propagated in this mode.
+ */
+@Service
+@ConditionalOnProperty(name = "sync.hub.client-enabled", havingValue = "true", matchIfMissing = false)
+public class HubClientServiceImpl implements HubClientService {
+    private static final Logger log = LoggerFactory.getLogger(HubClientServiceImpl.class);
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final SyncWatermarkDao syncWatermarkDao;
+    private final SyncProperties syncProperties;
+    private final TaskScheduler taskScheduler;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final RestClient restClient;
+    private final Map<String, HubTable<?>> tables = new LinkedHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public HubClientServiceImpl(LocalProductDao localProductDao,
+                                LocalProductBarcodeDao localProductBarcodeDao,
+                                LocalProductDescriptionDao localProductDescriptionDao,
+                                SyncWatermarkDao syncWatermarkDao,
+                                SyncProperties syncProperties,
+                                TaskScheduler taskScheduler,
+                                SqliteWriteExecutor sqliteWriteExecutor) {
+        this.syncWatermarkDao = syncWatermarkDao;
+        this.syncProperties = syncProperties;
+        this.taskScheduler = taskScheduler;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+        this.restClient = RestClient.builder().baseUrl(syncProperties.getRemote().getUrl()).build();
+
+        // Keyed by MySQL table name, as the hub labels its sections
+        tables.put("product", new HubTable<LocalProductEntity>("products",
+                CatalogSnapshotCodec::readProduct, localProductDao::upsertAll));
+        tables.put("product_barcode", new HubTable<LocalProductBarcodeEntity>("barcodes",
+                CatalogSnapshotCodec::readBarcode, localProductBarcodeDao::upsertAll));
+        tables.put("product_description", new HubTable<LocalProductDescriptionEntity>("descriptions",
+                CatalogSnapshotCodec::readDescription, localProductDescriptionDao::upsertAll));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (syncProperties.isBackgroundEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::scheduledPull,
+                    Instant.now().plus(syncProperties.getBackgroundInitialDelay()), syncProperties.getInterval());
+        }
+    }
+
+    private void scheduledPull() {
+        try {
+            pullCatalogChanges();
+        } catch (IllegalStateException e) {
+            // A manual pull is running and will leave the catalog just as fresh
+        }
+    }
+
+    @Override
+    public SyncResult pullCatalogChanges() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A catalog sync is already running");
+        }
+        SyncResult result = SyncResult.builder()
+                .success(true)
+                .details(new LinkedHashMap<>())
+                .errors(new ArrayList<>())
+                .build();
+        try {
+            LocalDateTime since = oldestWatermark();
+            restClient.get()
+                    .uri(uri -> uri.path("/api/sync/hub/catalog/changes")
+                            .queryParamIfPresent("since", Optional.ofNullable(since))
+                            .build())
+                    .exchange((request, response) -> {
+                        if (!response.getStatusCode().is2xxSuccessful()) {
+                            throw new IOException("Hub answered " + response.getStatusCode());
+                        }
+                        apply(response.getBody(), result);
+                        return null;
+                    });
+            long totalErrors = result.getDetails().values().stream().mapToLong(TableSyncResult::getErrors).sum();
+            if (totalErrors > 0) {
+                result.setSuccess(false);
+                result.setMessage("Sync completed with " + totalErrors + " errors");
+            } else {
+                result.setMessage("Sync completed successfully");
+            }
+        } catch (Exception e) {
+            log.error("Catalog sync through hub failed", e);
+            result.setSuccess(false);
+            result.setMessage("Sync failed because the hub could not be reached");
+            result.getErrors().add(e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return result;
+    }
+
+    @Override
+    public int uploadAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails) {
+        Integer created = restClient.post()
+                .uri("/api/sync/hub/adjustment-details")
+                .body(adjustmentDetails)
+                .retrieve()
+                .body(Integer.class);
+        return created != null ? created : 0;
+    }
+
+    /**
+     * The oldest table watermark less the delta overlap, or null before the first sync.
+     * The hub sends every table in each response, so a table without a mark simply had no rows yet.
+     */
+    private LocalDateTime oldestWatermark() {
+        return syncWatermarkDao.findAllById(tables.keySet()).stream()
+                .map(SyncWatermarkEntity::getHighWaterMark)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .map(mark -> mark.minus(syncProperties.getDeltaOverlap()))
+                .orElse(null);
+    }
+
+    private void apply(InputStream body, SyncResult result) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(body, BUFFER_BYTES), BUFFER_BYTES));
+        int tableCount = CatalogSnapshotCodec.readHeader(in);
+        for (int i = 0; i < tableCount; i++) {
+            String sourceTable = in.readUTF();
+            HubTable<?> table = tables.get(sourceTable);
+            if (table == null) {
+                throw new IOException("Unknown table " + sourceTable + " from hub");
+            }
+            TableSyncResult stats = new TableSyncResult();
+            result.getDetails().put(table.name(), stats);
+            applyTable(sourceTable, table, in, stats, result);
+        }
+    }
+
+    private <L> void applyTable(String sourceTable, HubTable<L> table, DataInputStream in, TableSyncResult stats,
+                                SyncResult result) throws IOException {
+        int batchSize = syncProperties.getWriteBatchSize();
+        List<L> batch = new ArrayList<>(batchSize);
+        while (CatalogSnapshotCodec.readRowMarker(in)) {
+            batch.add(table.reader().read(in));
+            stats.setFetched(stats.getFetched() + 1);
+            if (batch.size() >= batchSize) {
+                write(table, batch, stats, result);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(table, batch, stats, result);
+        }
+        in.readLong();
+        LocalDateTime highWaterMark = CatalogSnapshotCodec.readDateTime(in);
+        // Only advance the mark when every row made it, otherwise the failed rows would never be retried
+        if (stats.getErrors() == 0 && highWaterMark != null) {
+            sqliteWriteExecutor.run(() -> {
+                SyncWatermarkEntity watermark = syncWatermarkDao.findById(sourceTable)
+                        .orElseGet(() -> new SyncWatermarkEntity(sourceTable, null, null));
+                if (watermark.getHighWaterMark() == null || highWaterMark.isAfter(watermark.getHighWaterMark())) {
+                    watermark.setHighWaterMark(highWaterMark);
+                    syncWatermarkDao.save(watermark);
+                }
+            });
+        }
+    }
+
+    private <L> void write(HubTable<L> table, List<L> batch, TableSyncResult stats, SyncResult result) {
+        try {
+            int written = sqliteWriteExecutor.execute(() -> table.writer().apply(batch));
+            stats.setSynced(stats.getSynced() + written);
+            stats.setSkipped(stats.getSkipped() + batch.size() - written);
+        } catch (RuntimeException e) {
+            stats.setErrors(stats.getErrors() + batch.size());
+            result.getErrors().add(table.name() + ": " + e.getMessage());
+        }
+    }
+
+    private record HubTable<L>(String name,
+                               CatalogTable.SnapshotReader<L> reader,
+                               Function<List<L>, Integer> writer) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.mysql.service.AdjustmentDetailService;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.service.CatalogSyncService;
+import com.tauri.pos.sync.service.HubSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves catalog changes to terminals syncing through this instance instead of MySQL.
+ * <p>
+ * Requests are keyed by their {@code since} rounded down to {@code sync.hub.since-granularity},
+ * so terminals whose watermarks are close together ask for the same change set. Concurrent
+ * requests for one key share a single MySQL read, and its encoded result is served from memory
+ * for {@code sync.hub.cache-ttl}. Rounding down only widens the change set, which the
+ * terminals' upserts absorb.
+ */
+@Service
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.hub.enabled"}, havingValue = "true", matchIfMissing = false)
+public class HubSyncServiceImpl implements HubSyncService {
+    private static final Logger log = LoggerFactory.getLogger(HubSyncServiceImpl.class);
+
+    // ConcurrentHashMap has no null keys, so a full change set is cached under this one
+    private static final LocalDateTime EVERYTHING = LocalDateTime.MIN;
+
+    private final CatalogSyncService catalogSyncService;
+    private final AdjustmentDetailService adjustmentDetailService;
+    private final SyncProperties syncProperties;
+    private final Map<LocalDateTime, CompletableFuture<ChangeSet>> changeSets = new ConcurrentHashMap<>();
+
+    public HubSyncServiceImpl(CatalogSyncService catalogSyncService,
+                              AdjustmentDetailService adjustmentDetailService,
+                              SyncProperties syncProperties) {
+        this.catalogSyncService = catalogSyncService;
+        this.adjustmentDetailService = adjustmentDetailService;
+        this.syncProperties = syncProperties;
+    }
+
+    @Override
+    public byte[] getCatalogChanges(LocalDateTime since) throws IOException {
+        Instant now = Instant.now();
+        changeSets.values().removeIf(changeSet -> isExpired(changeSet, now));
+        LocalDateTime key = since == null ? EVERYTHING : floor(since, syncProperties.getHub().getSinceGranularity());
+
+        CompletableFuture<ChangeSet> pending = new CompletableFuture<>();
+        CompletableFuture<ChangeSet> shared = changeSets.merge(key, pending,
+                (existing, created) -> isExpired(existing, now) ? created : existing);
+        if (shared == pending) {
+            read(key, pending);
+        }
+        try {
+            return shared.join().body();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public int uploadAdjustmentDetails(List<AdjustmentDetail> adjustmentDetails) {
+        return adjustmentDetailService.createAdjustmentDetails(adjustmentDetails).size();
+    }
+
+    private void read(LocalDateTime key, CompletableFuture<ChangeSet> pending) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            catalogSyncService.exportChanges(body, key == EVERYTHING ? null : key);
+            pending.complete(new ChangeSet(body.toByteArray(), Instant.now()));
+            if (body.size() > syncProperties.getHub().getMaxCachedBytes()) {
+                changeSets.remove(key, pending);
+            }
+            log.debug("Read catalog changes since {} for terminals: {} bytes", key, body.size());
+        } catch (IOException | RuntimeException e) {
+            // Drop failures right away so the next request reads again
+            changeSets.remove(key, pending);
+            pending.completeExceptionally(e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e);
+        }
+    }
+
+    private boolean isExpired(CompletableFuture<ChangeSet> changeSet, Instant now) {
+        return changeSet.isDone() && !changeSet.isCompletedExceptionally()
+                && changeSet.join().readAt().plus(syncProperties.getHub().getCacheTtl()).isBefore(now);
+    }
+
+    private static LocalDateTime floor(LocalDateTime since, Duration granularity) {
+        long seconds = since.toEpochSecond(ZoneOffset.UTC);
+        long step = Math.max(1, granularity.toSeconds());
+        return LocalDateTime.ofEpochSecond(seconds - Math.floorMod(seconds, step), 0, ZoneOffset.UTC);
+    }
+
+    private record ChangeSet(byte[] body, Instant readAt) {
+    }
+}
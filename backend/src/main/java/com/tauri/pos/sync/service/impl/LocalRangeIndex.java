@@ -0,0 +1,124 @@
+package com.tauri.pos.sync.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row hashes of one local catalog table sorted by product_id, with prefix XORs so the
+ * digest of any product_id range costs two binary searches.
+ *
+ * @param <K> local primary key type
+ */
+final class LocalRangeIndex<K> {
+    private final long[] productIds;
+    private final String[] rowKeys;
+    private final long[] rowHashes;
+    private final long[] prefixDigests; // prefixDigests[i] = XOR of rowHashes[0..i)
+    private final List<K> keys;
+
+    private LocalRangeIndex(long[] productIds, String[] rowKeys, long[] rowHashes, List<K> keys) {
+        this.productIds = productIds;
+        this.rowKeys = rowKeys;
+        this.rowHashes = rowHashes;
+        this.keys = keys;
+        this.prefixDigests = new long[rowHashes.length + 1];
+        for (int i = 0; i < rowHashes.length; i++) {
+            prefixDigests[i + 1] = prefixDigests[i] ^ rowHashes[i];
+        }
+    }
+
+    static <K> Builder<K> builder() {
+        return new Builder<>();
+    }
+
+    boolean isEmpty() {
+        return productIds.length == 0;
+    }
+
+    long minProductId() {
+        return productIds[0];
+    }
+
+    long maxProductId() {
+        return productIds[productIds.length - 1];
+    }
+
+    long count(long fromProductId, long toProductId) {
+        return lowerBound(toProductId + 1) - lowerBound(fromProductId);
+    }
+
+    long digest(long fromProductId, long toProductId) {
+        return prefixDigests[lowerBound(toProductId + 1)] ^ prefixDigests[lowerBound(fromProductId)];
+    }
+
+    /**
+     * Row hashes by row key for the rows in the range.
+     */
+    Map<String, Long> rowHashes(long fromProductId, long toProductId) {
+        Map<String, Long> hashes = new HashMap<>();
+        for (int i = lowerBound(fromProductId), end = lowerBound(toProductId + 1); i < end; i++) {
+            hashes.put(rowKeys[i], rowHashes[i]);
+        }
+        return hashes;
+    }
+
+    /**
+     * Primary keys by row key for the rows in the range.
+     */
+    Map<String, K> keys(long fromProductId, long toProductId) {
+        Map<String, K> rangeKeys = new HashMap<>();
+        for (int i = lowerBound(fromProductId), end = lowerBound(toProductId + 1); i < end; i++) {
+            rangeKeys.put(rowKeys[i], keys.get(i));
+        }
+        return rangeKeys;
+    }
+
+    // Index of the first row with product_id >= the given one
+    private int lowerBound(long productId) {
+        int low = 0;
+        int high = productIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (productIds[mid] < productId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects rows, which must arrive ordered by product_id.
+     */
+    static final class Builder<K> {
+        private long[] productIds = new long[1024];
+        private long[] rowHashes = new long[1024];
+        private final List<String> rowKeys = new ArrayList<>();
+        private final List<K> keys = new ArrayList<>();
+
+        void add(long productId, String rowKey, long rowHash, K key) {
+            int size = keys.size();
+            if (size > 0 && productId < productIds[size - 1]) {
+                throw new IllegalArgumentException("Rows must be added in product_id order");
+            }
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                rowHashes = Arrays.copyOf(rowHashes, size * 2);
+            }
+            productIds[size] = productId;
+            rowHashes[size] = rowHash;
+            rowKeys.add(rowKey);
+            keys.add(key);
+        }
+
+        LocalRangeIndex<K> build() {
+            int size = keys.size();
+            return new LocalRangeIndex<>(Arrays.copyOf(productIds, size), rowKeys.toArray(String[]::new),
+                    Arrays.copyOf(rowHashes, size), keys);
+        }
+    }
+}
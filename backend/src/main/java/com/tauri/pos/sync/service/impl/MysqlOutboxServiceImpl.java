@@ -0,0 +1,348 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.model.AdjustmentDetail;
+import com.tauri.pos.mysql.model.Product;
+import com.tauri.pos.mysql.model.ProductBarcode;
+import com.tauri.pos.mysql.model.ProductDescription;
+import com.tauri.pos.mysql.service.AdjustmentDetailService;
+import com.tauri.pos.mysql.service.ProductBarcodeService;
+import com.tauri.pos.mysql.service.ProductDescriptionService;
+import com.tauri.pos.mysql.service.ProductService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.dao.MysqlOutboxDao;
+import com.tauri.pos.sqlite.persistance.eo.MysqlOutboxEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.config.SyncRetries;
+import com.tauri.pos.sync.model.OutboxState;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.model.TableSyncResult;
+import com.tauri.pos.sync.service.MysqlOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues writes to the MySQL catalog and stock ledger in SQLite's {@code mysql_outbox} and
+ * applies them in the background, so a write is accepted in one local insert however slow or
+ * absent the link to MySQL is.
+ * <p>
+ * Entries are applied strictly in sequence order, a batch per MySQL transaction through the
+ * regular MySQL services, and deleted once committed. If a batch fails it is replayed one
+ * entry at a time to find the failing entry, which is retried at {@code retry-delay} doubling
+ * up to {@code max-backoff} while the entries behind it wait. After {@code retry-attempts}
+ * retries, or when an update finds its row gone, the entry is parked as CONFLICT and the queue
+ * moves on. Entries are not counted as attempted while MySQL cannot be reached.
+ * <p>
+ * Delivery is at least once: a crash between the MySQL commit and the local delete applies
+ * that batch again.
+ */
+@Service
+@ConditionalOnProperty(name = {"spring.datasource.mysql.enabled", "sync.outbox.enabled"}, havingValue = "true", matchIfMissing = false)
+public class MysqlOutboxServiceImpl implements MysqlOutboxService {
+    private static final Logger log = LoggerFactory.getLogger(MysqlOutboxServiceImpl.class);
+
+    private static final String DETAILS_KEY = "outbox";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final Set<SyncStatus> QUEUED = Set.of(SyncStatus.PENDING, SyncStatus.FAILED);
+
+    private final MysqlOutboxDao mysqlOutboxDao;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final SyncProperties syncProperties;
+    private final TransactionTemplate mysqlWriteTemplate;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final Map<String, OutboxWriter> writers = new HashMap<>();
+    private final AtomicLong applied = new AtomicLong();
+    private volatile LocalDateTime lastDrainedAt;
+    private volatile String lastError;
+
+    public MysqlOutboxServiceImpl(MysqlOutboxDao mysqlOutboxDao,
+                                  ObjectMapper objectMapper,
+                                  TaskScheduler taskScheduler,
+                                  SyncProperties syncProperties,
+                                  // The MySQL implementations, not the queueing ones in front of them
+                                  @Qualifier("productServiceImpl") ProductService productService,
+                                  @Qualifier("productBarcodeServiceImpl") ProductBarcodeService productBarcodeService,
+                                  @Qualifier("productDescriptionServiceImpl") ProductDescriptionService productDescriptionService,
+                                  @Qualifier("adjustmentDetailServiceImpl") AdjustmentDetailService adjustmentDetailService,
+                                  @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+                                  SqliteWriteExecutor sqliteWriteExecutor) {
+        this.mysqlOutboxDao = mysqlOutboxDao;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.syncProperties = syncProperties;
+        this.mysqlWriteTemplate = new TransactionTemplate(mysqlTransactionManager);
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+
+        // Each writer answers false when the row it should change no longer exists
+        writers.put("product", (operation, payload) -> {
+            Product product = objectMapper.readValue(payload, Product.class);
+            return switch (operation) {
+                case CREATE -> productService.createProduct(product) != null;
+                case UPDATE -> productService.updateProductById(product.getProductId(), product) != null;
+                case DELETE -> {
+                    productService.deleteProductById(product.getProductId());
+                    yield true;
+                }
+            };
+        });
+        writers.put("product_barcode", (operation, payload) -> {
+            ProductBarcode barcode = objectMapper.readValue(payload, ProductBarcode.class);
+            return switch (operation) {
+                case CREATE -> productBarcodeService.createProductBarcode(barcode) != null;
+                case UPDATE -> productBarcodeService.updateProductBarcodeById(barcode.getProductId(), barcode.getBarcode(), barcode) != null;
+                case DELETE -> {
+                    productBarcodeService.deleteProductBarcodeById(barcode.getProductId(), barcode.getBarcode());
+                    yield true;
+                }
+            };
+        });
+        writers.put("product_description", (operation, payload) -> {
+            ProductDescription description = objectMapper.readValue(payload, ProductDescription.class);
+            return switch (operation) {
+                case CREATE -> productDescriptionService.createProductDescription(description) != null;
+                case UPDATE -> productDescriptionService.updateProductDescriptionById(description.getProductId(),
+                        description.getSiteId(), description.getLanguageId(), description) != null;
+                case DELETE -> {
+                    productDescriptionService.deleteProductDescriptionById(description.getProductId(),
+                            description.getSiteId(), description.getLanguageId());
+                    yield true;
+                }
+            };
+        });
+        writers.put("adjustment_detail", (operation, payload) -> {
+            AdjustmentDetail adjustmentDetail = objectMapper.readValue(payload, AdjustmentDetail.class);
+            return switch (operation) {
+                case CREATE -> adjustmentDetailService.createAdjustmentDetail(adjustmentDetail) != null;
+                case UPDATE -> adjustmentDetailService.updateAdjustmentDetailById(adjustmentDetail.getAdjustmentDetailId(), adjustmentDetail) != null;
+                case DELETE -> {
+                    adjustmentDetailService.deleteAdjustmentDetailById(adjustmentDetail.getAdjustmentDetailId());
+                    yield true;
+                }
+            };
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::scheduledDrain,
+                Instant.now().plus(syncProperties.getOutbox().getPollInterval()), syncProperties.getOutbox().getPollInterval());
+    }
+
+    private void scheduledDrain() {
+        SyncResult result = drain();
+        if (!result.isSuccess()) {
+            log.debug("Outbox drain incomplete: {}", result.getErrors());
+        }
+    }
+
+    @Override
+    public void enqueue(String tableName, OutboxOperation operation, String entityKey, Object payload) {
+        if (!writers.containsKey(tableName)) {
+            throw new IllegalArgumentException("No outbox writer for table " + tableName);
+        }
+        MysqlOutboxEntity entry = new MysqlOutboxEntity();
+        entry.setTableName(tableName);
+        entry.setOperation(operation);
+        entry.setEntityKey(entityKey);
+        try {
+            entry.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + tableName + " cannot be serialized", e);
+        }
+        entry.setStatus(SyncStatus.PENDING);
+        entry.setQueuedAt(LocalDateTime.now());
+        sqliteWriteExecutor.run(() -> mysqlOutboxDao.save(entry));
+    }
+
+    @Override
+    public synchronized SyncResult drain() {
+        TableSyncResult stats = new TableSyncResult();
+        SyncResult result = SyncResult.builder()
+                .success(true)
+                .details(new LinkedHashMap<>(Map.of(DETAILS_KEY, stats)))
+                .errors(new ArrayList<>())
+                .build();
+        int batchSize = syncProperties.getOutbox().getBatchSize();
+        try {
+            while (true) {
+                List<MysqlOutboxEntity> batch = nextBatch(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                stats.setFetched(stats.getFetched() + batch.size());
+                if (!applyBatch(batch, stats, result) || batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Outbox drain stopped: {}", e.getMessage());
+            result.getErrors().add(e.getMessage());
+        }
+        lastDrainedAt = LocalDateTime.now();
+        if (!result.getErrors().isEmpty()) {
+            lastError = result.getErrors().get(result.getErrors().size() - 1);
+            result.setSuccess(false);
+            result.setMessage("Outbox drain stopped with " + result.getErrors().size() + " errors");
+        } else {
+            result.setMessage("Outbox drained successfully");
+        }
+        return result;
+    }
+
+    @Override
+    public int retryConflicts() {
+        return sqliteWriteExecutor.execute(() -> {
+            List<MysqlOutboxEntity> conflicts = mysqlOutboxDao.findByStatus(SyncStatus.CONFLICT);
+            for (MysqlOutboxEntity entry : conflicts) {
+                entry.setStatus(SyncStatus.PENDING);
+                entry.setAttempts(0);
+                entry.setNextAttemptAt(null);
+            }
+            mysqlOutboxDao.saveAll(conflicts);
+            return conflicts.size();
+        });
+    }
+
+    @Override
+    public OutboxState getState() {
+        return OutboxState.builder()
+                .enabled(true)
+                .pending(mysqlOutboxDao.countByStatus(SyncStatus.PENDING))
+                .failed(mysqlOutboxDao.countByStatus(SyncStatus.FAILED))
+                .conflicts(mysqlOutboxDao.countByStatus(SyncStatus.CONFLICT))
+                .oldestQueuedAt(mysqlOutboxDao.findOldestQueuedAt())
+                .applied(applied.get())
+                .lastDrainedAt(lastDrainedAt)
+                .lastError(lastError)
+                .build();
+    }
+
+    /**
+     * The next entries in sequence order, or none while the head waits out its backoff.
+     */
+    private List<MysqlOutboxEntity> nextBatch(int batchSize) {
+        List<MysqlOutboxEntity> batch = mysqlOutboxDao.findByStatusInOrderBySeqAsc(QUEUED, Limit.of(batchSize));
+        if (!batch.isEmpty() && batch.get(0).getStatus() == SyncStatus.FAILED
+                && batch.get(0).getNextAttemptAt() != null && batch.get(0).getNextAttemptAt().isAfter(LocalDateTime.now())) {
+            return List.of();
+        }
+        return batch;
+    }
+
+    /**
+     * Apply the batch in one MySQL transaction, or entry by entry up to the first failure if
+     * that fails. Returns false when draining should stop for now.
+     */
+    private boolean applyBatch(List<MysqlOutboxEntity> batch, TableSyncResult stats, SyncResult result) {
+        try {
+            List<MysqlOutboxEntity> missing = mysqlWriteTemplate.execute(status -> {
+                List<MysqlOutboxEntity> gone = new ArrayList<>();
+                for (MysqlOutboxEntity entry : batch) {
+                    if (!write(entry)) {
+                        gone.add(entry);
+                    }
+                }
+                return gone;
+            });
+            settle(batch, missing, stats);
+            return true;
+        } catch (RuntimeException e) {
+            if (SyncRetries.isUnreachable(e) || batch.size() == 1) {
+                return fail(batch.get(0), e, stats, result);
+            }
+        }
+        for (MysqlOutboxEntity entry : batch) {
+            if (!applyBatch(List.of(entry), stats, result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean write(MysqlOutboxEntity entry) {
+        try {
+            return writers.get(entry.getTableName()).write(entry.getOperation(), entry.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox entry " + entry.getSeq() + " has an unreadable payload", e);
+        }
+    }
+
+    /**
+     * Delete the applied entries and park the ones whose row was gone.
+     */
+    private void settle(List<MysqlOutboxEntity> batch, List<MysqlOutboxEntity> missing, TableSyncResult stats) {
+        List<Long> appliedSeqs = batch.stream()
+                .filter(entry -> !missing.contains(entry))
+                .map(MysqlOutboxEntity::getSeq)
+                .toList();
+        sqliteWriteExecutor.run(() -> {
+            mysqlOutboxDao.deleteAllByIdInBatch(appliedSeqs);
+            for (MysqlOutboxEntity entry : missing) {
+                entry.setStatus(SyncStatus.CONFLICT);
+                entry.setLastError("Row no longer exists in MySQL");
+                mysqlOutboxDao.save(entry);
+            }
+        });
+        applied.addAndGet(appliedSeqs.size());
+        stats.setSynced(stats.getSynced() + appliedSeqs.size());
+        stats.setErrors(stats.getErrors() + missing.size());
+    }
+
+    /**
+     * Schedule a retry of the entry, or park it once out of retries. Returns whether the
+     * entries behind it may go ahead.
+     */
+    private boolean fail(MysqlOutboxEntity entry, RuntimeException e, TableSyncResult stats, SyncResult result) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        String error = cause.getMessage();
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        result.getErrors().add("Outbox entry " + entry.getSeq() + ": " + error);
+        if (SyncRetries.isUnreachable(e)) {
+            return false;
+        }
+        int attempts = entry.getAttempts() + 1;
+        boolean parked = attempts > syncProperties.getRetryAttempts();
+        entry.setAttempts(attempts);
+        entry.setStatus(parked ? SyncStatus.CONFLICT : SyncStatus.FAILED);
+        entry.setNextAttemptAt(parked ? null : LocalDateTime.now().plus(SyncRetries.backoff(syncProperties, attempts)));
+        entry.setLastError(error);
+        sqliteWriteExecutor.run(() -> mysqlOutboxDao.save(entry));
+        stats.setErrors(stats.getErrors() + 1);
+        return parked;
+    }
+
+    @FunctionalInterface
+    private interface OutboxWriter {
+        boolean write(OutboxOperation operation, String payload) throws JsonProcessingException;
+    }
+}
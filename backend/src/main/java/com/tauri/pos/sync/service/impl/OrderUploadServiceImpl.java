@@ -0,0 +1,229 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.persistance.dao.OrderItemDao;
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalOrderItemEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.config.SyncRetries;
+import com.tauri.pos.sync.mapper.OrderUploadMapper;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.model.TableSyncResult;
+import com.tauri.pos.sync.service.OrderUploadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uploads order items rung up on this terminal to MySQL's order_item, moving each
+ * {@code local_order_items} row from PENDING through SYNCING to SYNCED.
+ * <p>
+ * Each run claims batches of PENDING rows, plus FAILED rows whose backoff has passed, and sends
+ * every batch as one multi-row insert keyed by terminal id and local id, so a batch resent after
+ * a crash updates the rows it already wrote. A batch MySQL rejects is resent row by row, and only
+ * the rows that still fail are marked FAILED, to be retried at {@code retry-delay} doubling up to
+ * {@code max-backoff}, at most {@code retry-attempts} times. Rows are returned to PENDING without
+ * counting an attempt when MySQL cannot be reached.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class OrderUploadServiceImpl implements OrderUploadService {
+    private static final Logger log = LoggerFactory.getLogger(OrderUploadServiceImpl.class);
+
+    private static final String DETAILS_KEY = "order_items";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final LocalOrderItemDao localOrderItemDao;
+    private final OrderItemDao orderItemDao;
+    private final TaskScheduler taskScheduler;
+    private final SyncProperties syncProperties;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+    private final String terminalId;
+
+    public OrderUploadServiceImpl(LocalOrderItemDao localOrderItemDao,
+                                  OrderItemDao orderItemDao,
+                                  TaskScheduler taskScheduler,
+                                  SyncProperties syncProperties,
+                                  SqliteWriteExecutor sqliteWriteExecutor) {
+        this.localOrderItemDao = localOrderItemDao;
+        this.orderItemDao = orderItemDao;
+        this.taskScheduler = taskScheduler;
+        this.syncProperties = syncProperties;
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+        this.terminalId = resolveTerminalId(syncProperties.getTerminalId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        SyncProperties.Upload upload = syncProperties.getUpload();
+        if (!upload.isEnabled()) {
+            log.info("Order item upload is disabled");
+            return;
+        }
+        taskScheduler.scheduleWithFixedDelay(this::scheduledUpload,
+                Instant.now().plus(syncProperties.getBackgroundInitialDelay()), upload.getInterval());
+    }
+
+    private void scheduledUpload() {
+        SyncResult result = uploadOrderItems();
+        if (!result.isSuccess()) {
+            log.debug("Order item upload failed: {}", result.getErrors());
+        }
+    }
+
+    @Override
+    public synchronized SyncResult uploadOrderItems() {
+        TableSyncResult stats = new TableSyncResult();
+        SyncResult result = SyncResult.builder()
+                .success(true)
+                .details(new LinkedHashMap<>(Map.of(DETAILS_KEY, stats)))
+                .errors(new ArrayList<>())
+                .build();
+        int batchSize = syncProperties.getUpload().getBatchSize();
+        try {
+            // Runs never overlap, so SYNCING rows left now were claimed by a run that was killed
+            int interrupted = sqliteWriteExecutor.execute(localOrderItemDao::requeueInterrupted);
+            if (interrupted > 0) {
+                log.info("Requeued {} order items whose upload was interrupted", interrupted);
+            }
+            while (true) {
+                List<LocalOrderItemEntity> batch = claim(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                stats.setFetched(stats.getFetched() + batch.size());
+                try {
+                    send(batch, stats, result);
+                } catch (RuntimeException e) {
+                    // Rows already marked keep their status, the rest wait for the next run
+                    List<Long> ids = batch.stream().map(LocalOrderItemEntity::getId).toList();
+                    sqliteWriteExecutor.execute(() -> localOrderItemDao.requeue(ids));
+                    throw e;
+                }
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Order item upload stopped: {}", e.getMessage());
+            result.getErrors().add(e.getMessage());
+        }
+        if (stats.getErrors() > 0) {
+            result.setSuccess(false);
+            result.setMessage("Upload completed with " + stats.getErrors() + " failed order items");
+        } else if (!result.getErrors().isEmpty()) {
+            result.setSuccess(false);
+            result.setMessage("Upload stopped because MySQL could not be reached or the terminal database failed");
+        } else {
+            result.setMessage("Upload completed successfully");
+        }
+        return result;
+    }
+
+    @Override
+    public int retryFailedOrderItems() {
+        return sqliteWriteExecutor.execute(localOrderItemDao::requeueFailed);
+    }
+
+    @Override
+    public Map<SyncStatus, Long> getQueueState() {
+        Map<SyncStatus, Long> counts = new EnumMap<>(SyncStatus.class);
+        for (SyncStatus status : SyncStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : localOrderItemDao.countBySyncStatus()) {
+            if (row[0] != null) {
+                counts.put((SyncStatus) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Select the next uploadable rows and mark them SYNCING in one SQLite transaction.
+     */
+    private List<LocalOrderItemEntity> claim(int batchSize) {
+        return sqliteWriteExecutor.execute(() -> {
+            List<LocalOrderItemEntity> batch = localOrderItemDao.findUploadable(
+                    syncProperties.getRetryAttempts(), LocalDateTime.now(), Limit.of(batchSize));
+            localOrderItemDao.markSyncing(batch.stream().map(LocalOrderItemEntity::getId).toList());
+            return batch;
+        });
+    }
+
+    /**
+     * Upload the batch in one statement, falling back to one row at a time when MySQL rejects it.
+     * Throws when MySQL cannot be reached, leaving the unsent rows SYNCING for the caller to requeue.
+     */
+    private void send(List<LocalOrderItemEntity> batch, TableSyncResult stats, SyncResult result) {
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        try {
+            List<OrderItemEntity> items = batch.stream()
+                    .map(item -> OrderUploadMapper.INSTANCE.localOrderItemEntityToOrderItemEntity(item, terminalId, uploadedAt))
+                    .toList();
+            Map<Long, Long> remoteIds = orderItemDao.upsertAll(items);
+            sqliteWriteExecutor.execute(() -> localOrderItemDao.markSynced(remoteIds, uploadedAt));
+            stats.setSynced(stats.getSynced() + remoteIds.size());
+        } catch (RuntimeException e) {
+            if (SyncRetries.isUnreachable(e)) {
+                throw e;
+            }
+            if (batch.size() > 1) {
+                for (LocalOrderItemEntity item : batch) {
+                    send(List.of(item), stats, result);
+                }
+                return;
+            }
+            fail(batch.get(0), e);
+            stats.setErrors(stats.getErrors() + 1);
+            result.getErrors().add("Order item " + batch.get(0).getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark the item FAILED. The entity is left as claimed, since a request's open persistence
+     * context would otherwise flush its stale status over the one written here.
+     */
+    private void fail(LocalOrderItemEntity item, RuntimeException e) {
+        int attempts = (item.getSyncAttempts() != null ? item.getSyncAttempts() : 0) + 1;
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        String error = cause.getMessage();
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        String message = error;
+        sqliteWriteExecutor.execute(() -> localOrderItemDao.markFailed(item.getId(), attempts, LocalDateTime.now().plus(SyncRetries.backoff(syncProperties, attempts)), message));
+    }
+
+    private static String resolveTerminalId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Set sync.terminal-id, the host name could not be resolved", e);
+        }
+    }
+}
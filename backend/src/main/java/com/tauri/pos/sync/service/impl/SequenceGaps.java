@@ -0,0 +1,44 @@
+package com.tauri.pos.sync.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tailing a MySQL table by its AUTO_INCREMENT id. Ids are handed out when a row is inserted
+ * but become visible only when its transaction commits, so a gap in the ids read may be a
+ * transaction still in flight rather than a rolled back insert.
+ */
+final class SequenceGaps {
+
+    private SequenceGaps() {
+    }
+
+    /**
+     * The leading rows that are safe to apply: everything up to the first id gap whose next
+     * row was written after {@code settledBefore}, since the gap may still be filled. Rows
+     * without a timestamp count as settled.
+     *
+     * @param cursor    id of the last row applied
+     * @param rows      rows after the cursor, in id order
+     * @param id        a row's id
+     * @param writtenAt when a row was written
+     */
+    static <T> List<T> untilUnsettledGap(long cursor, List<T> rows, ToLongFunction<T> id,
+                                         Function<T, LocalDateTime> writtenAt, LocalDateTime settledBefore) {
+        List<T> ready = new ArrayList<>(rows.size());
+        long expected = cursor + 1;
+        for (T row : rows) {
+            boolean gap = id.applyAsLong(row) != expected;
+            LocalDateTime rowWrittenAt = writtenAt.apply(row);
+            if (gap && rowWrittenAt != null && rowWrittenAt.isAfter(settledBefore)) {
+                break;
+            }
+            ready.add(row);
+            expected = id.applyAsLong(row) + 1;
+        }
+        return ready;
+    }
+}
@@ -0,0 +1,219 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.mysql.mapper.AdjustmentDetailMapper;
+import com.tauri.pos.mysql.persistance.dao.AdjustmentDetailDao;
+import com.tauri.pos.mysql.persistance.eo.AdjustmentDetailEntity;
+import com.tauri.pos.sqlite.persistance.dao.LocalStockDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncChangeCursorDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalStockEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalStockId;
+import com.tauri.pos.sqlite.persistance.eo.SyncChangeCursorEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.mapper.StockSyncMapper;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.model.TableSyncResult;
+import com.tauri.pos.sync.service.StockSyncService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@code local_stock} holding the on-hand quantity of every product, warehouse and bin,
+ * so stock checks at the till are one primary-key read that also works offline.
+ * <p>
+ * MySQL's adjustment_detail is an append-only ledger whose rows carry the quantity after each
+ * adjustment. The first pull loads the latest row of every position; later pulls tail the rows
+ * after the cursor kept in {@code sync_change_cursor}. Each batch and the cursor commit in one
+ * SQLite transaction, and a position is only overwritten by a later adjustment, so a replayed
+ * batch changes nothing. Id gaps are handled like the catalog change feed's sequence gaps.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class StockSyncServiceImpl implements StockSyncService {
+    private static final Logger log = LoggerFactory.getLogger(StockSyncServiceImpl.class);
+
+    private static final String FEED = "adjustment_detail";
+
+    private static final String DETAILS_KEY = "stock";
+
+    private final AdjustmentDetailDao adjustmentDetailDao;
+    private final LocalStockDao localStockDao;
+    private final SyncChangeCursorDao syncChangeCursorDao;
+    private final TaskScheduler taskScheduler;
+    private final SyncProperties syncProperties;
+    private final TransactionTemplate mysqlReadTemplate;
+    private final SqliteWriteExecutor sqliteWriteExecutor;
+
+    @PersistenceContext(unitName = "mysql")
+    private EntityManager mysqlEntityManager;
+
+    public StockSyncServiceImpl(AdjustmentDetailDao adjustmentDetailDao,
+                                LocalStockDao localStockDao,
+                                SyncChangeCursorDao syncChangeCursorDao,
+                                TaskScheduler taskScheduler,
+                                SyncProperties syncProperties,
+                                @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+                                SqliteWriteExecutor sqliteWriteExecutor) {
+        this.adjustmentDetailDao = adjustmentDetailDao;
+        this.localStockDao = localStockDao;
+        this.syncChangeCursorDao = syncChangeCursorDao;
+        this.taskScheduler = taskScheduler;
+        this.syncProperties = syncProperties;
+        this.mysqlReadTemplate = new TransactionTemplate(mysqlTransactionManager);
+        this.mysqlReadTemplate.setReadOnly(true);
+        this.sqliteWriteExecutor = sqliteWriteExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        SyncProperties.Stock stock = syncProperties.getStock();
+        if (!stock.isEnabled()) {
+            log.info("Local stock sync is disabled");
+            return;
+        }
+        taskScheduler.scheduleWithFixedDelay(this::scheduledPull,
+                Instant.now().plus(syncProperties.getBackgroundInitialDelay()), stock.getPollInterval());
+    }
+
+    private void scheduledPull() {
+        SyncResult result = pullStock();
+        if (!result.isSuccess()) {
+            log.debug("Local stock sync failed: {}", result.getErrors());
+        }
+    }
+
+    @Override
+    public synchronized SyncResult pullStock() {
+        return run(false);
+    }
+
+    /**
+     * Rebuild {@code local_stock} from the latest adjustment of every position.
+     */
+    @Override
+    public synchronized SyncResult resyncStock() {
+        return run(true);
+    }
+
+    private SyncResult run(boolean rebuild) {
+        TableSyncResult stats = new TableSyncResult();
+        SyncResult result = SyncResult.builder()
+                .success(true)
+                .details(new LinkedHashMap<>(Map.of(DETAILS_KEY, stats)))
+                .errors(new ArrayList<>())
+                .build();
+        try {
+            if (rebuild) {
+                sqliteWriteExecutor.run(() -> {
+                    localStockDao.deleteAllInBatch();
+                    syncChangeCursorDao.deleteById(FEED);
+                });
+            }
+            Long cursor = syncChangeCursorDao.findById(FEED).map(SyncChangeCursorEntity::getLastSeq).orElse(null);
+            tail(cursor != null ? cursor : loadLatestPositions(stats), stats);
+            result.setMessage("Stock sync completed successfully");
+        } catch (Exception e) {
+            log.error("Stock sync failed", e);
+            result.setSuccess(false);
+            result.setMessage("Stock sync failed due to connection or server error");
+            result.getErrors().add(e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Load the latest adjustment of every position and return the id the tail continues from.
+     */
+    private long loadLatestPositions(TableSyncResult stats) {
+        long upToId = mysqlReadTemplate.execute(status -> adjustmentDetailDao.findMaxAdjustmentDetailId());
+        int batchSize = syncProperties.getWriteBatchSize();
+        mysqlReadTemplate.executeWithoutResult(status -> {
+            try (Stream<AdjustmentDetailEntity> rows = adjustmentDetailDao.streamLatestPerPosition(upToId)) {
+                Iterator<AdjustmentDetailEntity> iterator = rows.iterator();
+                List<LocalStockEntity> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    AdjustmentDetailEntity row = iterator.next();
+                    mysqlEntityManager.detach(row);
+                    batch.add(toPosition(row));
+                    if (batch.size() >= batchSize || !iterator.hasNext()) {
+                        write(batch, batch.size(), null, stats);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+        });
+        sqliteWriteExecutor.run(() -> saveCursor(upToId));
+        return upToId;
+    }
+
+    private void tail(long cursor, TableSyncResult stats) {
+        int batchSize = syncProperties.getStock().getBatchSize();
+        while (true) {
+            long from = cursor;
+            List<AdjustmentDetailEntity> rows = mysqlReadTemplate.execute(status ->
+                    adjustmentDetailDao.findByAdjustmentDetailIdGreaterThanOrderByAdjustmentDetailIdAsc(from, Limit.of(batchSize)));
+            // created_at comes from the writing terminal's clock, so this one is as good as any
+            List<AdjustmentDetailEntity> ready = SequenceGaps.untilUnsettledGap(cursor, rows, AdjustmentDetailEntity::getAdjustmentDetailId,
+                    AdjustmentDetailEntity::getCreatedAt, LocalDateTime.now().minus(syncProperties.getStock().getGapSettle()));
+            if (ready.isEmpty()) {
+                return;
+            }
+            // Only the last adjustment of a position in the batch matters
+            Map<LocalStockId, LocalStockEntity> latest = new LinkedHashMap<>();
+            for (AdjustmentDetailEntity row : ready) {
+                LocalStockEntity position = toPosition(row);
+                latest.put(new LocalStockId(position.getProductId(), position.getWarehouseId(), position.getBinId()), position);
+            }
+            cursor = ready.get(ready.size() - 1).getAdjustmentDetailId();
+            write(new ArrayList<>(latest.values()), ready.size(), cursor, stats);
+            if (ready.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Upsert positions and, when given, move the cursor in the same transaction.
+     */
+    private void write(List<LocalStockEntity> positions, int rowsRead, Long cursor, TableSyncResult stats) {
+        int written = sqliteWriteExecutor.execute(() -> {
+            int count = localStockDao.upsertAll(positions);
+            if (cursor != null) {
+                saveCursor(cursor);
+            }
+            return count;
+        });
+        stats.setFetched(stats.getFetched() + rowsRead);
+        stats.setSynced(stats.getSynced() + written);
+        stats.setSkipped(stats.getSkipped() + rowsRead - written);
+    }
+
+    private void saveCursor(long adjustmentDetailId) {
+        syncChangeCursorDao.save(new SyncChangeCursorEntity(FEED, adjustmentDetailId, null));
+    }
+
+    private static LocalStockEntity toPosition(AdjustmentDetailEntity row) {
+        return StockSyncMapper.INSTANCE.adjustmentDetailToLocalStockEntity(
+                AdjustmentDetailMapper.INSTANCE.adjustmentDetailEntityToAdjustmentDetail(row));
+    }
+}
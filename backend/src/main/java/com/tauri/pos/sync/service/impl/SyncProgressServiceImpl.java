@@ -0,0 +1,41 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.sync.model.SyncProgressEvent;
+import com.tauri.pos.sync.service.SyncProgressService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans catalog sync progress out to any number of subscribers.
+ * <p>
+ * Subscribers that fall behind miss intermediate events rather than slowing the sync down;
+ * every event carries cumulative counts, so the next one they receive is complete. A new
+ * subscriber first gets the latest event of each table, so a page opened mid-sync shows
+ * where it stands straight away.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.datasource.mysql.enabled", havingValue = "true", matchIfMissing = false)
+public class SyncProgressServiceImpl implements SyncProgressService {
+
+    private final Sinks.Many<SyncProgressEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Map<String, SyncProgressEvent> latest = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void publish(SyncProgressEvent event) {
+        latest.put(event.getTable(), event);
+        // Fails without subscribers, which is fine: nobody is watching
+        sink.tryEmitNext(event);
+    }
+
+    @Override
+    public Flux<SyncProgressEvent> stream() {
+        return Flux.defer(() -> Flux.fromIterable(new ArrayList<>(latest.values())))
+                .concatWith(sink.asFlux());
+    }
+}
@@ -0,0 +1,29 @@
+-- Optional triggers that record catalog changes made outside this application (ERP imports,
+-- manual SQL) in catalog_change_log, which Hibernate creates. Writes through the MySQL services
+-- are logged by the services already; the duplicate entries the triggers add are harmless.
+-- Run once against the ERP database with a client that understands DELIMITER.
+
+DELIMITER //
+
+CREATE TRIGGER trg_product_change_ins AFTER INSERT ON product FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_change_upd AFTER UPDATE ON product FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_change_del AFTER DELETE ON product FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product', OLD.product_id, NOW(6))//
+
+CREATE TRIGGER trg_product_barcode_change_ins AFTER INSERT ON product_barcode FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_barcode', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_barcode_change_upd AFTER UPDATE ON product_barcode FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_barcode', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_barcode_change_del AFTER DELETE ON product_barcode FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_barcode', OLD.product_id, NOW(6))//
+
+CREATE TRIGGER trg_product_description_change_ins AFTER INSERT ON product_description FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_description', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_description_change_upd AFTER UPDATE ON product_description FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_description', NEW.product_id, NOW(6))//
+CREATE TRIGGER trg_product_description_change_del AFTER DELETE ON product_description FOR EACH ROW
+    INSERT INTO catalog_change_log (table_name, product_id, changed_at) VALUES ('product_description', OLD.product_id, NOW(6))//
+
+DELIMITER ;
@@ -0,0 +1,161 @@
+-- Baseline schema of the terminal database.
+-- Tables are created only where missing. Columns that tables from the old drop-and-recreate
+-- init lack are added by SchemaMigrationServiceImpl before this script runs.
+
+-- Users of this terminal
+CREATE TABLE IF NOT EXISTS users (
+    userid INTEGER PRIMARY KEY AUTOINCREMENT,
+    username TEXT UNIQUE NOT NULL,
+    hashed_password TEXT NOT NULL,
+    permission TEXT NOT NULL DEFAULT 'user',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Default users with BCrypt hashes, kept if they already exist
+INSERT OR IGNORE INTO users (userid, username, hashed_password, permission, created_at, updated_at) VALUES
+(1, 'admin', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'admin', '2025-01-01 00:00:00', '2025-01-01 00:00:00'),
+(2, 'testuser', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'user', '2025-01-01 00:00:00', '2025-01-01 00:00:00');
+
+-- Create local SQLite tables (mirroring MySQL entities with local_ prefix)
+CREATE TABLE IF NOT EXISTS local_product (
+    product_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    status INTEGER NOT NULL DEFAULT 1,
+    brand_id INTEGER,
+    ebay_id INTEGER,
+    model_number VARCHAR(255),
+    sku VARCHAR(255),
+    date_available DATE,
+    date_backorder DATE,
+    date_preorder DATE,
+    qty_preorder INTEGER DEFAULT 0,
+    barcode VARCHAR(45),
+    weight DECIMAL(10,3),
+    weight_class_id INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL,
+    row_hash INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS local_product_barcode (
+    product_id INTEGER NOT NULL,
+    barcode VARCHAR(45) NOT NULL,
+    status INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL,
+    row_hash INTEGER,
+    PRIMARY KEY (product_id, barcode),
+    FOREIGN KEY (product_id) REFERENCES local_product(product_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS local_product_description (
+    product_id INTEGER NOT NULL,
+    site_id INTEGER NOT NULL,
+    language_id INTEGER NOT NULL,
+    name VARCHAR(255),
+    description TEXT,
+    feature TEXT,
+    specification TEXT,
+    include TEXT,
+    required TEXT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL,
+    row_hash INTEGER,
+    PRIMARY KEY (product_id, site_id, language_id),
+    FOREIGN KEY (product_id) REFERENCES local_product(product_id) ON DELETE CASCADE
+);
+
+-- Per-table updated_at high-water marks for delta catalog syncs
+CREATE TABLE IF NOT EXISTS sync_watermark (
+    table_name VARCHAR(64) PRIMARY KEY,
+    high_water_mark TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- Progress of an interrupted catalog sync, so a restart resumes from the last committed batch
+CREATE TABLE IF NOT EXISTS sync_checkpoint (
+    table_name VARCHAR(64) PRIMARY KEY,
+    mode VARCHAR(16) NOT NULL,
+    since TIMESTAMP,
+    last_product_id INTEGER,
+    batch_seq INTEGER NOT NULL DEFAULT 0,
+    rows_committed INTEGER NOT NULL DEFAULT 0,
+    errors INTEGER NOT NULL DEFAULT 0,
+    max_updated_at TIMESTAMP,
+    completed BOOLEAN NOT NULL DEFAULT 0,
+    started_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- Last MySQL sequence applied locally per tailed log: catalog_change_log, adjustment_detail
+CREATE TABLE IF NOT EXISTS sync_change_cursor (
+    feed VARCHAR(64) PRIMARY KEY,
+    last_seq INTEGER NOT NULL,
+    updated_at TIMESTAMP
+);
+
+-- On-hand quantity per product, warehouse and bin from the latest MySQL adjustment_detail row;
+-- warehouse_id and bin_id are 0 when the adjustment has none
+CREATE TABLE IF NOT EXISTS local_stock (
+    product_id INTEGER NOT NULL,
+    warehouse_id INTEGER NOT NULL,
+    bin_id INTEGER NOT NULL,
+    qty INTEGER,
+    last_adjustment_detail_id INTEGER NOT NULL,
+    adjusted_at TIMESTAMP,
+    PRIMARY KEY (product_id, warehouse_id, bin_id)
+);
+
+-- Order items rung up on this terminal, uploaded to MySQL's order_item by sync_status;
+-- FAILED rows are retried from next_attempt_at until sync_attempts exceeds sync.retry-attempts.
+-- idempotency_key is the client's key for the create, so a retried create finds the first row
+CREATE TABLE IF NOT EXISTS local_order_items (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    idempotency_key VARCHAR(64),
+    order_id INTEGER NOT NULL,
+    product_id INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    remote_id INTEGER,
+    sync_status VARCHAR(16),
+    last_sync TIMESTAMP,
+    sync_attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    sync_error VARCHAR(500),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- Writes to MySQL waiting to be applied in seq order, deleted once applied.
+-- status is PENDING, FAILED while the head entry waits for next_attempt_at, or CONFLICT once parked
+CREATE TABLE IF NOT EXISTS mysql_outbox (
+    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+    table_name VARCHAR(64) NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    entity_key VARCHAR(128),
+    payload TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error VARCHAR(500),
+    queued_at TIMESTAMP NOT NULL
+);
+
+-- Create indexes for local tables
+CREATE INDEX IF NOT EXISTS idx_local_product_status ON local_product(status);
+CREATE INDEX IF NOT EXISTS idx_local_product_brand_id ON local_product(brand_id);
+CREATE INDEX IF NOT EXISTS idx_local_product_sku ON local_product(sku);
+CREATE INDEX IF NOT EXISTS idx_local_product_barcode ON local_product(barcode);
+CREATE INDEX IF NOT EXISTS idx_local_product_barcode_status ON local_product_barcode(status);
+CREATE INDEX IF NOT EXISTS idx_local_product_description_product_id ON local_product_description(product_id);
+CREATE INDEX IF NOT EXISTS idx_local_product_description_site_id ON local_product_description(site_id);
+CREATE INDEX IF NOT EXISTS idx_local_product_description_language_id ON local_product_description(language_id);
+CREATE INDEX IF NOT EXISTS idx_local_order_items_sync_status ON local_order_items(sync_status, id);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_local_order_items_idempotency_key ON local_order_items(idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_mysql_outbox_status ON mysql_outbox(status, seq);
@@ -0,0 +1,2 @@
+-- Checkout looks barcodes up without their product_id, which the primary key cannot serve
+CREATE INDEX IF NOT EXISTS idx_local_product_barcode_barcode ON local_product_barcode(barcode);
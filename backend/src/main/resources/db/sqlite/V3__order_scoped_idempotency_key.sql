@@ -0,0 +1,3 @@
+-- Idempotency keys are unique per order, so two orders may reuse a client key
+DROP INDEX IF EXISTS idx_local_order_items_idempotency_key;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_local_order_items_order_idempotency_key ON local_order_items(order_id, idempotency_key);
@@ -0,0 +1,85 @@
+package com.tauri.pos;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A terminal database in a file of its own for tests, opened with foreign keys enforced.
+ */
+public final class SqliteTestDatabase {
+
+    private SqliteTestDatabase() {
+    }
+
+    public static SQLiteDataSource open(Path file) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.enforceForeignKeys(true);
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:" + file.toAbsolutePath());
+        return dataSource;
+    }
+
+    /**
+     * Run a script from the classpath, e.g. {@code db/sqlite/V1__baseline.sql}, the way migrations
+     * split it: on {@code ;}, skipping {@code --} comment lines.
+     */
+    public static void runScript(JdbcTemplate jdbcTemplate, String location) {
+        String sql;
+        try (InputStream in = new ClassPathResource(location).getInputStream()) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String withoutComments = sql.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        Arrays.stream(withoutComments.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * The terminal's entities on the data source, mapped as SqliteConfig maps them.
+     */
+    public static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.tauri.pos.sqlite.persistance.eo");
+        factory.setPersistenceUnitName("sqlite");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.community.dialect.SQLiteDialect",
+                "hibernate.hbm2ddl.auto", "none"));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    /**
+     * A DAO on the entity manager factory, with the custom implementations its interface extends.
+     * Without the transactional proxy of the application, its writes must run in the writer.
+     */
+    public static <T> T repository(Class<T> type, EntityManagerFactory entityManagerFactory, Object... fragments) {
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        return factory.getRepository(type, RepositoryFragments.just(fragments));
+    }
+}
@@ -0,0 +1,185 @@
+package com.tauri.pos.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqliteWriteExecutorTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private SqliteWriteExecutor executor;
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private final Set<Object> transactions = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + directory.resolve("test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE item (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO item (id, name) VALUES (1, 'existing')");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        // Three writes form one group: the writer waits for the third rather than the interval
+        SqliteWriterProperties properties = new SqliteWriterProperties();
+        properties.setCommitInterval(Duration.ofSeconds(10));
+        properties.setMaxBatch(3);
+        executor = new SqliteWriteExecutor(transactionManager, jdbcTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void failingWriteIsRolledBackAloneAndNoWriteRunsTwice() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger failingRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+
+        List<CompletableFuture<Object>> writes = submitGroup(
+                () -> insert(2, "first", firstRuns),
+                () -> {
+                    insert(3, "partial", failingRuns);
+                    // Duplicate primary key
+                    return jdbcTemplate.update("INSERT INTO item (id, name) VALUES (1, 'duplicate')");
+                },
+                () -> insert(4, "last", lastRuns));
+
+        assertThat(writes.get(0).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> writes.get(1).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DataAccessException.class);
+        assertThat(writes.get(2).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+
+        assertThat(names()).containsExactly("existing", "first", "last");
+        assertThat(List.of(firstRuns.get(), failingRuns.get(), lastRuns.get())).containsExactly(1, 1, 1);
+        assertThat(transactions).hasSize(1);
+    }
+
+    @Test
+    void errorFailsTheWholeGroupWithoutRetrying() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger erroringRuns = new AtomicInteger();
+
+        List<CompletableFuture<Object>> writes = submitGroup(
+                () -> insert(2, "first", firstRuns),
+                () -> {
+                    erroringRuns.incrementAndGet();
+                    throw new AssertionError("boom");
+                },
+                () -> insert(4, "last", new AtomicInteger()));
+
+        for (CompletableFuture<Object> write : writes) {
+            assertThatThrownBy(() -> write.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        }
+        assertThat(names()).containsExactly("existing");
+        assertThat(List.of(firstRuns.get(), erroringRuns.get())).containsExactly(1, 1);
+    }
+
+    @Test
+    void writeDoomingTheTransactionOnlyReRunsWritesThatSucceededBeforeIt() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+        TransactionTemplate participating = new TransactionTemplate(transactionManager);
+
+        List<CompletableFuture<Object>> writes = submitGroup(
+                () -> insert(2, "first", firstRuns),
+                // A participating transaction that fails marks the shared one rollback-only
+                () -> participating.execute(status -> {
+                    throw new IllegalStateException("doomed");
+                }),
+                () -> insert(4, "last", lastRuns));
+
+        assertThat(writes.get(0).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> writes.get(1).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(writes.get(2).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+
+        assertThat(names()).containsExactly("existing", "first", "last");
+        assertThat(firstRuns).hasValue(2);
+        assertThat(lastRuns).hasValue(1);
+    }
+
+    @Test
+    void writeDoomingTheTransactionFailsOnlyOnceTheOthersCommitted() throws Exception {
+        TransactionTemplate participating = new TransactionTemplate(transactionManager);
+
+        List<CompletableFuture<Object>> calls = submitCalls(
+                () -> executor.execute(() -> insert(2, "first", new AtomicInteger())),
+                () -> {
+                    try {
+                        return executor.execute(() -> participating.execute(status -> {
+                            throw new IllegalStateException("doomed");
+                        }));
+                    } catch (IllegalStateException e) {
+                        // What a caller sees when it looks at the database after its write failed
+                        return names();
+                    }
+                },
+                () -> executor.execute(() -> insert(4, "last", new AtomicInteger())));
+
+        assertThat(calls.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(List.of("existing", "first", "last"));
+    }
+
+    /**
+     * Queue the writes in order from threads of their own; the writer holds them until all are in.
+     */
+    @SafeVarargs
+    private List<CompletableFuture<Object>> submitGroup(Supplier<Object>... works) throws InterruptedException {
+        List<Supplier<Object>> calls = new ArrayList<>();
+        for (Supplier<Object> work : works) {
+            calls.add(() -> executor.execute(work));
+        }
+        return submitCalls(calls.toArray(Supplier[]::new));
+    }
+
+    /**
+     * Make the calls in order from threads of their own, each queueing one write.
+     */
+    @SafeVarargs
+    private List<CompletableFuture<Object>> submitCalls(Supplier<Object>... calls) throws InterruptedException {
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        for (Supplier<Object> call : calls) {
+            results.add(CompletableFuture.supplyAsync(call, callers));
+            Thread.sleep(100);
+        }
+        return results;
+    }
+
+    private Object insert(int id, String name, AtomicInteger runs) {
+        runs.incrementAndGet();
+        transactions.add(TransactionSynchronizationManager.getResource(jdbcTemplate.getDataSource()));
+        return jdbcTemplate.update("INSERT INTO item (id, name) VALUES (?, ?)", id, name);
+    }
+
+    private List<String> names() {
+        return jdbcTemplate.queryForList("SELECT name FROM item ORDER BY id", String.class);
+    }
+}
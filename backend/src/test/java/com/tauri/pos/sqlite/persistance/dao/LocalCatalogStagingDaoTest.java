@@ -0,0 +1,87 @@
+package com.tauri.pos.sqlite.persistance.dao;
+
+import com.tauri.pos.SqliteTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalCatalogStagingDaoTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private LocalCatalogStagingDao dao;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = SqliteTestDatabase.open(directory.resolve("test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V1__baseline.sql");
+        dao = new LocalCatalogStagingDao(jdbcTemplate);
+
+        insertProduct("local_product", 1, "OLD-1");
+        insertBarcode("local_product_barcode", 1, "111");
+    }
+
+    @Test
+    void stagingChildrenReferenceTheStagingParent() {
+        dao.createStagingTables();
+
+        assertThat(tableSql("local_product_barcode_staging")).contains("REFERENCES local_product_staging");
+        assertThat(tableSql("local_product_description_staging")).contains("REFERENCES local_product_staging");
+        // Staging rows only need a staging parent
+        insertProduct("local_product_staging", 2, "NEW-2");
+        insertBarcode("local_product_barcode_staging", 2, "222");
+        assertThatThrownBy(() -> insertBarcode("local_product_barcode_staging", 1, "111"))
+                .isInstanceOf(DataAccessException.class);
+    }
+
+    @Test
+    void swapWithForeignKeysOnReplacesTheCatalogAndKeepsItsForeignKeys() {
+        dao.createStagingTables();
+        insertProduct("local_product_staging", 2, "NEW-2");
+        insertProduct("local_product_staging", 3, "NEW-3");
+        insertBarcode("local_product_barcode_staging", 2, "222");
+        dao.createStagingIndexes();
+
+        transactionTemplate.executeWithoutResult(status -> dao.swapStagingTables());
+
+        assertThat(jdbcTemplate.queryForList("SELECT sku FROM local_product ORDER BY product_id", String.class))
+                .containsExactly("NEW-2", "NEW-3");
+        assertThat(jdbcTemplate.queryForList("SELECT barcode FROM local_product_barcode", String.class))
+                .containsExactly("222");
+        assertThat(dao.stagingTablesExist()).isFalse();
+        assertThat(jdbcTemplate.queryForList("PRAGMA foreign_key_check")).isEmpty();
+        assertThat(tableSql("local_product_barcode")).contains("REFERENCES \"local_product\"").doesNotContain("_staging");
+        assertThatThrownBy(() -> insertBarcode("local_product_barcode", 1, "111"))
+                .isInstanceOf(DataAccessException.class);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'local_product' AND sql IS NOT NULL", String.class))
+                .contains("idx_local_product_sku_swap");
+    }
+
+    private void insertProduct(String table, int productId, String sku) {
+        jdbcTemplate.update("INSERT INTO " + table + " (product_id, sku, created_by, updated_by) VALUES (?, ?, 1, 1)", productId, sku);
+    }
+
+    private void insertBarcode(String table, int productId, String barcode) {
+        jdbcTemplate.update("INSERT INTO " + table + " (product_id, barcode, created_by, updated_by) VALUES (?, ?, 1, 1)", productId, barcode);
+    }
+
+    private String tableSql(String table) {
+        return jdbcTemplate.queryForObject("SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?", String.class, table);
+    }
+}
@@ -0,0 +1,104 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.SqliteMaintenanceProperties;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.sqlite.persistance.dao.DatabaseMaintenanceDao;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DatabaseMaintenanceServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+
+    private HikariDataSource writePool;
+    private JdbcTemplate jdbcTemplate;
+    private SqliteWriteExecutor writer;
+    private SqliteMaintenanceProperties properties;
+    private DatabaseMaintenanceDao databaseMaintenanceDao;
+    private DatabaseMaintenanceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        // One connection, like the writer's pool: PRAGMA auto_vacuum only sticks for the VACUUM after it
+        writePool = new HikariDataSource();
+        writePool.setDataSource(SqliteTestDatabase.open(directory.resolve("test.db")));
+        writePool.setMaximumPoolSize(1);
+        jdbcTemplate = new JdbcTemplate(writePool);
+        // Created without auto-vacuum, as terminal databases were before maintenance
+        jdbcTemplate.execute("CREATE TABLE filler (id INTEGER PRIMARY KEY, data BLOB)");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+        writer = new SqliteWriteExecutor(transactionManager, jdbcTemplate, new SqliteWriterProperties());
+
+        properties = new SqliteMaintenanceProperties();
+        properties.setIdleAfter(Duration.ZERO);
+        properties.setVacuumMinFreePages(16);
+        databaseMaintenanceDao = new DatabaseMaintenanceDao(jdbcTemplate);
+        service = new DatabaseMaintenanceServiceImpl(databaseMaintenanceDao, writer, properties, taskScheduler,
+                transactionManager, mock(HotCatalogService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+        writePool.close();
+    }
+
+    @Test
+    void scheduledRunLeavesTheFileAloneWhileFewPagesAreFree() {
+        scheduledRun().run();
+
+        assertThat(databaseMaintenanceDao.autoVacuum()).isZero();
+        assertThat(service.getState().getLastVacuumAt()).isNotNull();
+    }
+
+    @Test
+    void scheduledRunSwitchesToIncrementalVacuumOnceEnoughPagesAreFree() {
+        jdbcTemplate.update("""
+                WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 64)
+                INSERT INTO filler (data) SELECT randomblob(4000) FROM n""");
+        jdbcTemplate.update("DELETE FROM filler");
+        assertThat(databaseMaintenanceDao.pragma("freelist_count")).isGreaterThanOrEqualTo(16);
+
+        scheduledRun().run();
+
+        assertThat(databaseMaintenanceDao.autoVacuum()).isEqualTo(2);
+        assertThat(databaseMaintenanceDao.pragma("freelist_count")).isZero();
+    }
+
+    @Test
+    void manualRunSwitchesToIncrementalVacuumWhateverIsFree() {
+        service.runMaintenance();
+
+        assertThat(databaseMaintenanceDao.autoVacuum()).isEqualTo(2);
+    }
+
+    private Runnable scheduledRun() {
+        service.start();
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).scheduleWithFixedDelay(run.capture(), any(Instant.class), eq(properties.getCheckInterval()));
+        return run.getValue();
+    }
+}
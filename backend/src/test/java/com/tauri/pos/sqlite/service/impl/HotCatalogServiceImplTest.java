@@ -0,0 +1,181 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.HotCatalogProperties;
+import com.tauri.pos.config.SqliteProperties;
+import com.tauri.pos.config.SqliteRoutingDataSource;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeBatchDaoImpl;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBatchDaoImpl;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotCatalogServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private HikariDataSource writePool;
+    private JdbcTemplate jdbcTemplate;
+    private SqliteWriteExecutor writer;
+    private ThreadPoolTaskScheduler scheduler;
+    private EntityManagerFactory entityManagerFactory;
+    private HotCatalogServiceImpl hotCatalog;
+
+    @BeforeEach
+    void setUp() {
+        Path file = directory.resolve("test.db");
+        String url = "jdbc:sqlite:" + file.toAbsolutePath();
+        JdbcTemplate setup = new JdbcTemplate(SqliteTestDatabase.open(file));
+        setup.execute("PRAGMA journal_mode = WAL");
+        SqliteTestDatabase.runScript(setup, "db/sqlite/V1__baseline.sql");
+        setup.update("INSERT INTO local_product (product_id, sku, created_by, updated_by) VALUES (1, 'SKU-1', 1, 1)");
+
+        // Routed like the application: the writer thread on one connection, everything else on its own
+        writePool = new HikariDataSource();
+        writePool.setJdbcUrl(url);
+        writePool.setMaximumPoolSize(1);
+        SqliteRoutingDataSource routing = new SqliteRoutingDataSource();
+        routing.setTargetDataSources(Map.of("write", writePool, "read", SqliteTestDatabase.open(file)));
+        routing.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(routing);
+        writer = new SqliteWriteExecutor(new DataSourceTransactionManager(routing), jdbcTemplate, new SqliteWriterProperties());
+        entityManagerFactory = SqliteTestDatabase.entityManagerFactory(routing);
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        SqliteProperties sqliteProperties = new SqliteProperties();
+        sqliteProperties.setJdbcUrl(url);
+        HotCatalogProperties hotCatalogProperties = new HotCatalogProperties();
+        hotCatalogProperties.setEnabled(true);
+        hotCatalog = new HotCatalogServiceImpl(hotCatalogProperties, sqliteProperties, writer, jdbcTemplate, scheduler,
+                SqliteTestDatabase.repository(LocalProductDao.class, entityManagerFactory, new LocalProductBatchDaoImpl(jdbcTemplate)),
+                SqliteTestDatabase.repository(LocalProductBarcodeDao.class, entityManagerFactory,
+                        new LocalProductBarcodeBatchDaoImpl(jdbcTemplate)));
+        hotCatalog.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotCatalog.shutdown();
+        writer.shutdown();
+        scheduler.shutdown();
+        entityManagerFactory.close();
+        writePool.close();
+    }
+
+    @Test
+    void loadsTheCatalogAtStartup() {
+        assertThat(hotCatalog.getState().isLoaded()).isTrue();
+        assertThat(hotCatalog.findProductById(1L)).map(LocalProductEntity::getSku).contains("SKU-1");
+    }
+
+    @Test
+    void lookupsRightAfterACommitSeeIt() {
+        writer.run(() -> {
+            insertProduct(2, "SKU-2");
+            jdbcTemplate.update("INSERT INTO local_product_barcode (product_id, barcode, created_by, updated_by) VALUES (2, '222', 1, 1)");
+            jdbcTemplate.update("UPDATE local_product SET sku = 'SKU-1B' WHERE product_id = 1");
+        });
+
+        // Read from the database until the copy has the commit, never from a stale copy
+        assertThat(hotCatalog.findProductById(2L)).map(LocalProductEntity::getSku).contains("SKU-2");
+        assertThat(hotCatalog.findBarcodesByBarcode("222")).hasSize(1);
+        assertThat(hotCatalog.findProductsBySku("SKU-1")).isEmpty();
+
+        writer.run(() -> {
+            jdbcTemplate.update("DELETE FROM local_product_barcode WHERE product_id = 2");
+            jdbcTemplate.update("DELETE FROM local_product WHERE product_id = 2");
+        });
+
+        assertThat(hotCatalog.findProductById(2L)).isEmpty();
+        assertThat(hotCatalog.findBarcodesByProductId(2)).isEmpty();
+    }
+
+    @Test
+    void mirrorsCommittedInsertsUpdatesAndDeletes() {
+        writer.run(() -> {
+            insertProduct(2, "SKU-2");
+            jdbcTemplate.update("INSERT INTO local_product_barcode (product_id, barcode, created_by, updated_by) VALUES (2, '222', 1, 1)");
+            jdbcTemplate.update("UPDATE local_product SET sku = 'SKU-1B' WHERE product_id = 1");
+        });
+
+        await(() -> copied(2));
+        assertThat(hotCatalog.findProductById(2L)).isPresent();
+        assertThat(hotCatalog.findBarcodesByBarcode("222")).hasSize(1);
+        assertThat(hotCatalog.findProductsBySku("SKU-1B")).hasSize(1);
+        assertThat(hotCatalog.findProductsBySku("SKU-1")).isEmpty();
+
+        writer.run(() -> {
+            jdbcTemplate.update("DELETE FROM local_product_barcode WHERE product_id = 2");
+            jdbcTemplate.update("DELETE FROM local_product WHERE product_id = 2");
+        });
+
+        await(() -> copied(1));
+        assertThat(hotCatalog.findProductById(2L)).isEmpty();
+        assertThat(hotCatalog.findBarcodesByBarcode("222")).isEmpty();
+    }
+
+    @Test
+    void leavesOutRolledBackWrites() {
+        // Rolled back to its savepoint while the rest of its group commits
+        assertThatThrownBy(() -> writer.run(() -> {
+            insertProduct(3, "SKU-3");
+            throw new IllegalStateException("rejected");
+        })).isInstanceOf(IllegalStateException.class);
+        // Rolls back the whole transaction
+        assertThatThrownBy(() -> writer.run(() -> {
+            insertProduct(4, "SKU-4");
+            throw new AssertionError("boom");
+        })).isInstanceOf(AssertionError.class);
+        writer.run(() -> insertProduct(5, "SKU-5"));
+
+        await(() -> copied(2));
+        assertThat(hotCatalog.findProductById(5L)).isPresent();
+        assertThat(hotCatalog.findProductById(3L)).isEmpty();
+        assertThat(hotCatalog.findProductById(4L)).isEmpty();
+        assertThat(hotCatalog.getState().getRows()).containsEntry("local_product", 2L);
+    }
+
+    /**
+     * Whether the copy holds this many products, i.e. a commit made them so.
+     */
+    private boolean copied(long products) {
+        return hotCatalog.getState().getRows().get("local_product") == products;
+    }
+
+    private void insertProduct(int productId, String sku) {
+        jdbcTemplate.update("INSERT INTO local_product (product_id, sku, created_by, updated_by) VALUES (?, ?, 1, 1)", productId, sku);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.sqlite.model.LocalOrderItem;
+import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemBatchDaoImpl;
+import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemDao;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalOrderItemServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private SqliteWriteExecutor writer;
+    private LocalOrderItemServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = SqliteTestDatabase.open(directory.resolve("test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("PRAGMA journal_mode = WAL");
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V1__baseline.sql");
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V3__order_scoped_idempotency_key.sql");
+
+        // Two creates form one group: the writer waits for the second rather than the interval
+        SqliteWriterProperties properties = new SqliteWriterProperties();
+        properties.setCommitInterval(Duration.ofSeconds(10));
+        properties.setMaxBatch(2);
+        entityManagerFactory = SqliteTestDatabase.entityManagerFactory(dataSource);
+        writer = new SqliteWriteExecutor(new JpaTransactionManager(entityManagerFactory), jdbcTemplate, properties);
+        LocalOrderItemDao localOrderItemDao = SqliteTestDatabase.repository(LocalOrderItemDao.class, entityManagerFactory,
+                new LocalOrderItemBatchDaoImpl(jdbcTemplate));
+        service = new LocalOrderItemServiceImpl(localOrderItemDao, writer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        writer.shutdown();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    void concurrentCreatesWithTheSameKeyCreateOneItem() throws Exception {
+        CompletableFuture<LocalOrderItem> first = create(item(1L, 7L, "key-1"));
+        CompletableFuture<LocalOrderItem> retry = create(item(1L, 7L, "key-1"));
+
+        LocalOrderItem created = first.get(5, TimeUnit.SECONDS);
+        assertThat(retry.get(5, TimeUnit.SECONDS).getId()).isEqualTo(created.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM local_order_items", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCreatesReusingAKeyForAnotherProductAreRejected() throws Exception {
+        CompletableFuture<LocalOrderItem> first = create(item(1L, 7L, "key-1"));
+        CompletableFuture<LocalOrderItem> reused = create(item(1L, 8L, "key-1"));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getProductId()).isEqualTo(7L);
+        assertThatThrownBy(() -> reused.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM local_order_items", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyInAnotherOrderCreatesAnotherItem() throws Exception {
+        CompletableFuture<LocalOrderItem> first = create(item(1L, 7L, "key-1"));
+        CompletableFuture<LocalOrderItem> other = create(item(2L, 7L, "key-1"));
+
+        assertThat(other.get(5, TimeUnit.SECONDS).getId()).isNotEqualTo(first.get(5, TimeUnit.SECONDS).getId());
+    }
+
+    /**
+     * Create the item from a thread of its own, once the create before it has been queued.
+     */
+    private CompletableFuture<LocalOrderItem> create(LocalOrderItem item) throws InterruptedException {
+        CompletableFuture<LocalOrderItem> created = CompletableFuture.supplyAsync(() -> service.createLocalOrderItem(item), callers);
+        Thread.sleep(100);
+        return created;
+    }
+
+    private static LocalOrderItem item(Long orderId, Long productId, String idempotencyKey) {
+        return LocalOrderItem.builder()
+                .orderId(orderId)
+                .productId(productId)
+                .quantity(1)
+                .price(new BigDecimal("9.99"))
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.tauri.pos.sqlite.service.impl;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.sqlite.model.SchemaMigration;
+import com.tauri.pos.sqlite.persistance.dao.SchemaVersionDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private SqliteWriteExecutor writer;
+    private SchemaVersionDao schemaVersionDao;
+    private SchemaMigrationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(SqliteTestDatabase.open(directory.resolve("test.db")));
+        writer = new SqliteWriteExecutor(new DataSourceTransactionManager(jdbcTemplate.getDataSource()), jdbcTemplate,
+                new SqliteWriterProperties());
+        schemaVersionDao = new SchemaVersionDao(jdbcTemplate);
+        service = new SchemaMigrationServiceImpl(schemaVersionDao, writer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void upgradesADatabaseCreatedByTheOldInit() {
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/legacy/drop_and_recreate_init.sql");
+        jdbcTemplate.update("INSERT INTO local_product (product_id, sku, created_by, updated_by) VALUES (7, 'SKU-7', 1, 1)");
+
+        List<SchemaMigration> applied = service.migrate();
+
+        assertThat(applied).extracting(SchemaMigration::getVersion).startsWith(1);
+        assertThat(service.getCurrentVersion()).isEqualTo(applied.get(applied.size() - 1).getVersion());
+        for (String table : List.of("local_product", "local_product_barcode", "local_product_description")) {
+            assertThat(schemaVersionDao.columnsOf(table)).contains("row_hash");
+        }
+        assertThat(schemaVersionDao.columnsOf("local_order_items"))
+                .contains("idempotency_key", "sync_attempts", "next_attempt_at", "sync_error");
+        assertThat(jdbcTemplate.queryForObject("SELECT sku FROM local_product WHERE product_id = 7", String.class))
+                .isEqualTo("SKU-7");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void addsOrderItemColumnsBeforeTheirIndexesAreCreated() {
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/legacy/drop_and_recreate_init.sql");
+        // local_order_items as created before uploads were retried or keyed
+        jdbcTemplate.execute("""
+                CREATE TABLE local_order_items (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    order_id INTEGER NOT NULL,
+                    product_id INTEGER NOT NULL,
+                    quantity INTEGER NOT NULL,
+                    price DECIMAL(10,2) NOT NULL,
+                    remote_id INTEGER,
+                    sync_status VARCHAR(16),
+                    last_sync TIMESTAMP,
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP
+                )
+                """);
+        jdbcTemplate.update("INSERT INTO local_order_items (order_id, product_id, quantity, price, sync_status) "
+                + "VALUES (1, 7, 2, 9.99, 'PENDING')");
+
+        service.migrate();
+
+        assertThat(schemaVersionDao.columnsOf("local_order_items"))
+                .contains("idempotency_key", "sync_attempts", "next_attempt_at", "sync_error");
+        assertThat(jdbcTemplate.queryForObject("SELECT sync_attempts FROM local_order_items", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'local_order_items'", String.class))
+                .contains("idx_local_order_items_order_idempotency_key");
+    }
+
+    @Test
+    void migratingAgainAppliesNothing() {
+        service.migrate();
+
+        assertThat(service.migrate()).isEmpty();
+    }
+}
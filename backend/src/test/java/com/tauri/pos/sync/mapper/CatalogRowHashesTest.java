@@ -0,0 +1,226 @@
+package com.tauri.pos.sync.mapper;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.mysql.persistance.dao.ProductBarcodeDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDescriptionDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBatchDaoImpl;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductBarcodeEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductDescriptionEntity;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogRowHashesTest {
+
+    // The audit times as MySQL stores them, and as the driver hands them to the JVM
+    private static final LocalDateTime CREATED_UTC = LocalDateTime.of(2024, 1, 31, 23, 30, 5);
+    private static final LocalDateTime UPDATED_UTC = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+
+    private static final Pattern COLUMN = Pattern.compile("\\b([a-z_]+)\\b");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void productHashMatchesTheMySqlExpression() {
+        LocalProductEntity product = product();
+
+        Map<String, String> mysql = new HashMap<>();
+        mysql.put("product_id", "7");
+        mysql.put("status", "1");
+        mysql.put("brand_id", "3");
+        mysql.put("ebay_id", "900");
+        mysql.put("model_number", "M-7");
+        mysql.put("sku", "SKU-7");
+        mysql.put("date_available", "2024-01-31");
+        mysql.put("date_backorder", null);
+        mysql.put("date_preorder", null);
+        mysql.put("qty_preorder", "0");
+        mysql.put("barcode", "0123456789");
+        mysql.put("weight", "1.50");
+        mysql.put("weight_class_id", "2");
+        mysql.put("created_by", "1");
+        mysql.put("updated_by", "4");
+        putAuditTimes(mysql);
+
+        assertThat(CatalogRowHashes.product(product)).isEqualTo(mysqlHash(ProductDao.ROW_HASH, mysql));
+    }
+
+    @Test
+    void barcodeHashMatchesTheMySqlExpression() {
+        LocalProductBarcodeEntity barcode = new LocalProductBarcodeEntity();
+        barcode.setProductId(7);
+        barcode.setBarcode("0123456789");
+        barcode.setStatus(1);
+        barcode.setCreatedBy(1);
+        barcode.setUpdatedBy(4);
+        barcode.setCreatedAt(jvmTime(CREATED_UTC));
+        barcode.setUpdatedAt(jvmTime(UPDATED_UTC));
+
+        Map<String, String> mysql = new HashMap<>();
+        mysql.put("product_id", "7");
+        mysql.put("barcode", "0123456789");
+        mysql.put("status", "1");
+        mysql.put("created_by", "1");
+        mysql.put("updated_by", "4");
+        putAuditTimes(mysql);
+
+        assertThat(CatalogRowHashes.barcode(barcode)).isEqualTo(mysqlHash(ProductBarcodeDao.ROW_HASH, mysql));
+    }
+
+    @Test
+    void descriptionHashMatchesTheMySqlExpression() {
+        LocalProductDescriptionEntity description = new LocalProductDescriptionEntity();
+        description.setProductId(7);
+        description.setSiteId(1);
+        description.setLanguageId(2);
+        description.setName("Widget");
+        description.setDescription("A widget");
+        description.setCreatedBy(1);
+        description.setUpdatedBy(4);
+        description.setCreatedAt(jvmTime(CREATED_UTC));
+        description.setUpdatedAt(jvmTime(UPDATED_UTC));
+
+        Map<String, String> mysql = new HashMap<>();
+        mysql.put("product_id", "7");
+        mysql.put("site_id", "1");
+        mysql.put("language_id", "2");
+        mysql.put("name", "Widget");
+        mysql.put("description", "A widget");
+        mysql.put("feature", null);
+        mysql.put("specification", null);
+        mysql.put("include", null);
+        mysql.put("required", null);
+        mysql.put("created_by", "1");
+        mysql.put("updated_by", "4");
+        putAuditTimes(mysql);
+
+        assertThat(CatalogRowHashes.description(description))
+                .isEqualTo(mysqlHash(ProductDescriptionDao.ROW_HASH, mysql));
+    }
+
+    @Test
+    void changingOnlyUpdatedAtChangesTheHash() {
+        LocalProductEntity product = product();
+        long before = CatalogRowHashes.product(product);
+
+        product.setUpdatedAt(product.getUpdatedAt().plusSeconds(1));
+
+        assertThat(CatalogRowHashes.product(product)).isNotEqualTo(before);
+    }
+
+    @Test
+    void changedOnlyUpsertSkipsUnchangedRowsAndWritesTimestampOnlyChanges() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(SqliteTestDatabase.open(directory.resolve("test.db")));
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V1__baseline.sql");
+        LocalProductBatchDaoImpl dao = new LocalProductBatchDaoImpl(jdbcTemplate);
+
+        assertThat(dao.upsertAll(List.of(hashed(product())))).isEqualTo(1);
+        assertThat(dao.upsertAll(List.of(hashed(product())))).isZero();
+
+        LocalProductEntity touched = product();
+        touched.setUpdatedAt(touched.getUpdatedAt().plusMinutes(5));
+        assertThat(dao.upsertAll(List.of(hashed(touched)))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT row_hash FROM local_product WHERE product_id = 7", Long.class))
+                .isEqualTo(touched.getRowHash());
+    }
+
+    private static LocalProductEntity product() {
+        LocalProductEntity product = new LocalProductEntity();
+        product.setProductId(7L);
+        product.setStatus(1);
+        product.setBrandId(3);
+        product.setEbayId(900);
+        product.setModelNumber("M-7");
+        product.setSku("SKU-7");
+        product.setDateAvailable(LocalDate.of(2024, 1, 31));
+        product.setQtyPreorder(0);
+        product.setBarcode("0123456789");
+        product.setWeight(new BigDecimal("1.5"));
+        product.setWeightClassId(2);
+        product.setCreatedBy(1);
+        product.setUpdatedBy(4);
+        product.setCreatedAt(jvmTime(CREATED_UTC));
+        product.setUpdatedAt(jvmTime(UPDATED_UTC));
+        return product;
+    }
+
+    private static LocalProductEntity hashed(LocalProductEntity product) {
+        product.setRowHash(CatalogRowHashes.product(product));
+        return product;
+    }
+
+    private static LocalDateTime jvmTime(LocalDateTime utc) {
+        return utc.atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // DATE_FORMAT(x, '%Y%m%d%H%i%s') over the stored UTC value
+    private static void putAuditTimes(Map<String, String> mysql) {
+        mysql.put("created_at", "20240131233005");
+        mysql.put("updated_at", "20240301101530");
+    }
+
+    /**
+     * Evaluate a DAO's ROW_HASH the way MySQL would: CONCAT_WS over the rendered columns in the
+     * expression's order, with CHAR(0) standing in for NULL, and the first 16 hex digits of the MD5.
+     */
+    private static long mysqlHash(String rowHash, Map<String, String> row) {
+        List<String> columns = columnsOf(rowHash);
+        assertThat(row.keySet()).containsExactlyInAnyOrderElementsOf(columns);
+        StringBuilder joined = new StringBuilder();
+        for (String column : columns) {
+            if (!joined.isEmpty()) {
+                joined.append('\u001f');
+            }
+            joined.append(row.get(column) == null ? "\u0000" : row.get(column));
+        }
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(joined.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(md5).getLong();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static List<String> columnsOf(String rowHash) {
+        String arguments = rowHash.substring(rowHash.indexOf("CHAR(31),") + "CHAR(31),".length(),
+                rowHash.indexOf(")), 16)"));
+        List<String> columns = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= arguments.length(); i++) {
+            char c = i < arguments.length() ? arguments.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                Matcher column = COLUMN.matcher(arguments.substring(start, i));
+                assertThat(column.find()).isTrue();
+                columns.add(column.group(1));
+                start = i + 1;
+            }
+        }
+        return columns;
+    }
+}
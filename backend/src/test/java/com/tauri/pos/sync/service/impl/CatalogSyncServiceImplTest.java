@@ -0,0 +1,199 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.mysql.persistance.dao.ProductBarcodeDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDao;
+import com.tauri.pos.mysql.persistance.dao.ProductDescriptionDao;
+import com.tauri.pos.mysql.persistance.eo.ProductEntity;
+import com.tauri.pos.shared.enums.CatalogSyncMode;
+import com.tauri.pos.sqlite.persistance.dao.LocalCatalogStagingDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductBarcodeDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDao;
+import com.tauri.pos.sqlite.persistance.dao.LocalProductDescriptionDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncCheckpointDao;
+import com.tauri.pos.sqlite.persistance.dao.SyncWatermarkDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalProductEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncCheckpointEntity;
+import com.tauri.pos.sqlite.persistance.eo.SyncWatermarkEntity;
+import com.tauri.pos.sqlite.service.HotCatalogService;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.model.SyncResult;
+import com.tauri.pos.sync.service.SyncProgressService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSyncServiceImplTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @TempDir
+    Path directory;
+
+    private final ProductDao productDao = mock(ProductDao.class);
+    private final LocalProductDao localProductDao = mock(LocalProductDao.class);
+    private final SyncCheckpointDao syncCheckpointDao = mock(SyncCheckpointDao.class);
+    private final SyncWatermarkDao syncWatermarkDao = mock(SyncWatermarkDao.class);
+
+    // sync_checkpoint and sync_watermark rows, by table
+    private final Map<String, SyncCheckpointEntity> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, SyncWatermarkEntity> watermarks = new ConcurrentHashMap<>();
+    // product_ids passed to the local upsert, one list per committed batch
+    private final List<List<Long>> writtenBatches = new ArrayList<>();
+    private final CountDownLatch sixRowsWritten = new CountDownLatch(6);
+
+    private SqliteWriteExecutor writer;
+    private CatalogSyncServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(syncCheckpointDao.findById(any())).thenAnswer(call -> Optional.ofNullable(checkpoints.get(call.<String>getArgument(0))));
+        when(syncCheckpointDao.save(any())).thenAnswer(call -> {
+            SyncCheckpointEntity checkpoint = call.getArgument(0);
+            checkpoints.put(checkpoint.getTableName(), checkpoint);
+            return checkpoint;
+        });
+        doAnswer(call -> checkpoints.remove(call.<String>getArgument(0)))
+                .when(syncCheckpointDao).deleteById(any());
+        when(syncWatermarkDao.save(any())).thenAnswer(call -> {
+            SyncWatermarkEntity watermark = call.getArgument(0);
+            watermarks.put(watermark.getTableName(), watermark);
+            return watermark;
+        });
+        when(localProductDao.upsertAll(anyList())).thenAnswer(call -> {
+            List<LocalProductEntity> rows = call.getArgument(0);
+            synchronized (writtenBatches) {
+                writtenBatches.add(rows.stream().map(LocalProductEntity::getProductId).toList());
+            }
+            rows.forEach(row -> sixRowsWritten.countDown());
+            return rows.size();
+        });
+
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + directory.resolve("test.db"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        writer = new SqliteWriteExecutor(new DataSourceTransactionManager(dataSource), jdbcTemplate, new SqliteWriterProperties());
+
+        SyncProperties syncProperties = new SyncProperties();
+        syncProperties.setWriteBatchSize(3);
+        service = new CatalogSyncServiceImpl(productDao, mock(ProductBarcodeDao.class), mock(ProductDescriptionDao.class),
+                localProductDao, mock(LocalProductBarcodeDao.class), mock(LocalProductDescriptionDao.class),
+                syncWatermarkDao, syncCheckpointDao, mock(LocalCatalogStagingDao.class), mock(SyncProgressService.class),
+                syncProperties, mock(PlatformTransactionManager.class), writer, mock(PlatformTransactionManager.class),
+                mock(HotCatalogService.class));
+        ReflectionTestUtils.setField(service, "mysqlEntityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(service, "sqliteEntityManager", mock(EntityManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void pullCutOffMidBatchResumesFromItsLastCommittedBatch() {
+        // The connection drops while the third batch is being read, once the second has committed
+        when(productDao.streamFromProductId(anyLong(), any())).thenAnswer(call -> Stream.concat(
+                products(call.getArgument(0), 7),
+                Stream.<ProductEntity>generate(() -> {
+                    await(sixRowsWritten);
+                    throw new DataAccessResourceFailureException("Communications link failure");
+                }).limit(1)));
+
+        SyncResult cutOff = service.pullCatalog();
+
+        assertThat(cutOff.isSuccess()).isFalse();
+        assertThat(writtenBatches).containsExactly(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L));
+        SyncCheckpointEntity checkpoint = checkpoints.get("product");
+        assertThat(checkpoint.getMode()).isEqualTo(CatalogSyncMode.FULL);
+        assertThat(checkpoint.getLastProductId()).isEqualTo(6L);
+        assertThat(checkpoint.getRowsCommitted()).isEqualTo(6);
+        assertThat(watermarks).isEmpty();
+
+        writtenBatches.clear();
+        when(productDao.streamFromProductId(anyLong(), any())).thenAnswer(call -> products(call.getArgument(0), 10));
+
+        SyncResult resumed = service.pullCatalog();
+
+        assertThat(resumed.isSuccess()).isTrue();
+        assertThat(resumed.getDetails().get("products").getResumedFromProductId()).isEqualTo(6L);
+        // Only the last committed product_id is read again
+        assertThat(writtenBatches).containsExactly(List.of(6L, 7L, 8L), List.of(9L, 10L));
+        assertThat(checkpoints).doesNotContainKey("product");
+        assertThat(watermarks.get("product").getHighWaterMark()).isEqualTo(UPDATED_AT);
+    }
+
+    @Test
+    void pullFromScratchStartsAtTheFirstProduct() {
+        when(productDao.streamFromProductId(anyLong(), any())).thenAnswer(call -> products(call.getArgument(0), 4));
+
+        SyncResult result = service.pullCatalog();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getDetails().get("products").getResumedFromProductId()).isNull();
+        assertThat(writtenBatches).containsExactly(List.of(1L, 2L, 3L), List.of(4L));
+        assertThat(checkpoints).isEmpty();
+    }
+
+    /**
+     * MySQL's products from {@code fromProductId} up to {@code lastProductId}, as streamFromProductId returns them.
+     */
+    private static Stream<ProductEntity> products(long fromProductId, long lastProductId) {
+        return LongStream.rangeClosed(Math.max(1, fromProductId), lastProductId).mapToObj(productId -> {
+            ProductEntity product = new ProductEntity();
+            product.setProductId(productId);
+            product.setStatus(1);
+            product.setBrandId(1);
+            product.setEbayId(0);
+            product.setModelNumber("M-" + productId);
+            product.setSku("SKU-" + productId);
+            product.setQtyPreorder(0);
+            product.setWeight(BigDecimal.ONE);
+            product.setWeightClassId(1);
+            product.setCreatedBy(1);
+            product.setUpdatedBy(1);
+            product.setCreatedAt(UPDATED_AT.minusDays(1));
+            product.setUpdatedAt(UPDATED_AT.minusDays(productId == lastProductId ? 0 : 1));
+            return product;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
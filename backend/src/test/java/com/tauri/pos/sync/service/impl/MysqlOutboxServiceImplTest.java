@@ -0,0 +1,223 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.mysql.model.Product;
+import com.tauri.pos.mysql.service.AdjustmentDetailService;
+import com.tauri.pos.mysql.service.ProductBarcodeService;
+import com.tauri.pos.mysql.service.ProductDescriptionService;
+import com.tauri.pos.mysql.service.ProductService;
+import com.tauri.pos.shared.enums.OutboxOperation;
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.dao.MysqlOutboxDao;
+import com.tauri.pos.sqlite.persistance.eo.MysqlOutboxEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.model.SyncResult;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MysqlOutboxServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final ProductService productService = mock(ProductService.class);
+    private final PlatformTransactionManager mysqlTransactionManager = mock(PlatformTransactionManager.class);
+    // SKUs in the order MySQL received them, including writes of batches it later rolled back
+    private final List<String> written = new ArrayList<>();
+    // MySQL rejects creates with this SKU, and has no product with these ids
+    private String rejectedSku;
+    private final Set<Long> missingProductIds = new HashSet<>();
+
+    private EntityManagerFactory entityManagerFactory;
+    private SqliteWriteExecutor writer;
+    private MysqlOutboxDao mysqlOutboxDao;
+    private SyncProperties syncProperties;
+    private MysqlOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = SqliteTestDatabase.open(directory.resolve("test.db"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("PRAGMA journal_mode = WAL");
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V1__baseline.sql");
+
+        entityManagerFactory = SqliteTestDatabase.entityManagerFactory(dataSource);
+        writer = new SqliteWriteExecutor(new JpaTransactionManager(entityManagerFactory), jdbcTemplate, new SqliteWriterProperties());
+        mysqlOutboxDao = SqliteTestDatabase.repository(MysqlOutboxDao.class, entityManagerFactory);
+
+        when(productService.createProduct(any())).thenAnswer(call -> {
+            Product product = call.getArgument(0);
+            written.add(product.getSku());
+            if (product.getSku().equals(rejectedSku)) {
+                throw new DataIntegrityViolationException("duplicate sku " + rejectedSku);
+            }
+            return product;
+        });
+        when(productService.updateProductById(anyLong(), any())).thenAnswer(call -> {
+            Product product = call.getArgument(1);
+            written.add(product.getSku());
+            return missingProductIds.contains(product.getProductId()) ? null : product;
+        });
+
+        syncProperties = new SyncProperties();
+        syncProperties.getOutbox().setBatchSize(2);
+        syncProperties.setRetryAttempts(1);
+        syncProperties.setRetryDelay(Duration.ofSeconds(10));
+        service = new MysqlOutboxServiceImpl(mysqlOutboxDao, new ObjectMapper().findAndRegisterModules(),
+                mock(TaskScheduler.class), syncProperties, productService, mock(ProductBarcodeService.class),
+                mock(ProductDescriptionService.class), mock(AdjustmentDetailService.class), mysqlTransactionManager, writer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    void drainsInQueueOrderABatchPerMysqlTransaction() {
+        enqueueCreates("A", "B", "C");
+
+        SyncResult result = service.drain();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getDetails().get("outbox").getSynced()).isEqualTo(3);
+        assertThat(written).containsExactly("A", "B", "C");
+        verify(mysqlTransactionManager, times(2)).commit(any());
+        assertThat(mysqlOutboxDao.count()).isZero();
+        assertThat(service.getState().getApplied()).isEqualTo(3);
+    }
+
+    @Test
+    void failingBatchIsReplayedEntryByEntryAndTheFailingEntryHoldsUpTheRest() {
+        rejectedSku = "B";
+        enqueueCreates("A", "B", "C");
+
+        SyncResult result = service.drain();
+
+        assertThat(result.isSuccess()).isFalse();
+        // A and B together, rolled back; then A alone, committed; then B alone, failing
+        assertThat(written).containsExactly("A", "B", "A", "B");
+        MysqlOutboxEntity failed = entry("B");
+        assertThat(failed.getStatus()).isEqualTo(SyncStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(10), within(2, ChronoUnit.SECONDS));
+        assertThat(failed.getLastError()).isEqualTo("duplicate sku B");
+        assertThat(entry("C").getStatus()).isEqualTo(SyncStatus.PENDING);
+        assertThat(skus()).containsExactly("B", "C");
+
+        // B waits out its backoff, and C waits behind it
+        written.clear();
+        assertThat(service.drain().isSuccess()).isTrue();
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void entryOutOfRetriesIsParkedAndTheQueueMovesOn() {
+        syncProperties.setRetryDelay(Duration.ZERO);
+        rejectedSku = "B";
+        enqueueCreates("A", "B", "C");
+
+        service.drain();
+        SyncResult result = service.drain();
+
+        assertThat(result.isSuccess()).isFalse();
+        MysqlOutboxEntity parked = entry("B");
+        assertThat(parked.getStatus()).isEqualTo(SyncStatus.CONFLICT);
+        assertThat(parked.getAttempts()).isEqualTo(2);
+        assertThat(skus()).containsExactly("B");
+        assertThat(written).endsWith("C");
+        assertThat(service.getState().getConflicts()).isEqualTo(1);
+
+        // Queued again once MySQL accepts it
+        rejectedSku = null;
+        assertThat(service.retryConflicts()).isEqualTo(1);
+        assertThat(service.drain().isSuccess()).isTrue();
+        assertThat(mysqlOutboxDao.count()).isZero();
+    }
+
+    @Test
+    void updateOfARowGoneFromMysqlIsParked() {
+        missingProductIds.add(7L);
+        service.enqueue("product", OutboxOperation.UPDATE, "7", Product.builder().productId(7L).sku("GONE").build());
+        enqueueCreates("A");
+
+        SyncResult result = service.drain();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getDetails().get("outbox").getErrors()).isEqualTo(1);
+        MysqlOutboxEntity parked = entry("GONE");
+        assertThat(parked.getStatus()).isEqualTo(SyncStatus.CONFLICT);
+        assertThat(parked.getLastError()).isEqualTo("Row no longer exists in MySQL");
+        assertThat(skus()).containsExactly("GONE");
+    }
+
+    @Test
+    void unreachableMysqlCountsNoAttempt() {
+        when(mysqlTransactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Communications link failure"));
+        enqueueCreates("A", "B");
+
+        SyncResult result = service.drain();
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(mysqlOutboxDao.findByStatusInOrderBySeqAsc(Set.of(SyncStatus.PENDING), Limit.of(10)))
+                .extracting(MysqlOutboxEntity::getAttempts)
+                .containsExactly(0, 0);
+        assertThat(written).isEmpty();
+    }
+
+    private void enqueueCreates(String... skus) {
+        for (String sku : skus) {
+            service.enqueue("product", OutboxOperation.CREATE, null, Product.builder().sku(sku).build());
+        }
+    }
+
+    private MysqlOutboxEntity entry(String sku) {
+        return mysqlOutboxDao.findAll().stream()
+                .filter(entry -> entry.getPayload().contains("\"sku\":\"" + sku + "\""))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * SKUs still in the outbox, in sequence order.
+     */
+    private List<String> skus() {
+        return mysqlOutboxDao.findAll().stream()
+                .sorted((a, b) -> Long.compare(a.getSeq(), b.getSeq()))
+                .map(entry -> entry.getPayload().replaceAll(".*\"sku\":\"([^\"]*)\".*", "$1"))
+                .toList();
+    }
+}
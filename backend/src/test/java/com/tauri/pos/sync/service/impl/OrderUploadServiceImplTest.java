@@ -0,0 +1,175 @@
+package com.tauri.pos.sync.service.impl;
+
+import com.tauri.pos.SqliteTestDatabase;
+import com.tauri.pos.config.SqliteWriteExecutor;
+import com.tauri.pos.config.SqliteWriterProperties;
+import com.tauri.pos.mysql.persistance.dao.OrderItemDao;
+import com.tauri.pos.mysql.persistance.eo.OrderItemEntity;
+import com.tauri.pos.shared.enums.SyncStatus;
+import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemBatchDaoImpl;
+import com.tauri.pos.sqlite.persistance.dao.LocalOrderItemDao;
+import com.tauri.pos.sqlite.persistance.eo.LocalOrderItemEntity;
+import com.tauri.pos.sync.config.SyncProperties;
+import com.tauri.pos.sync.model.SyncResult;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderUploadServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final OrderItemDao orderItemDao = mock(OrderItemDao.class);
+    // Local ids sent to MySQL, one list per multi-row insert, including inserts MySQL rejected
+    private final List<List<Long>> sent = new ArrayList<>();
+    // MySQL rejects inserts holding this local id, and cannot be reached at all while unreachable
+    private Long rejectedId;
+    private boolean unreachable;
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private SqliteWriteExecutor writer;
+    private LocalOrderItemDao localOrderItemDao;
+    private OrderUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = SqliteTestDatabase.open(directory.resolve("test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("PRAGMA journal_mode = WAL");
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V1__baseline.sql");
+        SqliteTestDatabase.runScript(jdbcTemplate, "db/sqlite/V3__order_scoped_idempotency_key.sql");
+
+        entityManagerFactory = SqliteTestDatabase.entityManagerFactory(dataSource);
+        writer = new SqliteWriteExecutor(new JpaTransactionManager(entityManagerFactory), jdbcTemplate, new SqliteWriterProperties());
+        localOrderItemDao = SqliteTestDatabase.repository(LocalOrderItemDao.class, entityManagerFactory,
+                new LocalOrderItemBatchDaoImpl(jdbcTemplate));
+
+        when(orderItemDao.upsertAll(anyList())).thenAnswer(call -> {
+            List<OrderItemEntity> items = call.getArgument(0);
+            List<Long> localIds = items.stream().map(OrderItemEntity::getLocalId).toList();
+            sent.add(localIds);
+            if (unreachable) {
+                throw new CannotCreateTransactionException("Communications link failure");
+            }
+            if (localIds.contains(rejectedId)) {
+                throw new DataIntegrityViolationException("order item " + rejectedId + " rejected");
+            }
+            Map<Long, Long> remoteIds = new LinkedHashMap<>();
+            localIds.forEach(localId -> remoteIds.put(localId, localId + 1000));
+            return remoteIds;
+        });
+
+        SyncProperties syncProperties = new SyncProperties();
+        syncProperties.setTerminalId("till-1");
+        syncProperties.getUpload().setBatchSize(2);
+        syncProperties.setRetryDelay(Duration.ofSeconds(10));
+        service = new OrderUploadServiceImpl(localOrderItemDao, orderItemDao, mock(TaskScheduler.class), syncProperties, writer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    void uploadsPendingItemsInBatchesAndMarksThemSynced() {
+        insertItems(SyncStatus.PENDING, 3);
+
+        SyncResult result = service.uploadOrderItems();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(sent).containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(localOrderItemDao.findAll()).allSatisfy(item -> {
+            assertThat(item.getSyncStatus()).isEqualTo(SyncStatus.SYNCED);
+            assertThat(item.getRemoteId()).isEqualTo(item.getId() + 1000);
+        });
+    }
+
+    @Test
+    void rejectedBatchIsResentRowByRowAndOnlyTheFailingRowFails() {
+        rejectedId = 2L;
+        insertItems(SyncStatus.PENDING, 2);
+
+        SyncResult result = service.uploadOrderItems();
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getDetails().get("order_items").getErrors()).isEqualTo(1);
+        assertThat(sent).containsExactly(List.of(1L, 2L), List.of(1L), List.of(2L));
+        assertThat(item(1L).getSyncStatus()).isEqualTo(SyncStatus.SYNCED);
+        LocalOrderItemEntity failed = item(2L);
+        assertThat(failed.getSyncStatus()).isEqualTo(SyncStatus.FAILED);
+        assertThat(failed.getSyncAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(10), within(2, ChronoUnit.SECONDS));
+        assertThat(failed.getSyncError()).isEqualTo("order item 2 rejected");
+
+        // Not resent before its backoff has passed
+        sent.clear();
+        assertThat(service.uploadOrderItems().isSuccess()).isTrue();
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void unreachableMysqlRequeuesTheBatchWithoutCountingAnAttempt() {
+        unreachable = true;
+        insertItems(SyncStatus.PENDING, 2);
+
+        SyncResult result = service.uploadOrderItems();
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getErrors()).containsExactly("Communications link failure");
+        assertThat(localOrderItemDao.findAll()).allSatisfy(item -> {
+            assertThat(item.getSyncStatus()).isEqualTo(SyncStatus.PENDING);
+            assertThat(item.getSyncAttempts()).isZero();
+        });
+    }
+
+    @Test
+    void itemsAnInterruptedRunLeftSyncingAreRequeuedAndUploaded() {
+        // Claimed by a run the terminal was shut down in the middle of
+        insertItems(SyncStatus.SYNCING, 2);
+
+        SyncResult result = service.uploadOrderItems();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(sent).containsExactly(List.of(1L, 2L));
+        assertThat(localOrderItemDao.findAll()).extracting(LocalOrderItemEntity::getSyncStatus)
+                .containsOnly(SyncStatus.SYNCED);
+    }
+
+    private void insertItems(SyncStatus status, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO local_order_items (order_id, product_id, quantity, price, sync_status) VALUES (1, 7, 1, 9.99, ?)",
+                    status.name());
+        }
+    }
+
+    private LocalOrderItemEntity item(Long id) {
+        return localOrderItemDao.findById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tauri.pos.sync.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequenceGapsTest {
+
+    private static final LocalDateTime SETTLED_BEFORE = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private record Row(long id, LocalDateTime writtenAt) {
+    }
+
+    @Test
+    void appliesEverythingWithoutGaps() {
+        List<Row> rows = List.of(row(6, true), row(7, true));
+
+        assertThat(ready(5, rows)).isEqualTo(rows);
+    }
+
+    @Test
+    void waitsAtAGapWhileItsNextRowIsRecent() {
+        List<Row> rows = List.of(row(6, false), row(8, true), row(9, true));
+
+        assertThat(ready(5, rows)).containsExactly(rows.get(0));
+        assertThat(ready(7, rows.subList(1, 3))).containsExactlyElementsOf(rows.subList(1, 3));
+    }
+
+    @Test
+    void passesAGapOnceItHasSettled() {
+        List<Row> rows = List.of(row(6, false), row(8, false), row(10, true));
+
+        assertThat(ready(5, rows)).containsExactly(rows.get(0), rows.get(1));
+    }
+
+    @Test
+    void rowsWithoutATimestampCountAsSettled() {
+        List<Row> rows = List.of(new Row(9, null));
+
+        assertThat(ready(5, rows)).isEqualTo(rows);
+    }
+
+    private static List<Row> ready(long cursor, List<Row> rows) {
+        return SequenceGaps.untilUnsettledGap(cursor, rows, Row::id, Row::writtenAt, SETTLED_BEFORE);
+    }
+
+    private static Row row(long id, boolean recent) {
+        return new Row(id, recent ? SETTLED_BEFORE.plusSeconds(1) : SETTLED_BEFORE.minusSeconds(1));
+    }
+}
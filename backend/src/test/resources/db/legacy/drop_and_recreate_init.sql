@@ -0,0 +1,76 @@
+-- Schema created by the drop-and-recreate init in DatabaseInitController before migrations existed
+
+CREATE TABLE users (
+    userid INTEGER PRIMARY KEY AUTOINCREMENT,
+    username TEXT UNIQUE NOT NULL,
+    hashed_password TEXT NOT NULL,
+    permission TEXT NOT NULL DEFAULT 'user',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Insert default user data with proper BCrypt hashes
+INSERT INTO users (userid, username, hashed_password, permission, created_at, updated_at) VALUES
+(1, 'admin', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'admin', '2025-01-01 00:00:00', '2025-01-01 00:00:00'),
+(2, 'testuser', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'user', '2025-01-01 00:00:00', '2025-01-01 00:00:00');
+
+-- Create local SQLite tables (mirroring MySQL entities with local_ prefix)
+CREATE TABLE local_product (
+    product_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    status INTEGER NOT NULL DEFAULT 1,
+    brand_id INTEGER,
+    ebay_id INTEGER,
+    model_number VARCHAR(255),
+    sku VARCHAR(255),
+    date_available DATE,
+    date_backorder DATE,
+    date_preorder DATE,
+    qty_preorder INTEGER DEFAULT 0,
+    barcode VARCHAR(45),
+    weight DECIMAL(10,3),
+    weight_class_id INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL
+);
+
+CREATE TABLE local_product_barcode (
+    product_id INTEGER NOT NULL,
+    barcode VARCHAR(45) NOT NULL,
+    status INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL,
+    PRIMARY KEY (product_id, barcode),
+    FOREIGN KEY (product_id) REFERENCES local_product(product_id) ON DELETE CASCADE
+);
+
+CREATE TABLE local_product_description (
+    product_id INTEGER NOT NULL,
+    site_id INTEGER NOT NULL,
+    language_id INTEGER NOT NULL,
+    name VARCHAR(255),
+    description TEXT,
+    feature TEXT,
+    specification TEXT,
+    include TEXT,
+    required TEXT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by INTEGER NOT NULL,
+    updated_by INTEGER NOT NULL,
+    PRIMARY KEY (product_id, site_id, language_id),
+    FOREIGN KEY (product_id) REFERENCES local_product(product_id) ON DELETE CASCADE
+);
+
+-- Create indexes for local tables
+CREATE INDEX idx_local_product_status ON local_product(status);
+CREATE INDEX idx_local_product_brand_id ON local_product(brand_id);
+CREATE INDEX idx_local_product_sku ON local_product(sku);
+CREATE INDEX idx_local_product_barcode ON local_product(barcode);
+CREATE INDEX idx_local_product_barcode_status ON local_product_barcode(status);
+CREATE INDEX idx_local_product_description_product_id ON local_product_description(product_id);
+CREATE INDEX idx_local_product_description_site_id ON local_product_description(site_id);
+CREATE INDEX idx_local_product_description_language_id ON local_product_description(language_id);